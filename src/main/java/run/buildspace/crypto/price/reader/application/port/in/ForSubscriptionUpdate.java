@@ -2,10 +2,14 @@ package run.buildspace.crypto.price.reader.application.port.in;
 
 import run.buildspace.crypto.price.reader.domain.model.PendingSubscription;
 
+import java.util.List;
+
 
 public interface ForSubscriptionUpdate {
     void handleSubscription(PendingSubscription subscription);
 
+    void handleSubscriptions(List<PendingSubscription> subscriptions);
+
     void reloadAllSubscriptions();
 
 }
@@ -7,7 +7,9 @@ import java.util.List;
 public interface PriceSubscriptionRepository {
     boolean exists(String symbol);
     void save(Subscription subscription);
+    void saveAll(List<Subscription> subscriptions);
     void delete(String symbol);
+    void deleteAll(List<String> symbols);
     List<String> findAll();
     long count();
 }
@@ -12,6 +12,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -32,13 +39,11 @@ public class SubscriptionService implements ForSubscriptionUpdate {
 
     @Override
     public void handleSubscription(PendingSubscription pendingSubscription) {
-        boolean exists = priceSubscriptionRepository.exists(pendingSubscription.subscription().symbol());
-        if ((exists && pendingSubscription.subscription().subscribe()) || (!exists && !pendingSubscription.subscription().subscribe())) {
+        if (isUnchanged(pendingSubscription.subscription())) {
             pendingSubscription.onSuccess().run();
         } else {
             Subscription subscription = pendingSubscription.subscription();
-            BiConsumer<String, Consumer<Boolean>> action = pendingSubscription.subscription().subscribe() ? cryptoStreamSubscriber::subscribe : cryptoStreamSubscriber::unsubscribe;
-            action.accept(subscription.symbol(), success -> {
+            action(subscription).accept(subscription.symbol(), success -> {
                 if (BooleanUtils.isTrue(success)) {
                     transactionTemplate.executeWithoutResult(status -> priceSubscriptionRepository.save(subscription));
                     pendingSubscription.onSuccess().run();
@@ -49,6 +54,33 @@ public class SubscriptionService implements ForSubscriptionUpdate {
         }
     }
 
+    /**
+     * Handles a batch of subscriptions in delivery order. Only the last subscription of each symbol is applied; the
+     * earlier ones share its outcome, so a subscribe/unsubscribe pair for the same symbol costs nothing. Once the
+     * exchange has answered every change, the accepted ones are stored in a single transaction.
+     */
+    @Override
+    public void handleSubscriptions(List<PendingSubscription> pendingSubscriptions) {
+        Map<String, List<PendingSubscription>> bySymbol = new LinkedHashMap<>();
+        pendingSubscriptions.forEach(it -> bySymbol.computeIfAbsent(it.subscription().symbol(), symbol -> new ArrayList<>()).add(it));
+
+        List<PendingSubscription> changes = new ArrayList<>();
+        for (List<PendingSubscription> sameSymbol : bySymbol.values()) {
+            PendingSubscription collapsed = collapse(sameSymbol);
+            if (isUnchanged(collapsed.subscription())) {
+                collapsed.onSuccess().run();
+            } else {
+                changes.add(collapsed);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        logger.debug("Applying {} change(s) out of {} subscription(s)", changes.size(), pendingSubscriptions.size());
+        BatchOutcome outcome = new BatchOutcome(changes.size());
+        changes.forEach(it -> action(it.subscription()).accept(it.subscription().symbol(), success -> outcome.settle(it, BooleanUtils.isTrue(success))));
+    }
+
     @Override
     public void reloadAllSubscriptions() {
         priceSubscriptionRepository.findAll().forEach(it -> cryptoStreamSubscriber.subscribe(it, success -> {
@@ -60,4 +92,65 @@ public class SubscriptionService implements ForSubscriptionUpdate {
         }));
     }
 
+    private boolean isUnchanged(Subscription subscription) {
+        return priceSubscriptionRepository.exists(subscription.symbol()) == subscription.subscribe();
+    }
+
+    private BiConsumer<String, Consumer<Boolean>> action(Subscription subscription) {
+        return subscription.subscribe() ? cryptoStreamSubscriber::subscribe : cryptoStreamSubscriber::unsubscribe;
+    }
+
+    private static PendingSubscription collapse(List<PendingSubscription> sameSymbol) {
+        PendingSubscription last = sameSymbol.get(sameSymbol.size() - 1);
+        if (sameSymbol.size() == 1) {
+            return last;
+        }
+        return new PendingSubscription(last.subscription(),
+                () -> sameSymbol.forEach(it -> it.onSuccess().run()),
+                () -> sameSymbol.forEach(it -> it.onFailure().run()));
+    }
+
+    /**
+     * Collects the exchange's answers for one batch and, once all of them are in, stores the accepted changes.
+     */
+    private final class BatchOutcome {
+        private final AtomicInteger pending;
+        private final Queue<PendingSubscription> accepted = new ConcurrentLinkedQueue<>();
+        private final Queue<PendingSubscription> rejected = new ConcurrentLinkedQueue<>();
+
+        private BatchOutcome(int size) {
+            this.pending = new AtomicInteger(size);
+        }
+
+        private void settle(PendingSubscription pendingSubscription, boolean success) {
+            (success ? accepted : rejected).add(pendingSubscription);
+            if (pending.decrementAndGet() == 0) {
+                store();
+                rejected.forEach(it -> it.onFailure().run());
+            }
+        }
+
+        private void store() {
+            if (accepted.isEmpty()) {
+                return;
+            }
+            List<Subscription> subscribed = accepted.stream().map(PendingSubscription::subscription).filter(Subscription::subscribe).toList();
+            List<String> unsubscribed = accepted.stream().map(PendingSubscription::subscription).filter(it -> !it.subscribe()).map(Subscription::symbol).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!subscribed.isEmpty()) {
+                        priceSubscriptionRepository.saveAll(subscribed);
+                    }
+                    if (!unsubscribed.isEmpty()) {
+                        priceSubscriptionRepository.deleteAll(unsubscribed);
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.error("Error storing {} subscription change(s): {}", accepted.size(), e.getMessage(), e);
+                accepted.forEach(it -> it.onFailure().run());
+                return;
+            }
+            accepted.forEach(it -> it.onSuccess().run());
+        }
+    }
 }
@@ -7,9 +7,28 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.Objects;
 
+/**
+ * Price tick for a symbol. The price is kept in fixed-point form ({@code priceMantissa * 10^-priceScale}) so the
+ * ingestion path never allocates a {@link BigDecimal}; {@link #price()} builds one on demand. {@code symbolId} is the
+ * symbol's dense id when the ingestion side knows it ({@link #NO_SYMBOL_ID} otherwise), so per-symbol data can be
+ * looked up by index instead of by string.
+ * <p>
+ * {@code timestamp} is the exchange event time when the source reports one. {@code receivedNanos} is the
+ * {@link System#nanoTime()} at which the source frame arrived ({@link #NOT_RECEIVED} otherwise); it only has meaning
+ * inside this process and is used to measure latency, never published. {@code raw}, when present, is the source event
+ * exactly as received, to be published as-is instead of re-serializing the update. Both describe how the tick
+ * travelled rather than the tick itself, so equality, hash code and string form leave them out.
+ */
 @Builder
-public record PriceUpdate(String symbol, BigDecimal price, Long timestamp) implements Serializable {
+public record PriceUpdate(int symbolId, String symbol, long priceMantissa, byte priceScale, Long timestamp,
+                          long receivedNanos, byte[] raw) implements Serializable {
+
+    public static final byte NO_PRICE = -1;
+    public static final int NO_SYMBOL_ID = -1;
+    public static final long NOT_RECEIVED = 0;
+
     public PriceUpdate {
         if (StringUtils.isBlank(symbol)) {
             throw new InvalidSymbolException("Symbol cannot be empty");
@@ -17,14 +36,57 @@ public record PriceUpdate(String symbol, BigDecimal price, Long timestamp) imple
         if (timestamp == null) {
             timestamp = System.currentTimeMillis();
         }
-        validate("Price", price);
+        validate("Price", priceScale);
+
+    }
+
+    public BigDecimal price() {
+        return BigDecimal.valueOf(priceMantissa, priceScale);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof PriceUpdate that
+                && symbolId == that.symbolId
+                && priceMantissa == that.priceMantissa
+                && priceScale == that.priceScale
+                && symbol.equals(that.symbol)
+                && timestamp.equals(that.timestamp);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(symbolId, symbol, priceMantissa, priceScale, timestamp);
+    }
 
+    @Override
+    public String toString() {
+        return "PriceUpdate[symbolId=" + symbolId + ", symbol=" + symbol + ", price=" + price() + ", timestamp=" + timestamp + "]";
     }
 
-    private void validate(String value, Object field) {
-        if (field == null) {
+    private void validate(String value, byte scale) {
+        if (scale < 0) {
             throw new InvalidPriceException(value + " must be informed");
         }
     }
 
+    public static class PriceUpdateBuilder {
+        private int symbolId = NO_SYMBOL_ID;
+        private byte priceScale = NO_PRICE;
+
+        public PriceUpdateBuilder price(BigDecimal price) {
+            if (price == null) {
+                this.priceScale = NO_PRICE;
+                return this;
+            }
+            BigDecimal normalized = price.scale() < 0 ? price.setScale(0) : price;
+            if (normalized.scale() > Byte.MAX_VALUE || normalized.unscaledValue().bitLength() > 63) {
+                throw new InvalidPriceException("Price out of range: " + price);
+            }
+            this.priceMantissa = normalized.unscaledValue().longValue();
+            this.priceScale = (byte) normalized.scale();
+            return this;
+        }
+    }
+
 }
@@ -0,0 +1,247 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import run.buildspace.crypto.price.reader.domain.exception.WSException;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * One Binance WebSocket connection of the pool: its session, frame decoding and per-connection metrics.
+ * Decoded frames and connection loss are reported to a {@link Listener}.
+ */
+class BinanceConnection extends TextWebSocketHandler {
+    private final Logger logger = LoggerFactory.getLogger(BinanceConnection.class);
+
+    static final String CONNECTION_TAG = "connection";
+    private static final int SEND_TIME_LIMIT = 10_000;
+    private static final int SEND_BUFFER_SIZE_LIMIT = 512 * 1024;
+
+    interface Listener {
+        void onPrice(PriceUpdate priceUpdate);
+
+        void onError(WSException error);
+
+        void onRequestResult(long id, boolean accepted);
+
+        void onConnectionLost(BinanceConnection connection);
+    }
+
+    private final int index;
+    private final SymbolRegistry symbolRegistry;
+    private final PriceLatencyMetrics latencyMetrics;
+    private final Supplier<WebSocketClient> clientFactory;
+    private final Listener listener;
+    private final BinanceFrameDecoder decoder;
+    private final TokenBucket sendRate;
+    private final boolean passthrough;
+    private final AtomicInteger status = new AtomicInteger(0);
+    private final AtomicLong lastMessageTimestamp = new AtomicLong(System.currentTimeMillis());
+    private final Counter messagesProcessed;
+    private final Counter messagesIgnored;
+    private WebSocketClient client;
+    private volatile WebSocketSession session;
+    private volatile boolean closing;
+
+    BinanceConnection(int index, BinanceWebSocketProperties properties, MeterRegistry meterRegistry, ShardRouter shardRouter,
+                      SymbolRegistry symbolRegistry, PriceLatencyMetrics latencyMetrics, Supplier<WebSocketClient> clientFactory, Listener listener) {
+        this.index = index;
+        this.symbolRegistry = symbolRegistry;
+        this.latencyMetrics = latencyMetrics;
+        this.decoder = new BinanceFrameDecoder(symbolRegistry);
+        this.sendRate = new TokenBucket(properties.requests().messagesPerSecond());
+        this.passthrough = properties.passthrough() != null && properties.passthrough().enabled();
+        this.clientFactory = clientFactory;
+        this.listener = listener;
+        Tags tags = tags();
+
+        Gauge.builder(properties.observability().webSocketStatusGauge(), status, AtomicInteger::get).tags(tags)
+                .description(properties.observability().webSocketStatusDescription()).register(meterRegistry);
+        Gauge.builder(properties.observability().webSocketSilenceGauge(), lastMessageTimestamp, ts -> (System.currentTimeMillis() - ts.get()) / 1000.0).tags(tags)
+                .description(properties.observability().webSocketSilenceDescription()).register(meterRegistry);
+        Gauge.builder(properties.observability().webSocketStreamsGauge(), shardRouter, router -> router.load(index)).tags(tags)
+                .register(meterRegistry);
+
+        messagesProcessed = meterRegistry.counter(properties.observability().webSocketMessagesProcessedCounter(), tags);
+        messagesIgnored = meterRegistry.counter(properties.observability().webSocketMessagesIgnoredCounter(), tags);
+    }
+
+    int index() {
+        return index;
+    }
+
+    Tags tags() {
+        return Tags.of(CONNECTION_TAG, String.valueOf(index));
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    boolean isOpen() {
+        return session != null && session.isOpen();
+    }
+
+    /**
+     * Opens the connection to {@code url} and blocks until the handshake completes.
+     */
+    void open(String url) {
+        if (client == null) {
+            client = clientFactory.get();
+        }
+        try {
+            client.execute(this, new URI(url).toString()).get();
+        } catch (InterruptedException e) {
+            status.set(0);
+            Thread.currentThread().interrupt(); // Restore interrupted status
+            throw new WSException("Error connecting to Binance - interrupted: " + e.getMessage(), e);
+        } catch (URISyntaxException | ExecutionException e) {
+            status.set(0);
+            throw new WSException("Error connecting to Binance: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends {@code message}, waiting for the connection's {@link TokenBucket} so the exchange's message rate is
+     * never exceeded.
+     */
+    void send(TextMessage message) throws IOException {
+        WebSocketSession current = session;
+        if (current == null || !current.isOpen()) {
+            throw new IOException("Binance connection " + index + " is not open");
+        }
+        try {
+            sendRate.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting to send to Binance connection " + index);
+        }
+        current.sendMessage(message);
+    }
+
+    void close() {
+        closing = true;
+        WebSocketSession current = session;
+        if (current != null && current.isOpen()) {
+            try {
+                current.close(CloseStatus.GOING_AWAY);
+            } catch (IOException e) {
+                logger.warn("Error closing Binance connection {}: {}", index, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Closes the session a failed reconnect attempt opened. Unlike {@link #close} the connection is still expected to
+     * recover: the caller schedules the next attempt itself, so the close is not reported as a lost connection.
+     */
+    void drop() {
+        WebSocketSession current = session;
+        session = null;
+        status.set(0);
+        if (current != null && current.isOpen()) {
+            try {
+                current.close(CloseStatus.GOING_AWAY);
+            } catch (IOException e) {
+                logger.warn("Error closing Binance connection {}: {}", index, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // the pool sends from the subscription updater and the reconnect supervisor, so sends must be serialized
+        this.session = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT, SEND_BUFFER_SIZE_LIMIT);
+        status.set(1);
+        lastMessageTimestamp.set(System.currentTimeMillis());
+        logger.info("Connection {} connected to Binance. Session ID: {}", index, session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        long receivedNanos = System.nanoTime();
+        long receivedMillis = System.currentTimeMillis();
+        lastMessageTimestamp.set(receivedMillis);
+
+        String payload = message.getPayload();
+        logger.debug("Received message on connection {}: {}", index, payload);
+
+        switch (decoder.decode(payload)) {
+            case PRICE -> emitPrice(receivedNanos, receivedMillis);
+            case PRICE_ARRAY -> {
+                while (decoder.nextPrice()) {
+                    emitPrice(receivedNanos, receivedMillis);
+                }
+            }
+            case SUBSCRIPTION_RESULT -> {
+                logger.info("Subscription request {} confirmed on connection {}", decoder.id(), index);
+                listener.onRequestResult(decoder.id(), true);
+            }
+            case SUBSCRIPTION_ERROR -> {
+                messagesIgnored.increment();
+                logger.warn("Subscription request {} rejected by Binance on connection {}: {}", decoder.id(), index, decoder.error());
+                if (decoder.hasId()) {
+                    listener.onRequestResult(decoder.id(), false);
+                }
+                listener.onError(new WSException("Subscription request rejected by Binance: " + payload));
+            }
+            default -> {
+                messagesIgnored.increment();
+                listener.onError(new WSException("Invalid message received from Binance: " + payload));
+            }
+        }
+
+    }
+
+    private void emitPrice(long receivedNanos, long receivedMillis) {
+        messagesProcessed.increment();
+        int symbolId = decoder.symbolId();
+        String symbol = symbolId == SymbolRegistry.UNKNOWN ? decoder.symbol() : symbolRegistry.entry(symbolId).exchangeSymbol();
+        Long eventTime = null;
+        if (decoder.hasEventTime()) {
+            eventTime = decoder.eventTime();
+            latencyMetrics.recordExchange(eventTime, receivedMillis);
+        }
+        latencyMetrics.record(PriceLatencyMetrics.Stage.DECODE, receivedNanos);
+        listener.onPrice(PriceUpdate.builder().symbolId(symbolId).symbol(symbol)
+                .priceMantissa(decoder.priceMantissa()).priceScale(decoder.priceScale())
+                .timestamp(eventTime).receivedNanos(receivedNanos)
+                .raw(passthrough ? decoder.rawEvent() : null).build());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocketSession current = this.session;
+        if (current == null || (current instanceof WebSocketSessionDecorator decorator && decorator.getLastSession() != session)) {
+            // dropped after a failed reconnect attempt, or replaced since
+            logger.debug("Binance connection {} closed a stale session: {}", index, status);
+            return;
+        }
+        this.status.set(0);
+        logger.warn("Binance connection {} closed: {}", index, status);
+        if (!closing) {
+            listener.onConnectionLost(this);
+        }
+    }
+}
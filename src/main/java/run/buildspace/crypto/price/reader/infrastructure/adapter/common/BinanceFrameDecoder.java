@@ -0,0 +1,478 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass, tree-free decoder for Binance WebSocket frames.
+ * <p>
+ * Only the fields the reader needs ({@code s}, {@code p}, {@code E}, {@code result}, {@code id} and {@code error})
+ * are located; every other value is skipped without being materialised. Combined-stream frames
+ * ({@code {"stream":...,"data":{...}}}) are unwrapped and decoded from their {@code data} object.
+ * <p>
+ * All-market frames (an array of events, bare or inside the envelope) decode as {@link FrameType#PRICE_ARRAY} without
+ * touching the elements; {@link #nextPrice()} then walks them one by one and skips the rest of any element whose
+ * symbol is not active as soon as its {@code s} field has been read.
+ * <p>
+ * Symbols are resolved against the {@link SymbolRegistry} straight from the frame, so {@link #symbolId()} is available
+ * without materialising the symbol; {@link #symbol()} is only needed for symbols the registry does not know. The decoder keeps offsets into the last
+ * decoded payload instead of copying values, so an instance is meant to be owned by a single receive thread and
+ * reused for every frame of that connection.
+ * <p>
+ * Prices are parsed straight from the frame characters into fixed-point form ({@link #priceMantissa()} scaled by
+ * {@link #priceScale()}); prices that do not fit in a {@code long} mantissa are reported as {@link FrameType#UNKNOWN}.
+ * The span of the decoded event object (the {@code data} object of an envelope, or the array element) is kept as well,
+ * so {@link #rawEvent()} can hand out the exchange's original event.
+ */
+public class BinanceFrameDecoder {
+
+    public enum FrameType {
+        PRICE,
+        PRICE_ARRAY,
+        SUBSCRIPTION_RESULT,
+        SUBSCRIPTION_ERROR,
+        UNKNOWN
+    }
+
+    private static final int NOT_FOUND = -1;
+    private static final long MAX_MANTISSA_BEFORE_DIGIT = Long.MAX_VALUE / 10;
+
+    private final SymbolRegistry registry;
+
+    private String payload;
+    private int length;
+
+    private int symbolStart;
+    private int symbolEnd;
+    private boolean hasPrice;
+    private long priceMantissa;
+    private byte priceScale;
+    private long eventTime;
+    private boolean hasEventTime;
+    private long id;
+    private boolean hasId;
+    private boolean hasResult;
+    private int errorStart;
+    private int errorEnd;
+    private int arrayCursor;
+    private int symbolId;
+    private int eventStart;
+    private int eventEnd;
+
+    public BinanceFrameDecoder(SymbolRegistry registry) {
+        this.registry = registry;
+    }
+
+    public FrameType decode(String frame) {
+        reset(frame);
+        try {
+            int pos = skipWhitespace(0);
+            if (pos < length && payload.charAt(pos) == '[') {
+                arrayCursor = pos + 1;
+                return FrameType.PRICE_ARRAY;
+            }
+            if (pos >= length || payload.charAt(pos) != '{') {
+                return FrameType.UNKNOWN;
+            }
+            int end = parseObject(pos);
+            if (eventStart == NOT_FOUND) {
+                eventStart = pos;
+                eventEnd = end;
+            }
+        } catch (IndexOutOfBoundsException | MalformedFrameException e) {
+            return FrameType.UNKNOWN;
+        }
+        return classify();
+    }
+
+    /**
+     * Advances to the next element of a {@link FrameType#PRICE_ARRAY} frame whose symbol is active in the registry
+     * and carries a price, exposing it through {@link #symbolId()}, {@link #priceMantissa()},
+     * {@link #priceScale()} and {@link #eventTime()}.
+     *
+     * @return false once the array is exhausted (or turns out to be malformed)
+     */
+    public boolean nextPrice() {
+        try {
+            while (arrayCursor != NOT_FOUND) {
+                int pos = skipWhitespace(arrayCursor);
+                char c = payload.charAt(pos);
+                if (c == ']') {
+                    arrayCursor = NOT_FOUND;
+                } else if (c == ',') {
+                    arrayCursor = pos + 1;
+                } else if (c != '{') {
+                    arrayCursor = skipValue(pos);
+                } else {
+                    resetElement();
+                    arrayCursor = parseElement(pos);
+                    eventStart = pos;
+                    eventEnd = arrayCursor;
+                    if (symbolId != SymbolRegistry.UNKNOWN && hasPrice) {
+                        return true;
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException | MalformedFrameException e) {
+            arrayCursor = NOT_FOUND;
+        }
+        return false;
+    }
+
+    /**
+     * Registry id of the decoded symbol, or {@link SymbolRegistry#UNKNOWN} if it is not registered.
+     */
+    public int symbolId() {
+        return symbolId;
+    }
+
+    public String symbol() {
+        return payload.substring(symbolStart, symbolEnd);
+    }
+
+    public long priceMantissa() {
+        return priceMantissa;
+    }
+
+    public byte priceScale() {
+        return priceScale;
+    }
+
+    public boolean hasEventTime() {
+        return hasEventTime;
+    }
+
+    public long eventTime() {
+        return eventTime;
+    }
+
+    public boolean hasId() {
+        return hasId;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    /**
+     * The decoded event object exactly as the exchange sent it, UTF-8 encoded.
+     */
+    public byte[] rawEvent() {
+        byte[] raw = new byte[eventEnd - eventStart];
+        for (int i = 0; i < raw.length; i++) {
+            char c = payload.charAt(eventStart + i);
+            if (c > 0x7F) {
+                return payload.substring(eventStart, eventEnd).getBytes(StandardCharsets.UTF_8);
+            }
+            raw[i] = (byte) c;
+        }
+        return raw;
+    }
+
+    public String error() {
+        return errorStart == NOT_FOUND ? null : payload.substring(errorStart, errorEnd);
+    }
+
+    private void reset(String frame) {
+        payload = frame;
+        length = frame.length();
+        id = 0;
+        hasId = false;
+        hasResult = false;
+        errorStart = NOT_FOUND;
+        errorEnd = NOT_FOUND;
+        arrayCursor = NOT_FOUND;
+        resetElement();
+    }
+
+    private void resetElement() {
+        symbolStart = NOT_FOUND;
+        symbolEnd = NOT_FOUND;
+        symbolId = SymbolRegistry.UNKNOWN;
+        eventStart = NOT_FOUND;
+        eventEnd = NOT_FOUND;
+        hasPrice = false;
+        priceMantissa = 0;
+        priceScale = 0;
+        eventTime = 0;
+        hasEventTime = false;
+    }
+
+    private FrameType classify() {
+        if (arrayCursor != NOT_FOUND) {
+            return FrameType.PRICE_ARRAY;
+        }
+        if (symbolStart != NOT_FOUND && hasPrice) {
+            symbolId = registry.idOf(payload, symbolStart, symbolEnd);
+            return FrameType.PRICE;
+        }
+        if (errorStart != NOT_FOUND) {
+            return FrameType.SUBSCRIPTION_ERROR;
+        }
+        if (hasResult && hasId) {
+            return FrameType.SUBSCRIPTION_RESULT;
+        }
+        return FrameType.UNKNOWN;
+    }
+
+    /**
+     * Parses the object starting at {@code pos} (which must point to '{') and returns the position after its '}'.
+     */
+    private int parseObject(int pos) {
+        pos = skipWhitespace(pos + 1);
+        if (payload.charAt(pos) == '}') {
+            return pos + 1;
+        }
+        while (true) {
+            expect(pos, '"');
+            int keyStart = pos + 1;
+            int keyEnd = endOfString(keyStart);
+            pos = skipWhitespace(keyEnd + 1);
+            expect(pos, ':');
+            pos = parseValue(keyStart, keyEnd, skipWhitespace(pos + 1));
+            pos = skipWhitespace(pos);
+            char c = payload.charAt(pos);
+            if (c == '}') {
+                return pos + 1;
+            }
+            expect(pos, ',');
+            pos = skipWhitespace(pos + 1);
+        }
+    }
+
+    /**
+     * Parses one array element starting at {@code pos} (which must point to '{'), giving up on it as soon as its
+     * symbol turns out not to be active. Returns the position after its '}'.
+     */
+    private int parseElement(int pos) {
+        int start = pos;
+        pos = skipWhitespace(pos + 1);
+        if (payload.charAt(pos) == '}') {
+            return pos + 1;
+        }
+        while (true) {
+            expect(pos, '"');
+            int keyStart = pos + 1;
+            int keyEnd = endOfString(keyStart);
+            pos = skipWhitespace(keyEnd + 1);
+            expect(pos, ':');
+            pos = parseValue(keyStart, keyEnd, skipWhitespace(pos + 1));
+            if (symbolStart != NOT_FOUND && symbolId == SymbolRegistry.UNKNOWN) {
+                symbolId = registry.activeIdOf(payload, symbolStart, symbolEnd);
+                if (symbolId == SymbolRegistry.UNKNOWN) {
+                    return endOfContainer(start);
+                }
+            }
+            pos = skipWhitespace(pos);
+            char c = payload.charAt(pos);
+            if (c == '}') {
+                return pos + 1;
+            }
+            expect(pos, ',');
+            pos = skipWhitespace(pos + 1);
+        }
+    }
+
+    private int parseValue(int keyStart, int keyEnd, int pos) {
+        int keyLength = keyEnd - keyStart;
+        if (keyLength == 1) {
+            char key = payload.charAt(keyStart);
+            if (key == 's') {
+                return parseSymbol(pos);
+            }
+            if (key == 'p') {
+                return parsePrice(pos);
+            }
+            if (key == 'E') {
+                int end = endOfScalar(pos);
+                eventTime = parseLong(pos, end);
+                hasEventTime = true;
+                return end;
+            }
+        } else if (keyMatches(keyStart, keyLength, "id")) {
+            int end = endOfScalar(pos);
+            if (payload.charAt(pos) != 'n') {
+                id = parseLong(pos, end);
+                hasId = true;
+            }
+            return end;
+        } else if (keyMatches(keyStart, keyLength, "result")) {
+            hasResult = true;
+            return skipValue(pos);
+        } else if (keyMatches(keyStart, keyLength, "data") && payload.charAt(pos) == '{') {
+            int end = parseObject(pos);
+            eventStart = pos;
+            eventEnd = end;
+            return end;
+        } else if (keyMatches(keyStart, keyLength, "data") && payload.charAt(pos) == '[') {
+            arrayCursor = pos + 1;
+            return endOfContainer(pos);
+        } else if (keyMatches(keyStart, keyLength, "error")) {
+            int end = skipValue(pos);
+            errorStart = pos;
+            errorEnd = end;
+            return end;
+        }
+        return skipValue(pos);
+    }
+
+    private int parseSymbol(int pos) {
+        if (payload.charAt(pos) != '"') {
+            return skipValue(pos);
+        }
+        symbolStart = pos + 1;
+        symbolEnd = endOfString(symbolStart);
+        return symbolEnd + 1;
+    }
+
+    private int parsePrice(int pos) {
+        if (payload.charAt(pos) == '"') {
+            int end = endOfString(pos + 1);
+            hasPrice = parseFixedPoint(pos + 1, end);
+            return end + 1;
+        }
+        int end = endOfScalar(pos);
+        hasPrice = parseFixedPoint(pos, end);
+        return end;
+    }
+
+    /**
+     * Parses a plain decimal ({@code -?digits(.digits)?}) into {@link #priceMantissa} and {@link #priceScale}.
+     * Trailing fractional zeros that would overflow the mantissa are dropped; any other overflow is rejected.
+     */
+    private boolean parseFixedPoint(int start, int end) {
+        boolean negative = start < end && payload.charAt(start) == '-';
+        int pos = negative ? start + 1 : start;
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean fraction = false;
+        boolean truncated = false;
+        for (; pos < end; pos++) {
+            char c = payload.charAt(pos);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            digits++;
+            if (truncated || mantissa > MAX_MANTISSA_BEFORE_DIGIT || (mantissa == MAX_MANTISSA_BEFORE_DIGIT && digit > 7)) {
+                if (!fraction || digit != 0) {
+                    return false;
+                }
+                truncated = true;
+                continue;
+            }
+            mantissa = mantissa * 10 + digit;
+            if (fraction) {
+                scale++;
+            }
+        }
+        if (digits == 0 || scale > Byte.MAX_VALUE) {
+            return false;
+        }
+        priceMantissa = negative ? -mantissa : mantissa;
+        priceScale = (byte) scale;
+        return true;
+    }
+
+    private int skipValue(int pos) {
+        char c = payload.charAt(pos);
+        if (c == '"') {
+            return endOfString(pos + 1) + 1;
+        }
+        if (c == '{' || c == '[') {
+            return endOfContainer(pos);
+        }
+        return endOfScalar(pos);
+    }
+
+    private int endOfContainer(int pos) {
+        int depth = 0;
+        while (true) {
+            char c = payload.charAt(pos);
+            if (c == '"') {
+                pos = endOfString(pos + 1);
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && --depth == 0) {
+                return pos + 1;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Returns the index of the closing quote of the string whose content starts at {@code pos}.
+     */
+    private int endOfString(int pos) {
+        while (true) {
+            char c = payload.charAt(pos);
+            if (c == '"') {
+                return pos;
+            }
+            pos += c == '\\' ? 2 : 1;
+        }
+    }
+
+    private int endOfScalar(int pos) {
+        while (pos < length) {
+            char c = payload.charAt(pos);
+            if (c == ',' || c == '}' || c == ']' || isWhitespace(c)) {
+                return pos;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private long parseLong(int start, int end) {
+        boolean negative = payload.charAt(start) == '-';
+        int pos = negative ? start + 1 : start;
+        if (pos >= end) {
+            throw new MalformedFrameException();
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = payload.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new MalformedFrameException();
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private void expect(int pos, char expected) {
+        if (payload.charAt(pos) != expected) {
+            throw new MalformedFrameException();
+        }
+    }
+
+    private boolean keyMatches(int keyStart, int keyLength, String key) {
+        return keyLength == key.length() && payload.regionMatches(keyStart, key, 0, keyLength);
+    }
+
+    private int skipWhitespace(int pos) {
+        while (pos < length && isWhitespace(payload.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /**
+     * Signals a frame that is not the JSON the decoder expects. Stack traces are not captured because the only
+     * consumer is {@link #decode(String)}, which turns it into {@link FrameType#UNKNOWN}.
+     */
+    private static class MalformedFrameException extends RuntimeException {
+        MalformedFrameException() {
+            super(null, null, false, false);
+        }
+    }
+}
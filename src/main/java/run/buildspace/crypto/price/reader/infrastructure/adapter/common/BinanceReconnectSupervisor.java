@@ -0,0 +1,148 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import io.github.resilience4j.core.IntervalFunction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange.dto.SubscriptionType;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reopens dropped Binance connections with exponential backoff and restores the symbols the {@link ShardRouter}
+ * holds for them, packing as many streams per SUBSCRIBE frame as {@code binance.reconnect.streams-per-request} allows.
+ * In combined-stream mode the symbols travel in the connection URL instead, and only those that do not fit are
+ * sent as SUBSCRIBE frames. Once the pool runs on the all-market stream, the first connection restores that stream
+ * and the {@link SymbolRegistry} keeps filtering it, so nothing else needs to be re-sent for those symbols. An attempt
+ * that fails after opening the connection drops the session it opened before the next one is scheduled, so a
+ * connection never ends up with two live sessions.
+ */
+class BinanceReconnectSupervisor {
+    private final Logger logger = LoggerFactory.getLogger(BinanceReconnectSupervisor.class);
+
+    static final int ALL_MARKET_CONNECTION = 0;
+
+    private final BinanceWebSocketProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+    private final SymbolRegistry symbolRegistry;
+    private final BinanceRequestTracker requestTracker;
+    private final IntervalFunction backoff;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "binance-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Integer, Long> lostAt = new ConcurrentHashMap<>();
+    private volatile boolean allMarket;
+
+    BinanceReconnectSupervisor(BinanceWebSocketProperties properties, MeterRegistry meterRegistry, ShardRouter shardRouter, SymbolRegistry symbolRegistry,
+                               BinanceRequestTracker requestTracker) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.shardRouter = shardRouter;
+        this.symbolRegistry = symbolRegistry;
+        this.requestTracker = requestTracker;
+        this.backoff = IntervalFunction.ofExponentialBackoff(properties.retryInterval(), properties.retryIntervalMultiplier(), properties.reconnect().maxInterval());
+    }
+
+    void connectionLost(BinanceConnection connection) {
+        if (lostAt.putIfAbsent(connection.index(), System.nanoTime()) == null) {
+            logger.warn("Binance connection {} lost, scheduling reconnect", connection.index());
+            schedule(connection, 1);
+        }
+    }
+
+    /**
+     * Makes the first connection carry the all-market stream from now on, including after reconnecting.
+     */
+    void allMarket(boolean allMarket) {
+        this.allMarket = allMarket;
+    }
+
+    boolean isAllMarket() {
+        return allMarket;
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void schedule(BinanceConnection connection, int attempt) {
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(() -> reconnect(connection, attempt), backoff.apply(attempt), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reconnect(BinanceConnection connection, int attempt) {
+        try {
+            logger.info("Reconnecting Binance connection {} (attempt {})", connection.index(), attempt);
+            int restored = establish(connection);
+            Long since = lostAt.remove(connection.index());
+            if (since != null) {
+                Timer.builder(properties.observability().webSocketRecoveryTimer()).tags(connection.tags()).register(meterRegistry)
+                        .record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+            }
+            meterRegistry.counter(properties.observability().webSocketRestoredSymbolsCounter(), connection.tags()).increment(restored);
+            meterRegistry.counter(properties.observability().webSocketReconnectsCounter(), connection.tags()).increment();
+            logger.info("Binance connection {} recovered, {} symbol(s) restored", connection.index(), restored);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Reconnect attempt {} of Binance connection {} failed: {}", attempt, connection.index(), e.getMessage());
+            connection.drop();
+            schedule(connection, attempt + 1);
+        }
+    }
+
+    /**
+     * Opens {@code connection} and makes it stream every symbol the router holds for it.
+     *
+     * @return the number of symbols streamed
+     */
+    int establish(BinanceConnection connection) throws IOException {
+        List<String> symbols = shardRouter.symbolsOf(connection.index());
+        List<String> streams = new ArrayList<>(symbols.size() + 1);
+        boolean carriesAllMarket = allMarket && connection.index() == ALL_MARKET_CONNECTION;
+        if (carriesAllMarket) {
+            streams.add(BinanceStreams.ALL_MARKET_MARK_PRICE);
+        }
+        symbols.forEach(symbol -> streams.add(BinanceStreams.markPrice(symbol)));
+
+        BinanceWebSocketProperties.Combined combined = properties.combined();
+        if (combined != null && combined.enabled()) {
+            int embedded = BinanceStreams.combinedStreamsFitting(combined.url(), streams, combined.maxUrlLength());
+            connection.open(BinanceStreams.combinedUrl(combined.url(), streams.subList(0, embedded)));
+            send(connection, SubscriptionType.SUBSCRIBE, streams.subList(embedded, streams.size()));
+        } else {
+            connection.open(properties.url());
+            send(connection, SubscriptionType.SUBSCRIBE, streams);
+        }
+        return carriesAllMarket ? symbols.size() + symbolRegistry.activeCount() : symbols.size();
+    }
+
+    /**
+     * Sends {@code streams} to {@code connection} in as few {@code type} frames as
+     * {@code binance.reconnect.streams-per-request} allows. Frames are tracked like any other request, so rejected or
+     * unanswered ones are logged, but the caller does not wait for their responses.
+     */
+    void send(BinanceConnection connection, SubscriptionType type, List<String> streams) throws IOException {
+        int perRequest = properties.reconnect().streamsPerRequest();
+        for (int from = 0; from < streams.size(); from += perRequest) {
+            List<String> chunk = streams.subList(from, Math.min(from + perRequest, streams.size()));
+            requestTracker.submit(connection, type, List.copyOf(chunk)).thenAccept(accepted -> {
+                if (!accepted) {
+                    logger.error("Binance did not confirm {} of {} stream(s) on connection {}", type, chunk.size(), connection.index());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.TextMessage;
+import run.buildspace.crypto.price.reader.domain.exception.WSException;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange.dto.BinanceSubscription;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange.dto.SubscriptionType;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Correlates SUBSCRIBE/UNSUBSCRIBE frames with Binance's {@code {"result":null,"id":N}} responses. Every frame gets a
+ * unique id and up to {@code binance.requests.max-in-flight} of them may await their response on each connection at
+ * once. A request completes {@code true} only when its response arrives, {@code false} when Binance rejects it or
+ * when {@code binance.requests.max-retries} resends after {@code binance.requests.timeout} ms all go unanswered.
+ * Resending reuses the id, so a late response to an earlier attempt still settles the request.
+ */
+class BinanceRequestTracker {
+    private final Logger logger = LoggerFactory.getLogger(BinanceRequestTracker.class);
+
+    private record InFlight(long id, BinanceConnection connection, TextMessage frame, CompletableFuture<Boolean> result) {
+    }
+
+    private final BinanceWebSocketProperties.Requests properties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<Long, ScheduledFuture<?>> timeouts = new ConcurrentHashMap<>();
+    private final Map<Integer, Semaphore> permits = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "binance-requests");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    BinanceRequestTracker(BinanceWebSocketProperties.Requests properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Sends one {@code type} frame for {@code streams} on {@code connection}, waiting first for a free in-flight slot.
+     *
+     * @return the outcome of the request, completed once Binance answers or every attempt has timed out
+     * @throws IOException when the frame cannot be sent; nothing is left in flight in that case
+     */
+    CompletableFuture<Boolean> submit(BinanceConnection connection, SubscriptionType type, List<String> streams) throws IOException {
+        Semaphore slots = permits.computeIfAbsent(connection.index(), it -> new Semaphore(properties.maxInFlight()));
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting to send to Binance connection " + connection.index());
+        }
+        long id = ids.incrementAndGet();
+        BinanceSubscription subscription = BinanceSubscription.builder().method(type).params(streams).id(id).build();
+        InFlight request = new InFlight(id, connection, new TextMessage(toJson(subscription)), new CompletableFuture<>());
+        inFlight.put(id, request);
+        try {
+            connection.send(request.frame());
+        } catch (IOException | RuntimeException e) {
+            inFlight.remove(id);
+            slots.release();
+            throw e;
+        }
+        scheduleTimeout(request, 1);
+        return request.result();
+    }
+
+    /**
+     * Settles request {@code id} with Binance's answer. Unknown ids (already settled, or sent by someone else) are
+     * ignored.
+     */
+    void complete(long id, boolean accepted) {
+        InFlight request = inFlight.remove(id);
+        if (request == null) {
+            return;
+        }
+        ScheduledFuture<?> timeout = timeouts.remove(id);
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+        permits.get(request.connection().index()).release();
+        request.result().complete(accepted);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+        inFlight.keySet().forEach(id -> complete(id, false));
+    }
+
+    private void scheduleTimeout(InFlight request, int attempt) {
+        if (!scheduler.isShutdown()) {
+            timeouts.put(request.id(), scheduler.schedule(() -> timedOut(request, attempt), properties.timeout(), TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private void timedOut(InFlight request, int attempt) {
+        timeouts.remove(request.id());
+        if (!inFlight.containsKey(request.id())) {
+            return;
+        }
+        if (attempt > properties.maxRetries()) {
+            logger.warn("Request {} on Binance connection {} got no response after {} attempt(s)", request.id(), request.connection().index(), attempt);
+            complete(request.id(), false);
+            return;
+        }
+        logger.info("Request {} on Binance connection {} timed out, resending (attempt {})", request.id(), request.connection().index(), attempt + 1);
+        try {
+            request.connection().send(request.frame());
+        } catch (IOException e) {
+            logger.warn("Error resending request {}: {}", request.id(), e.getMessage());
+        }
+        scheduleTimeout(request, attempt + 1);
+    }
+
+    private String toJson(BinanceSubscription subscription) {
+        try {
+            return objectMapper.writeValueAsString(subscription);
+        } catch (JsonProcessingException e) {
+            throw new WSException("Error serializing subscription: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.List;
+
+/**
+ * Naming of the Binance streams the reader subscribes to and of the combined-stream URLs that carry them.
+ */
+@UtilityClass
+public class BinanceStreams {
+
+    public static final String ALL_MARKET_MARK_PRICE = "!markPrice@arr@1s";
+
+    private static final String QUOTE_ASSET = "USDT";
+    private static final String MARK_PRICE_SUFFIX = "usdt@markPrice@1s";
+    private static final String STREAMS_QUERY = "?streams=";
+    private static final char STREAM_SEPARATOR = '/';
+
+    public static String markPrice(String symbol) {
+        return symbol.toLowerCase() + MARK_PRICE_SUFFIX;
+    }
+
+    /**
+     * Symbol as Binance reports it in the {@code s} field of a mark price event.
+     */
+    public static String exchangeSymbol(String symbol) {
+        return symbol.toUpperCase() + QUOTE_ASSET;
+    }
+
+    /**
+     * Number of leading {@code streams} that fit in a combined-stream URL of at most {@code maxUrlLength} characters.
+     */
+    public static int combinedStreamsFitting(String baseUrl, List<String> streams, int maxUrlLength) {
+        int length = baseUrl.length() + STREAMS_QUERY.length() - 1;
+        int fitting = 0;
+        for (String stream : streams) {
+            length += stream.length() + 1;
+            if (length > maxUrlLength) {
+                break;
+            }
+            fitting++;
+        }
+        return fitting;
+    }
+
+    /**
+     * Largest number of streams any combined-stream URL can carry when its longest stream name has
+     * {@code longestStream} characters.
+     */
+    public static int combinedStreamsCapacity(String baseUrl, int longestStream, int maxUrlLength) {
+        int available = maxUrlLength - baseUrl.length() - STREAMS_QUERY.length() + 1;
+        return Math.max(1, available / (longestStream + 1));
+    }
+
+    public static String combinedUrl(String baseUrl, List<String> streams) {
+        if (streams.isEmpty()) {
+            return baseUrl;
+        }
+        return baseUrl + STREAMS_QUERY + String.join(String.valueOf(STREAM_SEPARATOR), streams);
+    }
+}
@@ -1,140 +1,254 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import run.buildspace.crypto.price.reader.application.port.out.PriceSubscriptionRepository;
 import run.buildspace.crypto.price.reader.domain.exception.WSException;
 import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange.dto.SubscriptionType;
 import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
 import io.github.resilience4j.core.IntervalFunction;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
-import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
-import org.springframework.web.socket.CloseStatus;
-import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.client.WebSocketClient;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
+import lombok.Getter;
 
-import java.math.BigDecimal;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Owns a pool of Binance WebSocket connections. Symbols are spread over the connections with a {@link ShardRouter};
+ * every connection runs on its own {@link WebSocketClient} (and therefore its own receive threads) and all of them
+ * fan into the single {@link #getPriceUpdates()} stream through a bounded {@link PriceUpdateBuffer}, so a slow
+ * subscriber never stalls a receive thread. Errors travel on the separate {@link #getErrors()} stream, which never
+ * terminates. Dropped connections are handed to a {@link BinanceReconnectSupervisor}, which reopens them and
+ * restores their symbols.
+ * <p>
+ * With {@code binance.combined.enabled} the stored subscriptions are assigned to connections up front and each
+ * connection opens a combined-stream URL that already carries its symbols, so the whole set streams as soon as the
+ * sockets are up; the pool grows beyond {@code binance.pool.size} when the URL length or stream limits require it.
+ * Runtime changes still go through SUBSCRIBE/UNSUBSCRIBE frames.
+ * <p>
+ * Above {@code binance.all-market.threshold} symbols the pool switches to the all-market mark price stream on its
+ * first connection; from then on the {@link SymbolRegistry} bitset decides which elements of it are emitted, and
+ * subscribing or unsubscribing only flips a bit.
+ */
 @Component
 @EnableConfigurationProperties(BinanceWebSocketProperties.class)
-public class BinanceWebSocketManager {
+public class BinanceWebSocketManager implements BinanceConnection.Listener {
     private final Logger logger = LoggerFactory.getLogger(BinanceWebSocketManager.class);
 
-    private final WebSocketClient client;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // connections report errors from their own receive threads, so concurrent emissions are retried instead of dropped
+    private static final Sinks.EmitFailureHandler RETRY_NON_SERIALIZED = Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
 
+    private Supplier<WebSocketClient> clientFactory = StandardWebSocketClient::new;
 
-    private final Sinks.Many<PriceUpdate> priceUpdateSink = Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<WSException> errorSink = Sinks.many().multicast().directBestEffort();
 
     private final BinanceWebSocketProperties properties;
-    private final MeterRegistry meterRegistry;
 
+    @Getter
+    private final ShardRouter shardRouter;
 
-    private final AtomicInteger connectionStatus = new AtomicInteger(0);
+    @Getter
+    private final SymbolRegistry symbolRegistry;
 
-    private final AtomicLong lastMessageTimestamp = new AtomicLong(System.currentTimeMillis());
+    private final List<BinanceConnection> connections = new ArrayList<>();
+    private final BinanceReconnectSupervisor reconnectSupervisor;
+    private final BinanceRequestTracker requestTracker;
+    private final PriceUpdateBuffer priceUpdateBuffer;
+    private final ReentrantLock allMarketLock = new ReentrantLock();
 
     @Getter
-    private WebSocketSession socket;
+    private final Flux<PriceUpdate> priceUpdates;
 
     @Getter
-    private final Flux<PriceUpdate> priceUpdates = priceUpdateSink.asFlux();
+    private final Flux<WSException> errors = errorSink.asFlux();
 
     @Autowired
-    public BinanceWebSocketManager(BinanceWebSocketProperties properties, MeterRegistry meterRegistry) {
+    public BinanceWebSocketManager(BinanceWebSocketProperties properties, MeterRegistry meterRegistry, PriceSubscriptionRepository priceSubscriptionRepository,
+                                   SymbolRegistry symbolRegistry, PriceLatencyMetrics latencyMetrics) {
         this.properties = properties;
-        this.meterRegistry = meterRegistry;
-        this.client = new StandardWebSocketClient();
-
-        initMetrics();
-    }
-
-    private void initMetrics() {
-        Gauge.builder(properties.observability().webSocketStatusGauge(), connectionStatus, AtomicInteger::get).description(properties.observability().webSocketStatusDescription()).register(meterRegistry);
+        this.symbolRegistry = symbolRegistry;
+        this.priceUpdateBuffer = new PriceUpdateBuffer(properties, meterRegistry, symbolRegistry.capacity());
+        this.priceUpdates = priceUpdateBuffer.asFlux();
+        List<String> initialSymbols = isCombined() || properties.allMarket().enabled() ? priceSubscriptionRepository.findAll() : List.of();
+        boolean startAllMarket = allMarketThresholdReached(initialSymbols.size());
+        int poolSize = startAllMarket ? properties.pool().size() : poolSize(isCombined() ? initialSymbols : List.of());
+        this.shardRouter = new ShardRouter(poolSize, properties.pool().virtualNodes(), properties.pool().maxStreamsPerConnection());
+        this.requestTracker = new BinanceRequestTracker(properties.requests());
+        this.reconnectSupervisor = new BinanceReconnectSupervisor(properties, meterRegistry, shardRouter, symbolRegistry, requestTracker);
+        if (startAllMarket) {
+            logger.info("Streaming {} symbol(s) from the all-market stream", initialSymbols.size());
+            reconnectSupervisor.allMarket(true);
+            initialSymbols.forEach(this::activateOrAssign);
+        } else if (isCombined()) {
+            initialSymbols.forEach(symbol -> {
+                symbolRegistry.register(symbol);
+                assign(symbol);
+            });
+        }
 
-        Gauge.builder(properties.observability().webSocketSilenceGauge(), lastMessageTimestamp, ts -> (System.currentTimeMillis() - ts.get()) / 1000.0)
-                .description(properties.observability().webSocketSilenceDescription()).register(meterRegistry);
+        for (int index = 0; index < poolSize; index++) {
+            connections.add(new BinanceConnection(index, properties, meterRegistry, shardRouter, symbolRegistry, latencyMetrics, () -> clientFactory.get(), this));
+        }
     }
 
     @PostConstruct
     public void connect() {
-        logger.info("Connecting to Binance...");
+        logger.info("Connecting to Binance with {} connection(s)...", connections.size());
+        priceUpdateBuffer.start();
         RetryConfig retryConfig = RetryConfig.custom().maxAttempts(properties.retryMaxAttemps()).intervalFunction(IntervalFunction.ofExponentialBackoff(properties.retryInterval(), properties.retryIntervalMultiplier())).build();
 
-        Retry retry = Retry.of("Binance", retryConfig);
+        for (BinanceConnection connection : connections) {
+            Retry retry = Retry.of("Binance-" + connection.index(), retryConfig);
+            Retry.decorateCheckedSupplier(retry, () -> reconnectSupervisor.establish(connection)).unchecked().get();
+        }
+    }
+
+    /**
+     * Session of the first connection; kept for callers that are not shard aware.
+     */
+    public WebSocketSession getSocket() {
+        return getSocket(0);
+    }
+
+    public WebSocketSession getSocket(int connection) {
+        return connections.get(connection).session();
+    }
+
+    /**
+     * Sends one {@code type} request for {@code streams} on {@code connection}, paced by the connection's message
+     * rate and correlated with its response by id.
+     *
+     * @return completes {@code true} once Binance confirms the request, {@code false} if it rejects it or never answers
+     * @throws IOException when the connection is not open
+     */
+    public CompletableFuture<Boolean> request(int connection, SubscriptionType type, List<String> streams) throws IOException {
+        return requestTracker.submit(connections.get(connection), type, streams);
+    }
+
+    public int getPoolSize() {
+        return connections.size();
+    }
+
+    public boolean isAllMarket() {
+        return reconnectSupervisor.isAllMarket();
+    }
 
-        Retry.decorateRunnable(retry, this::executeConnection).run();
+    public boolean allMarketThresholdReached(int symbols) {
+        return properties.allMarket().enabled() && symbols >= properties.allMarket().threshold();
     }
 
-    private void executeConnection() {
+    /**
+     * Moves every symbol the pool streams onto the all-market stream: the symbols are activated in the
+     * {@link SymbolRegistry}, the first connection subscribes to {@link BinanceStreams#ALL_MARKET_MARK_PRICE} and
+     * the per-symbol streams are unsubscribed. Symbols the registry has no room for stay on their own streams.
+     * Guarded by a lock rather than the monitor, since it sends frames and may run on a virtual thread.
+     */
+    public void enableAllMarket() throws IOException {
+        allMarketLock.lock();
         try {
-            client.execute(new BinanceHandler(), new URI(this.properties.url()).toString()).get();
-        } catch (InterruptedException e) {
-            connectionStatus.set(0);
-            Thread.currentThread().interrupt(); // Restore interrupted status
-            throw new WSException("Error connecting to Binance - interrupted: " + e.getMessage(), e);
-        } catch (URISyntaxException | ExecutionException e) {
-            connectionStatus.set(0);
-            throw new WSException("Error connecting to Binance: " + e.getMessage(), e);
+            switchToAllMarket();
+        } finally {
+            allMarketLock.unlock();
         }
     }
 
+    private void switchToAllMarket() throws IOException {
+        if (isAllMarket()) {
+            return;
+        }
+        logger.info("Switching {} symbol(s) to the all-market stream", shardRouter.size());
+        Map<Integer, List<String>> moved = new LinkedHashMap<>();
+        for (BinanceConnection connection : connections) {
+            moved.put(connection.index(), shardRouter.symbolsOf(connection.index()).stream()
+                    .filter(symbolRegistry::activate).toList());
+        }
+        reconnectSupervisor.allMarket(true);
+        reconnectSupervisor.send(connections.get(BinanceReconnectSupervisor.ALL_MARKET_CONNECTION), SubscriptionType.SUBSCRIBE, List.of(BinanceStreams.ALL_MARKET_MARK_PRICE));
+        for (BinanceConnection connection : connections) {
+            List<String> symbols = moved.get(connection.index());
+            reconnectSupervisor.send(connection, SubscriptionType.UNSUBSCRIBE, symbols.stream().map(BinanceStreams::markPrice).toList());
+            symbols.forEach(shardRouter::release);
+        }
+    }
 
-    private class BinanceHandler extends TextWebSocketHandler {
-
-        @Override
-        public void afterConnectionEstablished(WebSocketSession session) {
-            socket = session;
-            connectionStatus.set(1);
-            lastMessageTimestamp.set(System.currentTimeMillis());
-            logger.info("Connected to Binance. Session ID: {}", session.getId());
+    private void activateOrAssign(String symbol) {
+        if (!symbolRegistry.activate(symbol)) {
+            logger.warn("Symbol registry is full, streaming {} on its own stream", symbol);
+            assign(symbol);
         }
+    }
 
-        @Override
-        protected void handleTextMessage(WebSocketSession session, TextMessage message) throws JsonProcessingException {
-            lastMessageTimestamp.set(System.currentTimeMillis());
+    private void assign(String symbol) {
+        if (shardRouter.assign(symbol) == ShardRouter.UNASSIGNED) {
+            logger.error("No Binance connection has room for {}", symbol);
+        }
+    }
 
-            logger.debug("Received message: {}", message.getPayload());
+    private boolean isCombined() {
+        return properties.combined() != null && properties.combined().enabled();
+    }
 
+    private int poolSize(List<String> initialSymbols) {
+        if (initialSymbols.isEmpty()) {
+            return properties.pool().size();
+        }
+        int longestStream = initialSymbols.stream().mapToInt(symbol -> BinanceStreams.markPrice(symbol).length()).max().orElse(0);
+        int perConnection = Math.min(properties.pool().maxStreamsPerConnection(),
+                BinanceStreams.combinedStreamsCapacity(properties.combined().url(), longestStream, properties.combined().maxUrlLength()));
+        int required = (initialSymbols.size() + perConnection - 1) / perConnection;
+        if (required > properties.pool().size()) {
+            logger.info("Growing the Binance pool to {} connection(s) to carry {} symbol(s)", required, initialSymbols.size());
+        }
+        return Math.max(properties.pool().size(), required);
+    }
 
-            JsonNode node = objectMapper.readTree(message.getPayload());
+    @PreDestroy
+    public void disconnect() {
+        logger.info("Closing {} Binance connection(s)...", connections.size());
+        reconnectSupervisor.shutdown();
+        connections.forEach(BinanceConnection::close);
+        requestTracker.shutdown();
+        priceUpdateBuffer.shutdown();
+    }
 
-            if (node.has("s") && node.has("p")) {
-                meterRegistry.counter(properties.observability().webSocketMessagesProcessedCounter()).increment();
-                priceUpdateSink.tryEmitNext(PriceUpdate.builder().symbol(node.get("s").asText()).price(new BigDecimal(node.get("p").asText())).build());
-            } else if (message.getPayload().contains("\"result\":null")) {
-                logger.info("Subscription confirmation received");
-            } else {
-                meterRegistry.counter(properties.observability().webSocketMessagesIgnoredCounter()).increment();
-                priceUpdateSink.tryEmitError(new WSException("Invalid message received from Binance: " + message.getPayload()));
-            }
+    @Override
+    public void onPrice(PriceUpdate priceUpdate) {
+        priceUpdateBuffer.offer(priceUpdate);
+    }
 
-        }
+    @Override
+    public void onError(WSException error) {
+        errorSink.emitNext(error, RETRY_NON_SERIALIZED);
+    }
 
-        @Override
-        public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-            connectionStatus.set(0);
-            logger.warn("Binance connection closed: {}", status);
-        }
+    @Override
+    public void onRequestResult(long id, boolean accepted) {
+        requestTracker.complete(id, accepted);
+    }
 
+    @Override
+    public void onConnectionLost(BinanceConnection connection) {
+        reconnectSupervisor.connectionLost(connection);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable consistent-hash ring mapping string keys to {@code [0, nodes)} with {@code virtualNodes} points per node.
+ */
+public class ConsistentHashRing {
+
+    private final int nodes;
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(int nodes, int virtualNodes) {
+        if (nodes < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("Ring needs at least one node and one virtual node");
+        }
+        this.nodes = nodes;
+        int size = nodes * virtualNodes;
+        long[] hashes = new long[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = hash("node-" + (i / virtualNodes) + "#" + (i % virtualNodes));
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> hashes[i]));
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    public int nodes() {
+        return nodes;
+    }
+
+    public int nodeFor(String key) {
+        return owners[firstPoint(hash(key))];
+    }
+
+    /**
+     * Walks the ring clockwise from the key's position and returns the first distinct node accepted by
+     * {@code accept}, or {@code -1} when no node does.
+     */
+    public int nodeFor(String key, IntPredicate accept) {
+        boolean[] visited = new boolean[nodes];
+        int remaining = nodes;
+        int start = firstPoint(hash(key));
+        for (int i = 0; i < points.length && remaining > 0; i++) {
+            int node = owners[(start + i) % points.length];
+            if (!visited[node]) {
+                if (accept.test(node)) {
+                    return node;
+                }
+                visited[node] = true;
+                remaining--;
+            }
+        }
+        return -1;
+    }
+
+    private int firstPoint(long hash) {
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * 64-bit FNV-1a over the key's chars followed by the murmur3 finaliser to spread similar symbols.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,165 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Latest price of every symbol in the {@link SymbolRegistry}, kept as one column per field indexed by symbol id and
+ * fed from {@link BinanceWebSocketManager#getPriceUpdates()}. The dispatch thread is the only writer and never waits:
+ * each slot is guarded by a sequence number that is odd while the slot is being written, and readers simply retry
+ * when it changed under them, so any number of threads can read without taking a lock or holding up ingestion.
+ * Prices without a symbol id are not kept. {@link #listen} lets other components react to a stored price.
+ */
+@Component
+public class LatestPrices {
+
+    private final BinanceWebSocketManager binanceWebSocketManager;
+    private final SymbolRegistry symbolRegistry;
+    // even once a slot holds a price, odd while it is being written, 0 until its first price
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray mantissas;
+    private final AtomicIntegerArray scales;
+    private final AtomicLongArray timestamps;
+    private final List<IntConsumer> listeners = new CopyOnWriteArrayList<>();
+    private Disposable subscription;
+
+    @Autowired
+    public LatestPrices(BinanceWebSocketManager binanceWebSocketManager) {
+        this.binanceWebSocketManager = binanceWebSocketManager;
+        this.symbolRegistry = binanceWebSocketManager.getSymbolRegistry();
+        int capacity = symbolRegistry.capacity();
+        this.sequences = new AtomicLongArray(capacity);
+        this.mantissas = new AtomicLongArray(capacity);
+        this.scales = new AtomicIntegerArray(capacity);
+        this.timestamps = new AtomicLongArray(capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        subscription = binanceWebSocketManager.getPriceUpdates().subscribe(price -> {
+            if (update(price)) {
+                listeners.forEach(listener -> listener.accept(price.symbolId()));
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Calls {@code listener} with the symbol id of every price once it is stored, on the dispatch thread.
+     */
+    public void listen(IntConsumer listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stores {@code priceUpdate} as the latest price of its symbol, returning false if it has no symbol id. Must only
+     * be called from one thread at a time.
+     */
+    boolean update(PriceUpdate priceUpdate) {
+        int symbolId = priceUpdate.symbolId();
+        if (symbolId < 0 || symbolId >= sequences.length()) {
+            return false;
+        }
+        long sequence = sequences.getPlain(symbolId);
+        sequences.setOpaque(symbolId, sequence + 1);
+        VarHandle.storeStoreFence();
+        mantissas.setOpaque(symbolId, priceUpdate.priceMantissa());
+        scales.setOpaque(symbolId, priceUpdate.priceScale());
+        timestamps.setOpaque(symbolId, priceUpdate.timestamp());
+        sequences.setRelease(symbolId, sequence + 2);
+        return true;
+    }
+
+    /**
+     * Number of symbol ids the table has room for.
+     */
+    public int capacity() {
+        return sequences.length();
+    }
+
+    /**
+     * Latest price of {@code symbol} (as subscribed, e.g. {@code BTC}), or null if none was received yet.
+     */
+    public PriceUpdate find(String symbol) {
+        return find(symbolRegistry.find(symbol));
+    }
+
+    /**
+     * Latest price of {@code symbolId}, or null if none was received yet.
+     */
+    public PriceUpdate find(int symbolId) {
+        if (symbolId < 0 || symbolId >= sequences.length()) {
+            return null;
+        }
+        while (true) {
+            long sequence = sequences.getAcquire(symbolId);
+            if (sequence == 0) {
+                return null;
+            }
+            if ((sequence & 1) == 0) {
+                long mantissa = mantissas.getOpaque(symbolId);
+                int scale = scales.getOpaque(symbolId);
+                long timestamp = timestamps.getOpaque(symbolId);
+                VarHandle.loadLoadFence();
+                if (sequences.getOpaque(symbolId) == sequence) {
+                    return PriceUpdate.builder().symbolId(symbolId).symbol(symbolRegistry.entry(symbolId).symbol())
+                            .priceMantissa(mantissa).priceScale((byte) scale).timestamp(timestamp).build();
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Whether {@code symbolId} has a price.
+     */
+    public boolean has(int symbolId) {
+        return symbolId >= 0 && symbolId < sequences.length() && sequences.get(symbolId) != 0;
+    }
+
+    /**
+     * Latest prices of {@code symbols}, skipping those without one.
+     */
+    public List<PriceUpdate> findAll(List<String> symbols) {
+        List<PriceUpdate> prices = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            PriceUpdate price = find(symbol);
+            if (price != null) {
+                prices.add(price);
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * Latest prices of every symbol that has one, in symbol id order.
+     */
+    public List<PriceUpdate> findAll() {
+        List<PriceUpdate> prices = new ArrayList<>();
+        for (int symbolId = 0; symbolId < sequences.length() && symbolRegistry.entry(symbolId) != null; symbolId++) {
+            PriceUpdate price = find(symbolId);
+            if (price != null) {
+                prices.add(price);
+            }
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,222 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties.OverflowPolicy;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring buffer between the receive threads and the price subscribers. Receive threads only {@link #offer}
+ * into it and never wait for a subscriber; a single dispatcher thread drains it into {@link #asFlux()}, so a slow
+ * subscriber fills the buffer instead of stalling the sockets. When the buffer is full the configured
+ * {@link OverflowPolicy} decides which update is lost:
+ * <ul>
+ *     <li>{@code DROP_OLDEST} evicts the oldest pending update.</li>
+ *     <li>{@code DROP_NEWEST} discards the incoming update.</li>
+ *     <li>{@code CONFLATE_LATEST} overwrites the pending update of the same symbol in place, and evicts the oldest
+ *     one when that symbol has nothing pending.</li>
+ * </ul>
+ * Depth, high-water mark and drops (tagged by the action taken) are exported so the capacity can be sized from data.
+ * Updates dispatched while nobody subscribes, or that a subscriber has no demand for, are counted as drops too, tagged
+ * {@value #NO_SUBSCRIBER} and {@value #NO_DEMAND}: every subscription to {@link #asFlux()} drops what it cannot take
+ * rather than letting the best-effort sink skip it silently.
+ */
+class PriceUpdateBuffer {
+    private final Logger logger = LoggerFactory.getLogger(PriceUpdateBuffer.class);
+
+    static final String POLICY_TAG = "policy";
+    static final String NO_SUBSCRIBER = "no-subscriber";
+    static final String NO_DEMAND = "no-demand";
+    private static final long NONE = -1;
+
+    private final PriceUpdate[] ring;
+    private final int mask;
+    private final OverflowPolicy policy;
+    // sequence of the pending update of each symbol id, NONE when it has nothing in the buffer
+    private final long[] pendingBySymbol;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Sinks.Many<PriceUpdate> sink = Sinks.many().multicast().directBestEffort();
+    private final Map<OverflowPolicy, Counter> drops = new EnumMap<>(OverflowPolicy.class);
+    private final Counter noSubscriber;
+    private final Counter noDemand;
+    private long head;
+    private long tail;
+    private int highWater;
+    private Thread dispatcher;
+
+    PriceUpdateBuffer(BinanceWebSocketProperties properties, MeterRegistry meterRegistry, int maxSymbols) {
+        int capacity = Integer.highestOneBit(Math.max(1, properties.buffer().capacity() - 1)) << 1;
+        this.ring = new PriceUpdate[capacity];
+        this.mask = capacity - 1;
+        this.policy = properties.buffer().overflowPolicy();
+        this.pendingBySymbol = new long[policy == OverflowPolicy.CONFLATE_LATEST ? maxSymbols : 0];
+        Arrays.fill(pendingBySymbol, NONE);
+
+        Gauge.builder(properties.observability().priceBufferDepthGauge(), this, PriceUpdateBuffer::depth)
+                .register(meterRegistry);
+        Gauge.builder(properties.observability().priceBufferHighWaterGauge(), this, PriceUpdateBuffer::highWater)
+                .register(meterRegistry);
+        for (OverflowPolicy action : OverflowPolicy.values()) {
+            drops.put(action, meterRegistry.counter(properties.observability().priceBufferDropsCounter(), POLICY_TAG, action.tag()));
+        }
+        this.noSubscriber = meterRegistry.counter(properties.observability().priceBufferDropsCounter(), POLICY_TAG, NO_SUBSCRIBER);
+        this.noDemand = meterRegistry.counter(properties.observability().priceBufferDropsCounter(), POLICY_TAG, NO_DEMAND);
+    }
+
+    /**
+     * Dispatched updates. Each subscription drops, and counts, the updates it has no demand for.
+     */
+    Flux<PriceUpdate> asFlux() {
+        return sink.asFlux().onBackpressureDrop(dropped -> noDemand.increment());
+    }
+
+    int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * Queues {@code priceUpdate} for the subscribers, applying the overflow policy when the buffer is full.
+     */
+    void offer(PriceUpdate priceUpdate) {
+        OverflowPolicy dropped = null;
+        lock.lock();
+        try {
+            if (tail - head == ring.length) {
+                if (policy == OverflowPolicy.CONFLATE_LATEST && conflate(priceUpdate)) {
+                    dropped = OverflowPolicy.CONFLATE_LATEST;
+                    return;
+                }
+                if (policy == OverflowPolicy.DROP_NEWEST) {
+                    dropped = OverflowPolicy.DROP_NEWEST;
+                    return;
+                }
+                poll();
+                dropped = OverflowPolicy.DROP_OLDEST;
+            }
+            long sequence = tail++;
+            ring[(int) sequence & mask] = priceUpdate;
+            trackPending(priceUpdate, sequence);
+            highWater = Math.max(highWater, (int) (tail - head));
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+            if (dropped != null) {
+                drops.get(dropped).increment();
+            }
+        }
+    }
+
+    /**
+     * Next update, waiting for one if the buffer is empty.
+     */
+    PriceUpdate take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (tail == head) {
+                notEmpty.await();
+            }
+            return poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int depth() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int highWater() {
+        lock.lock();
+        try {
+            return highWater;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts the dispatcher thread that hands buffered updates to the subscribers.
+     */
+    synchronized void start() {
+        if (dispatcher != null) {
+            return;
+        }
+        dispatcher = new Thread(this::dispatch, "binance-dispatch");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    synchronized void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher = null;
+        }
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Sinks.EmitResult result = sink.tryEmitNext(take());
+                if (result == Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                    noSubscriber.increment();
+                } else if (result.isFailure()) {
+                    noDemand.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Price subscriber failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private PriceUpdate poll() {
+        long sequence = head++;
+        int slot = (int) sequence & mask;
+        PriceUpdate priceUpdate = ring[slot];
+        ring[slot] = null;
+        clearPending(priceUpdate, sequence);
+        return priceUpdate;
+    }
+
+    private boolean conflate(PriceUpdate priceUpdate) {
+        int symbolId = priceUpdate.symbolId();
+        if (symbolId < 0 || symbolId >= pendingBySymbol.length || pendingBySymbol[symbolId] == NONE) {
+            return false;
+        }
+        ring[(int) pendingBySymbol[symbolId] & mask] = priceUpdate;
+        return true;
+    }
+
+    private void trackPending(PriceUpdate priceUpdate, long sequence) {
+        int symbolId = priceUpdate.symbolId();
+        if (symbolId >= 0 && symbolId < pendingBySymbol.length) {
+            pendingBySymbol[symbolId] = sequence;
+        }
+    }
+
+    private void clearPending(PriceUpdate priceUpdate, long sequence) {
+        int symbolId = priceUpdate.symbolId();
+        if (symbolId >= 0 && symbolId < pendingBySymbol.length && pendingBySymbol[symbolId] == sequence) {
+            pendingBySymbol[symbolId] = NONE;
+        }
+    }
+}
@@ -1,24 +1,42 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging.PriceUpdateJsonSerializer;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging.PriceUpdateMessageConverter;
 import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 @Configuration
 @EnableConfigurationProperties(RabbitMQProperties.class)
 public class RabbitMQManager {
 
+    public static final String SUBSCRIPTION_BATCH_FACTORY = "subscriptionBatchListenerFactory";
+    static final String CONSISTENT_HASH_EXCHANGE = "x-consistent-hash";
+    static final String PARTITION_WEIGHT = "1";
+
     private final RabbitMQProperties properties;
 
     @Autowired
@@ -32,15 +50,38 @@ public class RabbitMQManager {
     }
 
     @Bean
+    @ConditionalOnProperty(prefix = "rabbitmq.partitions", name = "enabled", havingValue = "false", matchIfMissing = true)
     Queue queueCurrencyUpdate() {
         return new Queue(properties.currencyUpdateQueue(), true);
     }
 
     @Bean
+    @ConditionalOnProperty(prefix = "rabbitmq.partitions", name = "enabled", havingValue = "false", matchIfMissing = true)
     Binding bindingCurrencyUpdate(Queue queueCurrencyUpdate, TopicExchange exchange) {
         return BindingBuilder.bind(queueCurrencyUpdate).to(exchange).with(properties.currencyUpdateRoutingBind());
     }
 
+    /**
+     * Partitioned replacement of the price queue: the topic exchange forwards prices to an {@code x-consistent-hash}
+     * exchange, which hashes their routing key onto {@code rabbitmq.partitions.count} durable queues of equal weight.
+     * The routing key names the symbol, so each symbol lands on one partition and keeps its order there. Requires the
+     * {@code rabbitmq_consistent_hash_exchange} plugin on the broker.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "rabbitmq.partitions", name = "enabled", havingValue = "true")
+    Declarables partitionedCurrencyUpdate(TopicExchange exchange) {
+        CustomExchange partitions = new CustomExchange(properties.partitions().exchange(), CONSISTENT_HASH_EXCHANGE, true, false);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(partitions);
+        declarables.add(BindingBuilder.bind(partitions).to(exchange).with(properties.currencyUpdateRoutingBind()));
+        for (int partition = 0; partition < properties.partitions().count(); partition++) {
+            Queue queue = new Queue(properties.partitionQueue(partition), true);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(partitions).with(PARTITION_WEIGHT).noargs());
+        }
+        return new Declarables(declarables);
+    }
+
 
     @Bean
     Queue queueSubscription() {
@@ -80,9 +121,35 @@ public class RabbitMQManager {
     }
 
 
+    /**
+     * Listener container that hands subscription messages over in batches of up to {@code rabbitmq.batch.size},
+     * waiting at most {@code rabbitmq.batch.receive-timeout} ms for the next message. The prefetch is one batch; a batch
+     * cut short by the timeout leaves room for the next one to be delivered while it is still outstanding, which is why
+     * the consumer acknowledges every message on its own.
+     */
+    @Bean(SUBSCRIPTION_BATCH_FACTORY)
+    SimpleRabbitListenerContainerFactory subscriptionBatchListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(properties.batch().size());
+        factory.setReceiveTimeout(properties.batch().receiveTimeout());
+        factory.setPrefetchCount(properties.batch().size());
+        return factory;
+    }
+
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter() {
+        return new PriceUpdateMessageConverter(jsonMessageConverter(), properties.priceFormat() == RabbitMQProperties.PriceFormat.BINARY);
+    }
+
+    MessageConverter jsonMessageConverter() {
+        JsonMapper objectMapper = JsonMapper.builder()
+                .addModule(PriceUpdateJsonSerializer.module())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        return new Jackson2JsonMessageConverter(objectMapper, "*");
     }
 
 
@@ -0,0 +1,72 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Sticky symbol-to-connection assignment on top of a {@link ConsistentHashRing}.
+ * <p>
+ * A symbol goes to the connection that owns it on the ring; when that connection already holds
+ * {@code capacity} streams the symbol spills clockwise to the next connection with room, so a full
+ * connection rebalances new symbols onto its neighbours instead of rejecting them.
+ */
+public class ShardRouter {
+
+    public static final int UNASSIGNED = -1;
+
+    private final ConsistentHashRing ring;
+    private final int capacity;
+    private final AtomicIntegerArray load;
+    private final Map<String, Integer> assignments = new ConcurrentHashMap<>();
+
+    public ShardRouter(int shards, int virtualNodes, int capacity) {
+        this.ring = new ConsistentHashRing(shards, virtualNodes);
+        this.capacity = capacity;
+        this.load = new AtomicIntegerArray(shards);
+    }
+
+    /**
+     * Returns the shard that holds {@code symbol}, assigning one if needed, or {@link #UNASSIGNED} if every shard is full.
+     */
+    public synchronized int assign(String symbol) {
+        Integer current = assignments.get(symbol);
+        if (current != null) {
+            return current;
+        }
+        int shard = ring.nodeFor(symbol, candidate -> load.get(candidate) < capacity);
+        if (shard != UNASSIGNED) {
+            load.incrementAndGet(shard);
+            assignments.put(symbol, shard);
+        }
+        return shard;
+    }
+
+    public int shardOf(String symbol) {
+        return assignments.getOrDefault(symbol, UNASSIGNED);
+    }
+
+    public synchronized void release(String symbol) {
+        Integer shard = assignments.remove(symbol);
+        if (shard != null) {
+            load.decrementAndGet(shard);
+        }
+    }
+
+    public List<String> symbolsOf(int shard) {
+        return assignments.entrySet().stream().filter(it -> it.getValue() == shard).map(Map.Entry::getKey).toList();
+    }
+
+    public int size() {
+        return assignments.size();
+    }
+
+    public int load(int shard) {
+        return load.get(shard);
+    }
+
+    public int shards() {
+        return ring.nodes();
+    }
+}
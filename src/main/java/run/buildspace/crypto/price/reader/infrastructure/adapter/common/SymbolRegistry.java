@@ -0,0 +1,172 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dictionary of the symbols the reader handles. Each symbol gets a dense, bounded int id that travels with its
+ * subscriptions and prices, together with an {@link Entry} of the data derived from it (exchange symbol, stream name,
+ * metric tags), so the hot path never rebuilds those strings. A bitset of active ids filters the all-market stream.
+ * <p>
+ * {@link #idOf(CharSequence, int, int)} looks a symbol up straight from a region of a frame, so a receive thread can
+ * resolve it without allocating a {@link String}. Registration is rare and serialized; lookups are lock-free and
+ * safe from any thread. Ids are never reused, so a symbol keeps its id (and its slot in the bitset) for the life of
+ * the process.
+ */
+@Component
+public class SymbolRegistry {
+
+    public static final int UNKNOWN = -1;
+
+    static final String SYMBOL_TAG = "symbol";
+
+    /**
+     * @param symbol         symbol as subscribed, e.g. {@code BTC}
+     * @param exchangeSymbol symbol as Binance reports it, e.g. {@code BTCUSDT}
+     * @param stream         per-symbol mark price stream
+     * @param tags           metric tags identifying the symbol
+     */
+    public record Entry(int id, String symbol, String exchangeSymbol, String stream, Tags tags) {
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<String> keys;
+    private final int[] ids;
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLongArray active;
+    private int size;
+
+    @Autowired
+    public SymbolRegistry(BinanceWebSocketProperties properties) {
+        this(properties.maxSymbols());
+    }
+
+    public SymbolRegistry(int capacity) {
+        this.capacity = capacity;
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        this.mask = tableSize - 1;
+        this.keys = new AtomicReferenceArray<>(tableSize);
+        this.ids = new int[tableSize];
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.active = new AtomicLongArray((capacity + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the id of {@code symbol} (as subscribed, e.g. {@code BTC}), assigning the next free one if needed, or
+     * {@link #UNKNOWN} when the registry is full.
+     */
+    public synchronized int register(String symbol) {
+        String exchangeSymbol = BinanceStreams.exchangeSymbol(symbol);
+        int slot = spread(exchangeSymbol.hashCode()) & mask;
+        for (String key = keys.get(slot); key != null; key = keys.get(slot)) {
+            if (key.equals(exchangeSymbol)) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == capacity) {
+            return UNKNOWN;
+        }
+        int id = size++;
+        entries.set(id, new Entry(id, symbol, exchangeSymbol, BinanceStreams.markPrice(symbol), Tags.of(SYMBOL_TAG, exchangeSymbol)));
+        ids[slot] = id;
+        keys.set(slot, exchangeSymbol); // publishes ids[slot]
+        return id;
+    }
+
+    /**
+     * Id of the exchange symbol in {@code text[start, end)}, or {@link #UNKNOWN} if it was never registered.
+     */
+    public int idOf(CharSequence text, int start, int end) {
+        int length = end - start;
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        int slot = spread(hash) & mask;
+        for (String key = keys.get(slot); key != null; key = keys.get(slot)) {
+            if (key.length() == length && regionEquals(key, text, start)) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Id of {@code symbol} (as subscribed), or {@link #UNKNOWN} if it was never registered.
+     */
+    public int find(String symbol) {
+        String exchangeSymbol = BinanceStreams.exchangeSymbol(symbol);
+        return idOf(exchangeSymbol, 0, exchangeSymbol.length());
+    }
+
+    public Entry entry(int id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Id of the exchange symbol in {@code text[start, end)} if it is registered and active, {@link #UNKNOWN}
+     * otherwise.
+     */
+    public int activeIdOf(CharSequence text, int start, int end) {
+        int id = idOf(text, start, end);
+        return id != UNKNOWN && isActive(id) ? id : UNKNOWN;
+    }
+
+    /**
+     * Registers {@code symbol} and marks it as streamed.
+     *
+     * @return false when the registry has no room for it
+     */
+    public boolean activate(String symbol) {
+        int id = register(symbol);
+        if (id == UNKNOWN) {
+            return false;
+        }
+        active.getAndAccumulate(id >>> 6, 1L << id, (bits, bit) -> bits | bit);
+        return true;
+    }
+
+    public void deactivate(String symbol) {
+        int id = find(symbol);
+        if (id != UNKNOWN) {
+            active.getAndAccumulate(id >>> 6, 1L << id, (bits, bit) -> bits & ~bit);
+        }
+    }
+
+    public boolean isActive(int id) {
+        return (active.get(id >>> 6) & (1L << id)) != 0;
+    }
+
+    public int activeCount() {
+        int count = 0;
+        for (int i = 0; i < active.length(); i++) {
+            count += Long.bitCount(active.get(i));
+        }
+        return count;
+    }
+
+    private static boolean regionEquals(String key, CharSequence text, int start) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,176 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick history of every symbol in the {@link SymbolRegistry}, fed from {@link BinanceWebSocketManager#getPriceUpdates()}
+ * when {@code binance.history.enabled} is set. The dispatch thread only queues each price; a single writer thread
+ * appends it to a {@link TickStore} under {@code binance.history.directory} and rolls off segments older than
+ * {@code binance.history.retention} ms. When the queue of {@code binance.history.queue-capacity} prices is full, prices
+ * are dropped rather than holding up ingestion. {@link #find} reads a window of ticks straight from the mapped
+ * segments.
+ */
+@Component
+public class TickHistory {
+    private final Logger logger = LoggerFactory.getLogger(TickHistory.class);
+
+    static final String WRITTEN_COUNTER = "history.ticks.written";
+    static final String SKIPPED_COUNTER = "history.ticks.skipped";
+    static final String DROPPED_COUNTER = "history.ticks.dropped";
+    static final String SIZE_GAUGE = "history.size";
+    static final String SEGMENTS_GAUGE = "history.segments";
+    static final String READ_TIMER = "history.read";
+    private static final long EXPIRY_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final BinanceWebSocketManager binanceWebSocketManager;
+    private final SymbolRegistry symbolRegistry;
+    private final BinanceWebSocketProperties.History history;
+    private final MeterRegistry meterRegistry;
+    private final BlockingThreads blockingThreads;
+    private BlockingQueue<PriceUpdate> queue;
+    private volatile TickStore store;
+    private Counter written;
+    private Counter skipped;
+    private Counter dropped;
+    private Timer reads;
+    private Disposable subscription;
+    private Thread writer;
+
+    @Autowired
+    public TickHistory(BinanceWebSocketManager binanceWebSocketManager, BinanceWebSocketProperties properties,
+                       MeterRegistry meterRegistry, BlockingThreads blockingThreads) {
+        this.binanceWebSocketManager = binanceWebSocketManager;
+        this.symbolRegistry = binanceWebSocketManager.getSymbolRegistry();
+        this.history = properties.history();
+        this.meterRegistry = meterRegistry;
+        this.blockingThreads = blockingThreads;
+    }
+
+    @PostConstruct
+    synchronized void start() {
+        if (history == null || !history.enabled() || store != null) {
+            return;
+        }
+        store = new TickStore(Path.of(history.directory()), history.segmentSize(), history.partition(),
+                history.retention(), history.priceScale());
+        queue = new ArrayBlockingQueue<>(Math.max(1, history.queueCapacity()));
+        written = meterRegistry.counter(WRITTEN_COUNTER);
+        skipped = meterRegistry.counter(SKIPPED_COUNTER);
+        dropped = meterRegistry.counter(DROPPED_COUNTER);
+        reads = Timer.builder(READ_TIMER)
+                .description("Time to find the ticks of a symbol in a time window")
+                .register(meterRegistry);
+        Gauge.builder(SIZE_GAUGE, store, TickStore::size)
+                .description("Disk space taken by the tick history")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(SEGMENTS_GAUGE, store, TickStore::segments)
+                .description("Segment files in the tick history")
+                .register(meterRegistry);
+        writer = blockingThreads.start("tick-history", this::write);
+        subscription = binanceWebSocketManager.getPriceUpdates().subscribe(this::offer);
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        if (store != null) {
+            store.flush();
+        }
+    }
+
+    public boolean enabled() {
+        return store != null;
+    }
+
+    /**
+     * Ticks of {@code symbol} (as subscribed, e.g. {@code BTC}) with an exchange event time within {@code [from, to]}
+     * epoch milliseconds; empty when the history is disabled.
+     */
+    public Ticks find(String symbol, long from, long to) {
+        if (store == null) {
+            return Ticks.EMPTY;
+        }
+        return reads.record(() -> store.find(BinanceStreams.exchangeSymbol(symbol), from, to));
+    }
+
+    /**
+     * Queues {@code priceUpdate} for the writer, dropping it when the queue is full. Prices without a symbol id are
+     * not kept.
+     */
+    void offer(PriceUpdate priceUpdate) {
+        if (priceUpdate.symbolId() < 0 || priceUpdate.symbolId() >= symbolRegistry.capacity()) {
+            return;
+        }
+        if (!queue.offer(priceUpdate)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Appends {@code priceUpdate} to the store, returning whether it was kept.
+     */
+    boolean append(PriceUpdate priceUpdate) {
+        SymbolRegistry.Entry entry = symbolRegistry.entry(priceUpdate.symbolId());
+        if (entry == null || !store.append(entry.exchangeSymbol(), priceUpdate.timestamp(), priceUpdate.priceMantissa(), priceUpdate.priceScale())) {
+            skipped.increment();
+            return false;
+        }
+        written.increment();
+        return true;
+    }
+
+    private void write() {
+        long nextExpiry = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                long now = System.currentTimeMillis();
+                if (now >= nextExpiry) {
+                    int expired = store.expire(now);
+                    if (expired > 0) {
+                        logger.info("Rolled {} tick segment(s) off the history", expired);
+                    }
+                    nextExpiry = now + EXPIRY_INTERVAL;
+                }
+                PriceUpdate priceUpdate = queue.poll(nextExpiry - now, TimeUnit.MILLISECONDS);
+                if (priceUpdate != null) {
+                    append(priceUpdate);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Error writing the tick history: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
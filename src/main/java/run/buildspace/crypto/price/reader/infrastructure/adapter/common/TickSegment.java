@@ -0,0 +1,298 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped file of a symbol's tick history. A header holding the record count, the price scale and a sealed
+ * flag is followed by fixed-width {@code [long timestamp][long price]} records in time order. While the segment is
+ * written, the timestamp of every {@value #INDEX_INTERVAL}th record is kept in memory as a sparse index; {@link #seal}
+ * appends that index after the last record and truncates the file to its content, after which the segment is mapped
+ * read-only once, on its first read, and that mapping serves every later one. The count is published after each
+ * record, so a reader never sees one that is still being written.
+ * <p>
+ * {@link #slice} returns a read-only view of the records in a time window straight over the mapping, without copying
+ * them. A view stays valid after the segment is sealed or deleted.
+ */
+class TickSegment {
+
+    static final int HEADER = 2 * Long.BYTES;
+    static final int RECORD = 2 * Long.BYTES;
+    static final int INDEX_INTERVAL = 64;
+    private static final int COUNT = 0;
+    private static final int SCALE = Long.BYTES;
+    private static final int SEALED = SCALE + Integer.BYTES;
+    private static final int BLOCK = INDEX_INTERVAL * RECORD + Long.BYTES;
+
+    /**
+     * Mapping and in-memory index of a segment still being written; replaced by null once it is sealed.
+     */
+    private record Writable(MappedByteBuffer buffer, long[] index) {
+    }
+
+    private final long sequence;
+    private final Path path;
+    private final long firstTimestamp;
+    private final int capacity;
+    private volatile Writable writable;
+    // read-only mapping of the sealed segment, made on its first read
+    private volatile ByteBuffer sealed;
+    private volatile int count;
+    private volatile long lastTimestamp;
+    private volatile long size;
+
+    private TickSegment(long sequence, Path path, long firstTimestamp, long lastTimestamp, int count, int capacity,
+                        Writable writable, long size) {
+        this.sequence = sequence;
+        this.path = path;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.count = count;
+        this.capacity = capacity;
+        this.writable = writable;
+        this.size = size;
+    }
+
+    /**
+     * Records a segment of {@code segmentSize} bytes can hold, index included.
+     *
+     * @throws IllegalArgumentException when not even one index interval fits
+     */
+    static int capacity(int segmentSize) {
+        int blocks = (segmentSize - HEADER) / BLOCK;
+        if (blocks < 1) {
+            throw new IllegalArgumentException("A tick segment needs at least " + (HEADER + BLOCK) + " bytes, got " + segmentSize);
+        }
+        return blocks * INDEX_INTERVAL;
+    }
+
+    /**
+     * Creates a writable segment of {@code segmentSize} bytes at {@code path} for prices at {@code priceScale}, whose
+     * first record will be at {@code firstTimestamp}.
+     */
+    static TickSegment create(long sequence, Path path, int segmentSize, byte priceScale, long firstTimestamp) throws IOException {
+        int capacity = capacity(segmentSize);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        buffer.putInt(SCALE, priceScale);
+        return new TickSegment(sequence, path, firstTimestamp, firstTimestamp, 0, capacity,
+                new Writable(buffer, new long[capacity / INDEX_INTERVAL]), segmentSize);
+    }
+
+    /**
+     * Opens an existing segment, sealing it if the previous process stopped while writing it. Returns null for a
+     * segment without records.
+     *
+     * @throws IllegalStateException when its prices were stored at another scale than {@code priceScale}
+     */
+    static TickSegment open(long sequence, Path path, byte priceScale) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = read(channel, 0, HEADER);
+            int count = header.remaining() < HEADER ? 0 : (int) header.getLong(COUNT);
+            if (count <= 0) {
+                return null;
+            }
+            if (header.getInt(SCALE) != priceScale) {
+                throw new IllegalStateException("Tick segment " + path + " stores prices at scale " + header.getInt(SCALE)
+                        + ", not the configured " + priceScale + "; move the history away or configure its scale");
+            }
+            if (header.getInt(SEALED) != 0) {
+                return new TickSegment(sequence, path, read(channel, HEADER, Long.BYTES).getLong(0),
+                        read(channel, HEADER + (count - 1L) * RECORD, Long.BYTES).getLong(0), count, count, null, channel.size());
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            long[] index = new long[(count + INDEX_INTERVAL - 1) / INDEX_INTERVAL];
+            for (int i = 0; i < index.length; i++) {
+                index[i] = timestamp(buffer, i * INDEX_INTERVAL);
+            }
+            TickSegment segment = new TickSegment(sequence, path, timestamp(buffer, 0), timestamp(buffer, count - 1),
+                    count, count, new Writable(buffer, index), buffer.capacity());
+            segment.seal();
+            return segment;
+        }
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * Bytes the segment takes on disk, or has mapped while it is written.
+     */
+    long size() {
+        return size;
+    }
+
+    boolean full() {
+        return count == capacity;
+    }
+
+    boolean sealed() {
+        return writable == null;
+    }
+
+    /**
+     * Appends a record. Must only be called by the writer, on a segment that is neither full nor sealed, with
+     * timestamps in non-decreasing order.
+     */
+    void append(long timestamp, long price) {
+        Writable current = writable;
+        int position = count;
+        int offset = HEADER + position * RECORD;
+        current.buffer().putLong(offset, timestamp);
+        current.buffer().putLong(offset + Long.BYTES, price);
+        if (position % INDEX_INTERVAL == 0) {
+            current.index()[position / INDEX_INTERVAL] = timestamp;
+        }
+        current.buffer().putLong(COUNT, position + 1);
+        lastTimestamp = timestamp;
+        count = position + 1;
+    }
+
+    /**
+     * Writes the sparse index after the last record and truncates the file to its content. Like the records, the index
+     * reaches the disk whenever the OS writes the pages back, or on {@link #flush}.
+     */
+    void seal() throws IOException {
+        Writable current = writable;
+        if (current == null) {
+            return;
+        }
+        MappedByteBuffer buffer = current.buffer();
+        int position = HEADER + count * RECORD;
+        int entries = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+        for (int i = 0; i < entries; i++) {
+            buffer.putLong(position + i * Long.BYTES, current.index()[i]);
+        }
+        buffer.putInt(SEALED, 1);
+        long end = position + (long) entries * Long.BYTES;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(end);
+        }
+        size = end;
+        writable = null;
+    }
+
+    void flush() {
+        Writable current = writable;
+        if (current != null) {
+            current.buffer().force();
+        }
+    }
+
+    /**
+     * Read-only view of the records with a timestamp within {@code [from, to]}, or null when there are none.
+     */
+    ByteBuffer slice(long from, long to) throws IOException {
+        if (from > to || from > lastTimestamp || to < firstTimestamp) {
+            return null;
+        }
+        Writable current = writable;
+        ByteBuffer buffer;
+        int records;
+        long[] index;
+        if (current != null) {
+            buffer = current.buffer();
+            index = current.index();
+            records = count;
+        } else {
+            buffer = sealedBuffer();
+            if (buffer == null) {
+                return null;
+            }
+            records = (int) buffer.getLong(COUNT);
+            index = null;
+        }
+        int start = lowerBound(buffer, records, index, from);
+        int end = to == Long.MAX_VALUE ? records : lowerBound(buffer, records, index, to + 1);
+        if (start >= end) {
+            return null;
+        }
+        return buffer.slice(HEADER + start * RECORD, (end - start) * RECORD).asReadOnlyBuffer();
+    }
+
+    /**
+     * The read-only mapping of the sealed segment, mapping it on first use, or null when retention deleted the file
+     * before it was ever read. Readers racing to map it first all get a valid mapping; one of them is kept.
+     */
+    private ByteBuffer sealedBuffer() throws IOException {
+        ByteBuffer buffer = sealed;
+        if (buffer != null) {
+            return buffer;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asReadOnlyBuffer();
+        } catch (NoSuchFileException e) {
+            // rolled off by retention since the caller listed it
+            return null;
+        }
+        sealed = buffer;
+        return buffer;
+    }
+
+    /**
+     * Position of the first of {@code records} records with a timestamp of at least {@code timestamp}: a binary
+     * search of the sparse index, then of the one interval it points to.
+     */
+    private static int lowerBound(ByteBuffer buffer, int records, long[] index, long timestamp) {
+        int entries = (records + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (indexEntry(buffer, records, index, middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int from = Math.max(0, (low - 1) * INDEX_INTERVAL);
+        int to = Math.min(records, low * INDEX_INTERVAL);
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (timestamp(buffer, middle) < timestamp) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        channel.read(buffer, position);
+        return buffer.flip();
+    }
+
+    private static long indexEntry(ByteBuffer buffer, int records, long[] index, int entry) {
+        return index != null ? index[entry] : buffer.getLong(HEADER + records * RECORD + entry * Long.BYTES);
+    }
+
+    private static long timestamp(ByteBuffer buffer, int position) {
+        return buffer.getLong(HEADER + position * RECORD);
+    }
+}
@@ -0,0 +1,279 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only tick history of many symbols, one directory per symbol under {@code directory}, each holding
+ * {@link TickSegment}s of up to {@code segmentSize} bytes. Time is cut into partitions of {@code partition} ms and a
+ * segment never spans two of them, so a window only touches the segments of the partitions it covers. Prices are
+ * stored with a fixed {@code priceScale}, recorded in every segment; a directory written at another scale is refused
+ * rather than misread. Segments whose last tick is older than {@code retention} ms are deleted by {@link #expire}.
+ * Reopening the directory carries on with the ticks already there.
+ * <p>
+ * A single thread writes ({@link #append}, {@link #expire}, {@link #flush}); {@link #find} is safe from any thread
+ * and never waits for the writer.
+ */
+class TickStore {
+    private final Logger logger = LoggerFactory.getLogger(TickStore.class);
+
+    private static final String SUFFIX = ".tick";
+    private static final Pattern SYMBOL = Pattern.compile("[A-Z0-9_-]+");
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private static final class Series {
+        private final Path directory;
+        // published copy for readers; only the writer replaces it
+        private volatile List<TickSegment> segments = List.of();
+        private TickSegment active;
+        private long lastTimestamp = Long.MIN_VALUE;
+        private boolean created;
+
+        private Series(Path directory, boolean created) {
+            this.directory = directory;
+            this.created = created;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long partition;
+    private final long retention;
+    private final byte priceScale;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    // only the writer updates these, others just read them
+    private volatile long size;
+    private volatile int segments;
+
+    TickStore(Path directory, int segmentSize, long partition, long retention, int priceScale) {
+        if (priceScale < 0 || priceScale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Price scale must be between 0 and " + (POWERS_OF_TEN.length - 1) + ", got " + priceScale);
+        }
+        TickSegment.capacity(segmentSize);
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.partition = Math.max(1, partition);
+        this.retention = retention;
+        this.priceScale = (byte) priceScale;
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error opening tick history " + directory, e);
+        }
+    }
+
+    byte priceScale() {
+        return priceScale;
+    }
+
+    /**
+     * Appends a tick of {@code symbol} (as Binance reports it, e.g. {@code BTCUSDT}), rolling to a new segment when
+     * the current one is full or the tick falls in a new partition. Returns false, storing nothing, when the tick is
+     * older than the symbol's last one or its price does not fit at {@link #priceScale()}.
+     */
+    boolean append(String symbol, long timestamp, long priceMantissa, int scale) {
+        Series target = series(symbol);
+        if (timestamp < target.lastTimestamp) {
+            return false;
+        }
+        long price;
+        try {
+            price = rescale(priceMantissa, scale);
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        TickSegment active = target.active;
+        if (active == null || active.full() || Math.floorDiv(timestamp, partition) != Math.floorDiv(active.firstTimestamp(), partition)) {
+            active = roll(target, timestamp);
+        }
+        active.append(timestamp, price);
+        target.lastTimestamp = timestamp;
+        return true;
+    }
+
+    /**
+     * Ticks of {@code symbol} with a timestamp within {@code [from, to]}, as views of the segments holding them.
+     */
+    Ticks find(String symbol, long from, long to) {
+        Series source = series.get(symbol);
+        if (source == null || from > to) {
+            return Ticks.EMPTY;
+        }
+        List<ByteBuffer> chunks = new ArrayList<>();
+        for (TickSegment segment : source.segments) {
+            if (segment.firstTimestamp() > to) {
+                break;
+            }
+            try {
+                ByteBuffer chunk = segment.slice(from, to);
+                if (chunk != null) {
+                    chunks.add(chunk);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading tick segment " + segment.path(), e);
+            }
+        }
+        return chunks.isEmpty() ? Ticks.EMPTY : new Ticks(chunks, priceScale);
+    }
+
+    /**
+     * Deletes the segments whose last tick is older than {@code retention} ms before {@code now}, returning how many.
+     */
+    int expire(long now) {
+        long cutoff = now - retention;
+        int expired = 0;
+        for (Series each : series.values()) {
+            List<TickSegment> kept = new ArrayList<>(each.segments);
+            while (!kept.isEmpty() && kept.get(0).lastTimestamp() < cutoff) {
+                TickSegment oldest = kept.remove(0);
+                if (oldest == each.active) {
+                    each.active = null;
+                }
+                delete(oldest);
+                expired++;
+            }
+            if (kept.size() != each.segments.size()) {
+                each.segments = List.copyOf(kept);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Bytes the segments take on disk, counting the segments being written at their full size.
+     */
+    long size() {
+        return size;
+    }
+
+    int segments() {
+        return segments;
+    }
+
+    void flush() {
+        series.values().forEach(each -> {
+            if (each.active != null) {
+                each.active.flush();
+            }
+        });
+    }
+
+    private Series series(String symbol) {
+        Series existing = series.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        if (!SYMBOL.matcher(symbol).matches()) {
+            throw new IllegalArgumentException("Invalid symbol for the tick history: " + symbol);
+        }
+        return series.computeIfAbsent(symbol, it -> new Series(directory.resolve(it), false));
+    }
+
+    private TickSegment roll(Series target, long timestamp) {
+        List<TickSegment> current = target.segments;
+        long sequence = current.isEmpty() ? 0 : current.get(current.size() - 1).sequence() + 1;
+        Path path = target.directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+        try {
+            if (target.active != null) {
+                long before = target.active.size();
+                target.active.seal();
+                size += target.active.size() - before;
+            }
+            if (!target.created) {
+                Files.createDirectories(target.directory);
+                target.created = true;
+            }
+            TickSegment segment = TickSegment.create(sequence, path, segmentSize, priceScale, timestamp);
+            List<TickSegment> updated = new ArrayList<>(current);
+            updated.add(segment);
+            target.segments = List.copyOf(updated);
+            target.active = segment;
+            size += segment.size();
+            segments++;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error creating tick segment " + path, e);
+        }
+    }
+
+    /**
+     * {@code priceMantissa * 10^-scale} as a mantissa at {@link #priceScale()}, rounded half up.
+     *
+     * @throws ArithmeticException when it does not fit in a long, or the scales are too far apart to convert
+     */
+    private long rescale(long priceMantissa, int scale) {
+        if (scale == priceScale) {
+            return priceMantissa;
+        }
+        if (scale < priceScale) {
+            return Math.multiplyExact(priceMantissa, POWERS_OF_TEN[priceScale - scale]);
+        }
+        if (scale - priceScale >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Price scale " + scale + " too far from " + priceScale);
+        }
+        long divisor = POWERS_OF_TEN[scale - priceScale];
+        return Math.floorDiv(priceMantissa + divisor / 2, divisor);
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> directories;
+        try (Stream<Path> listing = Files.list(directory)) {
+            directories = listing.filter(Files::isDirectory).filter(it -> SYMBOL.matcher(it.getFileName().toString()).matches()).toList();
+        }
+        for (Path symbolDirectory : directories) {
+            Series restored = new Series(symbolDirectory, true);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(symbolDirectory)) {
+                files = listing.filter(it -> it.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+            }
+            List<TickSegment> opened = new ArrayList<>();
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                TickSegment segment = TickSegment.open(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file, priceScale);
+                if (segment == null) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                opened.add(segment);
+                restored.lastTimestamp = segment.lastTimestamp();
+                size += segment.size();
+                segments++;
+            }
+            restored.segments = List.copyOf(opened);
+            series.put(symbolDirectory.getFileName().toString(), restored);
+        }
+        if (segments > 0) {
+            logger.info("Opened tick history of {} symbol(s) in {} segment(s)", series.size(), segments);
+        }
+    }
+
+    private void delete(TickSegment segment) {
+        try {
+            Files.deleteIfExists(segment.path());
+        } catch (IOException e) {
+            logger.warn("Error deleting tick segment {}: {}", segment.path(), e.getMessage());
+        }
+        size -= segment.size();
+        segments--;
+    }
+}
@@ -0,0 +1,74 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ticks of one symbol in a time window, in time order, as returned by {@link TickHistory#find}. The ticks are read
+ * straight from the memory-mapped segments they were written to; nothing is copied until a field is asked for. Prices
+ * are fixed-point with the same {@link #priceScale()} for every tick.
+ */
+public final class Ticks {
+
+    static final Ticks EMPTY = new Ticks(List.of(), (byte) 0);
+
+    private final ByteBuffer[] chunks;
+    // index of the first tick of each chunk
+    private final int[] starts;
+    private final int size;
+    private final byte priceScale;
+
+    Ticks(List<ByteBuffer> chunks, byte priceScale) {
+        this.chunks = chunks.toArray(ByteBuffer[]::new);
+        this.starts = new int[this.chunks.length];
+        int total = 0;
+        for (int i = 0; i < this.chunks.length; i++) {
+            starts[i] = total;
+            total += this.chunks[i].remaining() / TickSegment.RECORD;
+        }
+        this.size = total;
+        this.priceScale = priceScale;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public byte priceScale() {
+        return priceScale;
+    }
+
+    /**
+     * Exchange event time of tick {@code index}, in epoch milliseconds.
+     */
+    public long timestamp(int index) {
+        int chunk = chunkOf(index);
+        return chunks[chunk].getLong((index - starts[chunk]) * TickSegment.RECORD);
+    }
+
+    /**
+     * Price of tick {@code index} as {@code priceMantissa * 10^-priceScale}.
+     */
+    public long priceMantissa(int index) {
+        int chunk = chunkOf(index);
+        return chunks[chunk].getLong((index - starts[chunk]) * TickSegment.RECORD + Long.BYTES);
+    }
+
+    public BigDecimal price(int index) {
+        return BigDecimal.valueOf(priceMantissa(index), priceScale);
+    }
+
+    private int chunkOf(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Tick " + index + " out of " + size);
+        }
+        int chunk = Arrays.binarySearch(starts, index);
+        return chunk >= 0 ? chunk : -chunk - 2;
+    }
+}
@@ -0,0 +1,64 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking token bucket that paces the frames a connection sends to Binance. It holds up to {@code permitsPerSecond}
+ * tokens, so a burst of that size goes out at once and anything beyond it waits for the bucket to refill at the
+ * exchange's message rate. Waiting happens under a {@link ReentrantLock} rather than the monitor, so a virtual thread
+ * waiting for a token releases its carrier.
+ */
+class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long capacity;
+    private final long nanosPerToken;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long tokens;
+    private long lastRefill;
+
+    TokenBucket(int permitsPerSecond) {
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.nanosPerToken = NANOS_PER_SECOND / capacity;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes a token, waiting for the bucket to refill if it is empty. Callers are served one at a time.
+     */
+    void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            refill();
+            while (tokens == 0) {
+                TimeUnit.NANOSECONDS.sleep(nanosPerToken - (System.nanoTime() - lastRefill));
+                refill();
+            }
+            tokens--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long available() {
+        lock.lock();
+        try {
+            refill();
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long earned = (now - lastRefill) / nanosPerToken;
+        if (earned > 0) {
+            tokens = Math.min(capacity, tokens + earned);
+            lastRefill = tokens == capacity ? now : lastRefill + earned * nanosPerToken;
+        }
+    }
+}
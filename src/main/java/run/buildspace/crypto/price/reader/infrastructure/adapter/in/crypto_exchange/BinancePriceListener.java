@@ -1,6 +1,8 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,31 +10,92 @@ import org.springframework.stereotype.Component;
 import run.buildspace.crypto.price.reader.application.port.in.ForPriceProcessing;
 import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
 import run.buildspace.crypto.price.reader.infrastructure.adapter.common.BinanceWebSocketManager;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
 import run.buildspace.crypto.price.reader.infrastructure.config.observability.Trace;
 
+import java.util.function.Consumer;
+
+/**
+ * Hands the Binance price stream to {@link ForPriceProcessing}. With {@code binance.conflation.enabled} the prices go
+ * through a {@link PriceConflator} first, so a slow publisher only ever sees the latest price of each symbol. With
+ * {@code binance.deadband.enabled} a {@link PriceDeadband} drops prices that barely moved before anything else. With
+ * {@code binance.lanes.enabled} the prices are processed on {@link PriceLanes}, one lane per symbol, instead of the
+ * thread that delivers them.
+ */
 @Component
 public class BinancePriceListener {
     private final Logger logger = LoggerFactory.getLogger(BinancePriceListener.class);
     private final BinanceWebSocketManager binanceWebSocketManager;
     private final ForPriceProcessing forPriceProcessing;
+    private final PriceConflator priceConflator;
+    private final PriceDeadband priceDeadband;
+    private final PriceLanes priceLanes;
+    private final Consumer<PriceUpdate> processing;
+    private final PriceLatencyMetrics latencyMetrics;
 
     @Autowired
-    public BinancePriceListener(BinanceWebSocketManager binanceWebSocketManager, ForPriceProcessing forPriceProcessing) {
+    public BinancePriceListener(BinanceWebSocketManager binanceWebSocketManager, ForPriceProcessing forPriceProcessing,
+                                BinanceWebSocketProperties properties, MeterRegistry meterRegistry, PriceLatencyMetrics latencyMetrics,
+                                BlockingThreads blockingThreads) {
         this.binanceWebSocketManager = binanceWebSocketManager;
         this.forPriceProcessing = forPriceProcessing;
+        this.latencyMetrics = latencyMetrics;
+        Consumer<PriceUpdate> traced = price -> Trace.trace(this::processPrice, price);
+        this.priceLanes = properties.lanes() != null && properties.lanes().enabled()
+                ? new PriceLanes(properties.lanes().count(), properties.lanes().queueCapacity(), meterRegistry,
+                properties.observability().priceLaneDepthGauge(), properties.observability().priceLaneServiceTimer(), traced, blockingThreads)
+                : null;
+        this.processing = priceLanes != null ? priceLanes::offer : traced;
+        this.priceConflator = properties.conflation() != null && properties.conflation().enabled()
+                ? new PriceConflator(binanceWebSocketManager.getSymbolRegistry(), meterRegistry,
+                properties.observability().priceConflationCoalescedCounter(), processing, blockingThreads)
+                : null;
+        this.priceDeadband = properties.deadband() != null && properties.deadband().enabled()
+                ? new PriceDeadband(properties.deadband(), binanceWebSocketManager.getSymbolRegistry(), meterRegistry,
+                properties.observability().priceDeadbandSuppressedCounter())
+                : null;
     }
 
     @PostConstruct
     public void run() {
+        if (priceLanes != null) {
+            priceLanes.start();
+        }
+        if (priceConflator != null) {
+            priceConflator.start();
+        }
         binanceWebSocketManager.getPriceUpdates().subscribe(
-                price -> Trace.trace(this::processPrice, price),
+                price -> {
+                    if (priceDeadband != null && !priceDeadband.test(price)) {
+                        return;
+                    }
+                    if (priceConflator != null) {
+                        priceConflator.offer(price);
+                    } else {
+                        processing.accept(price);
+                    }
+                },
                 error -> Trace.trace(this::processError, error),
                 () -> logger.info("Closed connection with Binance")
         );
+        binanceWebSocketManager.getErrors().subscribe(error -> Trace.trace(this::processError, error));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (priceConflator != null) {
+            priceConflator.shutdown();
+        }
+        if (priceLanes != null) {
+            priceLanes.shutdown();
+        }
     }
 
     private void processPrice(PriceUpdate priceUpdate) {
         logger.info("Received price update: {}", priceUpdate);
+        latencyMetrics.record(PriceLatencyMetrics.Stage.DISPATCH, priceUpdate);
         forPriceProcessing.processPrice(priceUpdate);
     }
 
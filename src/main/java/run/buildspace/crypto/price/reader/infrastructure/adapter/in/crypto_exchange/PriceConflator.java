@@ -0,0 +1,108 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Keeps only the newest {@link PriceUpdate} of each symbol until the downstream consumer is ready for it. Every
+ * symbol id owns one slot; an update that finds its slot still full replaces the older one and is counted as
+ * coalesced, and one that finds it empty queues the id as dirty. A single drainer thread takes dirty ids and hands
+ * the slot contents to the consumer, so however far the consumer falls behind, at most one update per symbol is
+ * held. Updates without a symbol id bypass the slots and are handed over directly.
+ */
+class PriceConflator {
+    private final Logger logger = LoggerFactory.getLogger(PriceConflator.class);
+
+    private final SymbolRegistry symbolRegistry;
+    private final MeterRegistry meterRegistry;
+    private final String coalescedCounter;
+    private final Consumer<PriceUpdate> consumer;
+    private final BlockingThreads blockingThreads;
+    private final AtomicReferenceArray<PriceUpdate> latest;
+    private final AtomicReferenceArray<Counter> coalesced;
+    // every id is queued at most once while its slot is full, so the queue never exceeds the registry capacity
+    private final BlockingQueue<Integer> dirty;
+    private Thread drainer;
+
+    PriceConflator(SymbolRegistry symbolRegistry, MeterRegistry meterRegistry, String coalescedCounter, Consumer<PriceUpdate> consumer,
+                   BlockingThreads blockingThreads) {
+        this.symbolRegistry = symbolRegistry;
+        this.meterRegistry = meterRegistry;
+        this.coalescedCounter = coalescedCounter;
+        this.consumer = consumer;
+        this.blockingThreads = blockingThreads;
+        this.latest = new AtomicReferenceArray<>(symbolRegistry.capacity());
+        this.coalesced = new AtomicReferenceArray<>(symbolRegistry.capacity());
+        this.dirty = new ArrayBlockingQueue<>(Math.max(1, symbolRegistry.capacity()));
+    }
+
+    void offer(PriceUpdate priceUpdate) {
+        int symbolId = priceUpdate.symbolId();
+        if (symbolId < 0 || symbolId >= latest.length()) {
+            consumer.accept(priceUpdate);
+            return;
+        }
+        if (latest.getAndSet(symbolId, priceUpdate) == null) {
+            dirty.add(symbolId);
+        } else {
+            coalesced(symbolId).increment();
+        }
+    }
+
+    /**
+     * Number of updates of {@code symbolId} replaced before the consumer took them.
+     */
+    double coalescedCount(int symbolId) {
+        Counter counter = coalesced.get(symbolId);
+        return counter == null ? 0 : counter.count();
+    }
+
+    synchronized void start() {
+        if (drainer != null) {
+            return;
+        }
+        drainer = blockingThreads.start("price-conflation", this::drain);
+    }
+
+    synchronized void shutdown() {
+        if (drainer != null) {
+            drainer.interrupt();
+            drainer = null;
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                PriceUpdate priceUpdate = latest.getAndSet(dirty.take(), null);
+                if (priceUpdate != null) {
+                    consumer.accept(priceUpdate);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Conflated price processing failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private Counter coalesced(int symbolId) {
+        Counter counter = coalesced.get(symbolId);
+        if (counter == null) {
+            SymbolRegistry.Entry entry = symbolRegistry.entry(symbolId);
+            counter = meterRegistry.counter(coalescedCounter, entry.tags());
+            coalesced.set(symbolId, counter);
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,109 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets a price through only when it differs significantly from the last one let through for its symbol: by at least
+ * {@code absolute} in price or {@code basisPoints} of the last price, whichever is configured (with neither, any change
+ * counts). A symbol silent for {@code maxSilence} ms (0 for never) gets its next price through regardless, as a
+ * heartbeat. The state of each symbol id lives in primitive arrays and is only touched by the single dispatch thread;
+ * the suppressed counts are atomic so they can be scraped. Updates without a symbol id always pass.
+ */
+class PriceDeadband {
+
+    private static final double BASIS_POINTS = 10_000;
+    private static final double[] POWERS_OF_TEN = new double[Byte.MAX_VALUE + 1];
+
+    static {
+        for (int scale = 0; scale < POWERS_OF_TEN.length; scale++) {
+            POWERS_OF_TEN[scale] = Math.pow(10, scale);
+        }
+    }
+
+    private final double absolute;
+    private final double basisPoints;
+    private final long maxSilenceNanos;
+    private final LongSupplier nanoClock;
+    private final SymbolRegistry symbolRegistry;
+    private final MeterRegistry meterRegistry;
+    private final String suppressedCounter;
+    private final double[] lastPrice;
+    private final long[] lastPassedNanos;
+    private final AtomicLongArray suppressed;
+    private final boolean[] registered;
+
+    PriceDeadband(BinanceWebSocketProperties.Deadband properties, SymbolRegistry symbolRegistry, MeterRegistry meterRegistry,
+                  String suppressedCounter) {
+        this(properties, symbolRegistry, meterRegistry, suppressedCounter, System::nanoTime);
+    }
+
+    PriceDeadband(BinanceWebSocketProperties.Deadband properties, SymbolRegistry symbolRegistry, MeterRegistry meterRegistry,
+                  String suppressedCounter, LongSupplier nanoClock) {
+        this.absolute = properties.absolute();
+        this.basisPoints = properties.basisPoints();
+        this.maxSilenceNanos = properties.maxSilence() > 0 ? TimeUnit.MILLISECONDS.toNanos(properties.maxSilence()) : Long.MAX_VALUE;
+        this.nanoClock = nanoClock;
+        this.symbolRegistry = symbolRegistry;
+        this.meterRegistry = meterRegistry;
+        this.suppressedCounter = suppressedCounter;
+        this.lastPrice = new double[symbolRegistry.capacity()];
+        this.lastPassedNanos = new long[symbolRegistry.capacity()];
+        this.suppressed = new AtomicLongArray(symbolRegistry.capacity());
+        this.registered = new boolean[symbolRegistry.capacity()];
+        Arrays.fill(lastPrice, Double.NaN);
+    }
+
+    /**
+     * Whether {@code priceUpdate} should be published.
+     */
+    boolean test(PriceUpdate priceUpdate) {
+        int symbolId = priceUpdate.symbolId();
+        if (symbolId < 0 || symbolId >= lastPrice.length) {
+            return true;
+        }
+        double price = priceUpdate.priceMantissa() / POWERS_OF_TEN[priceUpdate.priceScale()];
+        long now = nanoClock.getAsLong();
+        double last = lastPrice[symbolId];
+        if (Double.isNaN(last) || significant(Math.abs(price - last), last) || now - lastPassedNanos[symbolId] >= maxSilenceNanos) {
+            lastPrice[symbolId] = price;
+            lastPassedNanos[symbolId] = now;
+            return true;
+        }
+        suppress(symbolId);
+        return false;
+    }
+
+    /**
+     * Updates of {@code symbolId} held back so far.
+     */
+    long suppressedCount(int symbolId) {
+        return suppressed.get(symbolId);
+    }
+
+    private boolean significant(double change, double last) {
+        if (absolute <= 0 && basisPoints <= 0) {
+            return change > 0;
+        }
+        return (absolute > 0 && change >= absolute) || (basisPoints > 0 && change * BASIS_POINTS >= basisPoints * Math.abs(last));
+    }
+
+    private void suppress(int symbolId) {
+        suppressed.incrementAndGet(symbolId);
+        if (!registered[symbolId]) {
+            FunctionCounter.builder(suppressedCounter, suppressed, it -> it.get(symbolId))
+                    .tags(symbolRegistry.entry(symbolId).tags())
+                    .description("Prices held back because they barely moved")
+                    .register(meterRegistry);
+            registered[symbolId] = true;
+        }
+    }
+}
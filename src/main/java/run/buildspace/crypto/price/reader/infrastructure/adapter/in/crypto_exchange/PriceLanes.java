@@ -0,0 +1,110 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import run.buildspace.crypto.price.reader.domain.exception.WSException;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Processes prices on {@code count} worker lanes instead of the thread that delivers them. Every symbol hashes onto
+ * one lane, so its prices are still handled one at a time and in order, while different symbols run in parallel.
+ * Each lane has a queue of {@code queueCapacity} prices; {@link #offer} blocks while the symbol's lane is full, which
+ * pushes back on the price buffer and lets its overflow policy decide what is lost.
+ */
+class PriceLanes {
+    private final Logger logger = LoggerFactory.getLogger(PriceLanes.class);
+
+    static final String LANE_TAG = "lane";
+
+    private record Lane(BlockingQueue<PriceUpdate> queue, Timer serviceTime) {
+    }
+
+    private final Consumer<PriceUpdate> consumer;
+    private final BlockingThreads blockingThreads;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    PriceLanes(int count, int queueCapacity, MeterRegistry meterRegistry, String depthGauge, String serviceTimer,
+               Consumer<PriceUpdate> consumer, BlockingThreads blockingThreads) {
+        this.consumer = consumer;
+        this.blockingThreads = blockingThreads;
+        for (int i = 0; i < Math.max(1, count); i++) {
+            BlockingQueue<PriceUpdate> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            String lane = String.valueOf(i);
+            Gauge.builder(depthGauge, queue, BlockingQueue::size)
+                    .tag(LANE_TAG, lane)
+                    .description("Prices waiting for a processing lane")
+                    .register(meterRegistry);
+            Timer serviceTime = Timer.builder(serviceTimer)
+                    .tag(LANE_TAG, lane)
+                    .description("Time a processing lane spends on one price")
+                    .register(meterRegistry);
+            lanes.add(new Lane(queue, serviceTime));
+        }
+    }
+
+    void offer(PriceUpdate priceUpdate) {
+        try {
+            laneOf(priceUpdate).queue().put(priceUpdate);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WSException("Interrupted queueing price: " + priceUpdate.symbol(), e);
+        }
+    }
+
+    /**
+     * Index of the lane handling {@code priceUpdate}'s symbol.
+     */
+    int laneIndex(PriceUpdate priceUpdate) {
+        int key = priceUpdate.symbolId() >= 0 ? priceUpdate.symbolId() : priceUpdate.symbol().hashCode();
+        return Math.floorMod(key, lanes.size());
+    }
+
+    synchronized void start() {
+        if (!workers.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < lanes.size(); i++) {
+            Lane lane = lanes.get(i);
+            workers.add(blockingThreads.start("price-lane-" + i, () -> work(lane)));
+        }
+    }
+
+    synchronized void shutdown() {
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    private Lane laneOf(PriceUpdate priceUpdate) {
+        return lanes.get(laneIndex(priceUpdate));
+    }
+
+    private void work(Lane lane) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                PriceUpdate priceUpdate = lane.queue().take();
+                long start = System.nanoTime();
+                try {
+                    consumer.accept(priceUpdate);
+                } finally {
+                    lane.serviceTime().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Price processing failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
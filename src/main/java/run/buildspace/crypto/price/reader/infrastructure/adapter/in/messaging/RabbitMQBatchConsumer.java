@@ -0,0 +1,98 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.messaging;
+
+import com.rabbitmq.client.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import run.buildspace.crypto.price.reader.application.port.in.ForSubscriptionUpdate;
+import run.buildspace.crypto.price.reader.domain.model.PendingSubscription;
+import run.buildspace.crypto.price.reader.domain.model.Subscription;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.RabbitMQManager;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.Trace;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consumes the subscription queue in batches when {@code rabbitmq.batch.enabled} is set. A batch is settled once every
+ * message has an outcome, each message acknowledged or requeued on its own. A {@code multiple=true} ack is never used:
+ * batches complete out of order, so it could cover the tags of an earlier batch that is still outstanding, whose later
+ * nack the broker would then reject as an unknown delivery tag.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rabbitmq.batch", name = "enabled", havingValue = "true")
+public class RabbitMQBatchConsumer {
+    private final Logger logger = LoggerFactory.getLogger(RabbitMQBatchConsumer.class);
+
+    private final ForSubscriptionUpdate forSubscriptionUpdate;
+
+    @Autowired
+    public RabbitMQBatchConsumer(ForSubscriptionUpdate forSubscriptionUpdate) {
+        this.forSubscriptionUpdate = forSubscriptionUpdate;
+    }
+
+    @RabbitListener(queues = "${rabbitmq.subscription-queue}", containerFactory = RabbitMQManager.SUBSCRIPTION_BATCH_FACTORY)
+    public void receiveMessages(List<Message<Subscription>> messages, Channel channel) {
+        Trace.trace(this::handleSubscriptions, messages, channel);
+    }
+
+    private void handleSubscriptions(List<Message<Subscription>> messages, Channel channel) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Acknowledgement acknowledgement = new Acknowledgement(channel, messages.size());
+        List<PendingSubscription> pendingSubscriptions = new ArrayList<>(messages.size());
+        for (Message<Subscription> message : messages) {
+            long deliveryTag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+            pendingSubscriptions.add(new PendingSubscription(message.getPayload(),
+                    () -> acknowledgement.settle(deliveryTag, true),    // onSuccess
+                    () -> acknowledgement.settle(deliveryTag, false)    // onFailure
+            ));
+        }
+        forSubscriptionUpdate.handleSubscriptions(pendingSubscriptions);
+    }
+
+    /**
+     * Holds back the acknowledgements of one batch until every message has an outcome.
+     */
+    private final class Acknowledgement {
+        private final Channel channel;
+        private final AtomicInteger pending;
+        private final Queue<Long> succeeded = new ConcurrentLinkedQueue<>();
+        private final Queue<Long> failed = new ConcurrentLinkedQueue<>();
+
+        private Acknowledgement(Channel channel, int size) {
+            this.channel = channel;
+            this.pending = new AtomicInteger(size);
+        }
+
+        private void settle(long deliveryTag, boolean success) {
+            (success ? succeeded : failed).add(deliveryTag);
+            if (pending.decrementAndGet() == 0) {
+                send();
+            }
+        }
+
+        private void send() {
+            try {
+                for (long deliveryTag : succeeded) {
+                    channel.basicAck(deliveryTag, false);
+                }
+                for (long deliveryTag : failed) {
+                    channel.basicNack(deliveryTag, false, true);
+                }
+            } catch (IOException e) {
+                logger.error("ACK of subscription batch failed", e);
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 import run.buildspace.crypto.price.reader.application.port.in.ForSubscriptionUpdate;
@@ -16,6 +17,7 @@ import run.buildspace.crypto.price.reader.infrastructure.config.observability.Tr
 import java.io.IOException;
 
 @Component
+@ConditionalOnProperty(prefix = "rabbitmq.batch", name = "enabled", havingValue = "false", matchIfMissing = true)
 public class RabbitMQConsumer {
     private final Logger logger = LoggerFactory.getLogger(RabbitMQConsumer.class);
 
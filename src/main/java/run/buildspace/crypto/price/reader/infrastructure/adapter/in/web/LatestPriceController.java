@@ -0,0 +1,48 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.LatestPrices;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.web.dto.LatestPriceResponse;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves the latest price of each symbol from {@link LatestPrices}. Symbols are given as subscribed, e.g.
+ * {@code BTC}. The lookups never block, so the handlers run straight on the event loop.
+ */
+@RestController
+@RequestMapping("/prices")
+public class LatestPriceController {
+
+    private final LatestPrices latestPrices;
+
+    @Autowired
+    public LatestPriceController(LatestPrices latestPrices) {
+        this.latestPrices = latestPrices;
+    }
+
+    /**
+     * Latest price of {@code symbol}, or 404 if none was received yet.
+     */
+    @GetMapping("/{symbol}")
+    public ResponseEntity<LatestPriceResponse> price(@PathVariable String symbol) {
+        return ResponseEntity.of(Optional.ofNullable(latestPrices.find(symbol)).map(LatestPriceResponse::of));
+    }
+
+    /**
+     * Latest prices of {@code symbols}, or of every symbol when none are given. Symbols without a price are left out.
+     */
+    @GetMapping
+    public List<LatestPriceResponse> prices(@RequestParam(required = false) List<String> symbols) {
+        List<PriceUpdate> prices = symbols == null || symbols.isEmpty() ? latestPrices.findAll() : latestPrices.findAll(symbols);
+        return prices.stream().map(LatestPriceResponse::of).toList();
+    }
+}
@@ -0,0 +1,198 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.BinanceStreams;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.LatestPrices;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Streams prices to HTTP clients. Every stored price in {@link LatestPrices} is offered to each connected client whose
+ * symbol filter accepts it, through that client's {@link PriceStreamClient} conflating buffer, so a slow client only
+ * falls behind on its own and costs at most one pending price per symbol.
+ * <p>
+ * The dispatch thread only sets the symbol's bit in a bitset of changed symbols and wakes the {@code price-fan-out}
+ * thread if it is idle. That thread marks the symbol on the clients that want it, found through an index by symbol
+ * rather than by scanning every client, and each marked client reads and emits its prices on the parallel scheduler.
+ * A price replaced before the fan-out thread got to it counts as dropped for every client of its symbol.
+ */
+@Component
+public class PriceFanOut {
+    private final Logger logger = LoggerFactory.getLogger(PriceFanOut.class);
+
+    static final String CLIENTS_GAUGE = "prices.stream.clients";
+    static final String LAG_GAUGE = "prices.stream.lag";
+    static final String DROPS_COUNTER = "prices.stream.drops";
+    static final String TRANSPORT_TAG = "transport";
+    // prices serialized ahead of what the transport has written
+    private static final int PREFETCH = 8;
+
+    private final LatestPrices latestPrices;
+    private final SymbolRegistry symbolRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler fanOut;
+    private final Scheduler drains;
+    private final List<PriceStreamClient> clients = new CopyOnWriteArrayList<>();
+    // clients without a symbol filter, and the others by exchange symbol
+    private final List<PriceStreamClient> everySymbol = new CopyOnWriteArrayList<>();
+    private final Map<String, List<PriceStreamClient>> bySymbol = new ConcurrentHashMap<>();
+    // symbols stored since the fan-out thread last looked, how many prices each symbol was offered, and how many of
+    // those the fan-out thread has accounted for (only it touches the latter)
+    private final AtomicLongArray changed;
+    private final AtomicLongArray offered;
+    private final long[] seen;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Map<String, AtomicInteger> connected = new ConcurrentHashMap<>();
+    private final Map<String, Counter> drops = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PriceFanOut(LatestPrices latestPrices, SymbolRegistry symbolRegistry, MeterRegistry meterRegistry) {
+        this(latestPrices, symbolRegistry, meterRegistry, Schedulers.newSingle("price-fan-out", true), Schedulers.parallel());
+    }
+
+    PriceFanOut(LatestPrices latestPrices, SymbolRegistry symbolRegistry, MeterRegistry meterRegistry, Scheduler fanOut,
+                Scheduler drains) {
+        this.latestPrices = latestPrices;
+        this.symbolRegistry = symbolRegistry;
+        this.meterRegistry = meterRegistry;
+        this.fanOut = fanOut;
+        this.drains = drains;
+        this.changed = new AtomicLongArray((latestPrices.capacity() + Long.SIZE - 1) / Long.SIZE);
+        this.offered = new AtomicLongArray(latestPrices.capacity());
+        this.seen = new long[latestPrices.capacity()];
+        Gauge.builder(LAG_GAUGE, clients, it -> it.stream().mapToInt(PriceStreamClient::lag).max().orElse(0))
+                .description("Most symbols with a price not yet sent to a single streaming client")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        latestPrices.listen(this::offer);
+    }
+
+    @PreDestroy
+    void stop() {
+        fanOut.dispose();
+    }
+
+    /**
+     * Prices of {@code symbols} (as subscribed, e.g. {@code BTC}; every symbol when empty) as they arrive, starting
+     * with the latest known ones. {@code transport} tags the client's metrics.
+     */
+    public Flux<PriceUpdate> stream(List<String> symbols, String transport) {
+        Set<String> filter = symbols == null || symbols.isEmpty() ? null
+                : symbols.stream().map(BinanceStreams::exchangeSymbol).collect(Collectors.toUnmodifiableSet());
+        AtomicInteger clientCount = connected.computeIfAbsent(transport, this::clientGauge);
+        Counter clientDrops = drops.computeIfAbsent(transport, it -> Counter.builder(DROPS_COUNTER)
+                .tag(TRANSPORT_TAG, it)
+                .description("Prices replaced by a newer one before a streaming client took them")
+                .register(meterRegistry));
+        return Flux.<PriceUpdate>create(sink -> {
+            PriceStreamClient client = new PriceStreamClient(latestPrices, symbolRegistry, filter, clientDrops, drains);
+            sink.onRequest(n -> client.drain());
+            sink.onDispose(() -> {
+                clients.remove(client);
+                unindex(client, filter);
+                clientCount.decrementAndGet();
+                logger.debug("Price stream client left with {} dropped price(s)", client.dropped());
+            });
+            clientCount.incrementAndGet();
+            clients.add(client);
+            index(client, filter);
+            client.attach(sink);
+        }, FluxSink.OverflowStrategy.ERROR).publishOn(Schedulers.parallel(), PREFETCH);
+    }
+
+    /**
+     * Notes that {@code symbolId} has a new price and wakes the fan-out thread. Runs on the dispatch thread.
+     */
+    void offer(int symbolId) {
+        // counted before the bit is set, so the fan-out thread never takes the symbol before its price is counted
+        offered.incrementAndGet(symbolId);
+        changed.getAndAccumulate(symbolId >>> 6, 1L << symbolId, (bits, it) -> bits | it);
+        if (scheduled.compareAndSet(false, true)) {
+            fanOut.schedule(this::fanOut);
+        }
+    }
+
+    /**
+     * Marks every changed symbol on the clients that want it, counting the prices offered since its last round but one
+     * as replaced. Cleared before looking, so a price stored meanwhile schedules another round; a round finding no
+     * price it has not already accounted for skips the symbol.
+     */
+    private void fanOut() {
+        scheduled.set(false);
+        for (int word = 0; word < changed.length(); word++) {
+            long bits = changed.getAndSet(word, 0);
+            while (bits != 0) {
+                int symbolId = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long offers = offered.get(symbolId);
+                if (offers == seen[symbolId]) {
+                    continue;
+                }
+                int dropped = (int) Math.min(Integer.MAX_VALUE, offers - seen[symbolId] - 1);
+                seen[symbolId] = offers;
+                mark(everySymbol, symbolId, dropped);
+                SymbolRegistry.Entry entry = symbolRegistry.entry(symbolId);
+                List<PriceStreamClient> subscribed = entry == null ? null : bySymbol.get(entry.exchangeSymbol());
+                if (subscribed != null) {
+                    mark(subscribed, symbolId, dropped);
+                }
+            }
+        }
+    }
+
+    private static void mark(List<PriceStreamClient> clients, int symbolId, int dropped) {
+        for (PriceStreamClient client : clients) {
+            client.mark(symbolId, dropped);
+        }
+    }
+
+    private void index(PriceStreamClient client, Set<String> filter) {
+        if (filter == null) {
+            everySymbol.add(client);
+            return;
+        }
+        filter.forEach(symbol -> bySymbol.computeIfAbsent(symbol, it -> new CopyOnWriteArrayList<>()).add(client));
+    }
+
+    private void unindex(PriceStreamClient client, Set<String> filter) {
+        if (filter == null) {
+            everySymbol.remove(client);
+            return;
+        }
+        filter.forEach(symbol -> bySymbol.getOrDefault(symbol, List.of()).remove(client));
+    }
+
+    private AtomicInteger clientGauge(String transport) {
+        AtomicInteger count = new AtomicInteger();
+        Gauge.builder(CLIENTS_GAUGE, count, AtomicInteger::get)
+                .tag(TRANSPORT_TAG, transport)
+                .description("Clients connected to the price stream")
+                .register(meterRegistry);
+        return count;
+    }
+}
@@ -0,0 +1,153 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import io.micrometer.core.instrument.Counter;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.LatestPrices;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One streaming client's conflating buffer. Instead of queueing prices it keeps a bitset of the symbols that changed
+ * since they were last sent, and reads their values from {@link LatestPrices} only when the client asks for more, so
+ * it never holds more than one pending price per symbol and a slow client simply skips intermediate prices. A symbol
+ * marked again before it was sent counts as dropped, on {@code prices.stream.drops} as soon as it happens. Symbols are
+ * sent round-robin from where the last send stopped, so a busy symbol cannot starve the others.
+ * <p>
+ * {@link #mark} is only called from the fan-out thread and never emits itself: it wakes a drain on the {@code drains}
+ * scheduler unless one is already due. {@link #drain} may run there or on the thread requesting more, and a
+ * work-in-progress counter makes sure only one of them emits at a time.
+ */
+class PriceStreamClient {
+
+    private final LatestPrices latestPrices;
+    private final SymbolRegistry symbolRegistry;
+    // exchange symbols the client asked for, or null for every symbol
+    private final Set<String> symbols;
+    private final Counter drops;
+    private final Scheduler drains;
+    private final AtomicLongArray dirty;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean wakeup = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile FluxSink<PriceUpdate> sink;
+    private int cursor;
+
+    PriceStreamClient(LatestPrices latestPrices, SymbolRegistry symbolRegistry, Set<String> symbols, Counter drops,
+                      Scheduler drains) {
+        this.latestPrices = latestPrices;
+        this.symbolRegistry = symbolRegistry;
+        this.symbols = symbols;
+        this.drops = drops;
+        this.drains = drains;
+        this.dirty = new AtomicLongArray((latestPrices.capacity() + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Starts sending to {@code sink}, beginning with the latest known price of every symbol the client wants.
+     */
+    void attach(FluxSink<PriceUpdate> sink) {
+        this.sink = sink;
+        for (int symbolId = 0; symbolId < latestPrices.capacity(); symbolId++) {
+            SymbolRegistry.Entry entry = symbolRegistry.entry(symbolId);
+            if (entry == null) {
+                break;
+            }
+            if ((symbols == null || symbols.contains(entry.exchangeSymbol())) && latestPrices.has(symbolId)) {
+                enqueue(symbolId);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Notes that {@code symbolId} has a new price, of which {@code replaced} earlier ones never reached the fan-out,
+     * and wakes a drain.
+     */
+    void mark(int symbolId, int replaced) {
+        int lost = enqueue(symbolId) ? replaced : replaced + 1;
+        if (lost > 0) {
+            dropped.addAndGet(lost);
+            drops.increment(lost);
+        }
+        if (wakeup.compareAndSet(false, true)) {
+            drains.schedule(() -> {
+                wakeup.set(false);
+                drain();
+            });
+        }
+    }
+
+    /**
+     * Symbols with a price not yet sent.
+     */
+    int lag() {
+        return pending.get();
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            FluxSink<PriceUpdate> current = sink;
+            while (current != null && current.requestedFromDownstream() > 0 && pending.get() > 0) {
+                int symbolId = nextDirty();
+                if (symbolId < 0) {
+                    break;
+                }
+                PriceUpdate priceUpdate = latestPrices.find(symbolId);
+                if (priceUpdate != null) {
+                    current.next(priceUpdate);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private boolean enqueue(int symbolId) {
+        long bit = 1L << symbolId;
+        // counted before the bit is set, so the drain never takes the symbol before it is counted
+        pending.incrementAndGet();
+        long previous = dirty.getAndAccumulate(symbolId >>> 6, bit, (bits, it) -> bits | it);
+        if ((previous & bit) != 0) {
+            pending.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private int nextDirty() {
+        int words = dirty.length();
+        int start = cursor >>> 6;
+        for (int i = 0; i <= words; i++) {
+            int word = (start + i) % words;
+            long bits = dirty.get(word);
+            if (i == 0) {
+                // the first word is only searched from the cursor on, its lower bits come last
+                bits &= -1L << cursor;
+            }
+            if (bits != 0) {
+                int symbolId = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                long bit = 1L << symbolId;
+                dirty.getAndAccumulate(word, bit, (value, it) -> value & ~it);
+                pending.decrementAndGet();
+                cursor = symbolId + 1 == latestPrices.capacity() ? 0 : symbolId + 1;
+                return symbolId;
+            }
+        }
+        return -1;
+    }
+}
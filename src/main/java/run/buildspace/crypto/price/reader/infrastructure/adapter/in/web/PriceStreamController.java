@@ -0,0 +1,39 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.web.dto.LatestPriceResponse;
+
+import java.util.List;
+
+/**
+ * Streams prices as Server-Sent Events, one event per price named after its symbol. See {@link PriceFanOut}.
+ */
+@RestController
+@RequestMapping("/prices")
+public class PriceStreamController {
+
+    static final String TRANSPORT = "sse";
+
+    private final PriceFanOut priceFanOut;
+
+    @Autowired
+    public PriceStreamController(PriceFanOut priceFanOut) {
+        this.priceFanOut = priceFanOut;
+    }
+
+    /**
+     * Prices of {@code symbols}, or of every symbol when none are given, starting with the latest known ones.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LatestPriceResponse>> stream(@RequestParam(required = false) List<String> symbols) {
+        return priceFanOut.stream(symbols, TRANSPORT)
+                .map(price -> ServerSentEvent.builder(LatestPriceResponse.of(price)).event(price.symbol()).build());
+    }
+}
@@ -0,0 +1,20 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Maps the price WebSocket ahead of the annotated controllers, which would otherwise take its path for a symbol.
+ */
+@Configuration
+public class PriceStreamRoutes {
+
+    @Bean
+    public HandlerMapping priceStreamHandlerMapping(PriceStreamWebSocketHandler priceStreamWebSocketHandler) {
+        return new SimpleUrlHandlerMapping(Map.of(PriceStreamWebSocketHandler.PATH, priceStreamWebSocketHandler), -1);
+    }
+}
@@ -0,0 +1,57 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import run.buildspace.crypto.price.reader.domain.exception.MessagePublishException;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.web.dto.LatestPriceResponse;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams prices over a WebSocket at {@value #PATH}, one JSON text message per price. Symbols are chosen with the
+ * {@code symbols} query parameter, as for the SSE stream; anything the client sends is ignored, and closing the socket
+ * ends its stream. See {@link PriceFanOut}.
+ */
+@Component
+public class PriceStreamWebSocketHandler implements WebSocketHandler {
+
+    static final String PATH = "/prices/ws";
+    static final String TRANSPORT = "websocket";
+    private static final String SYMBOLS_PARAM = "symbols";
+
+    private final PriceFanOut priceFanOut;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public PriceStreamWebSocketHandler(PriceFanOut priceFanOut, ObjectMapper objectMapper) {
+        this.priceFanOut = priceFanOut;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Mono<Void> output = session.send(priceFanOut.stream(symbols(session), TRANSPORT)
+                .map(price -> session.textMessage(toJson(LatestPriceResponse.of(price)))));
+        return Mono.firstWithSignal(output, session.receive().then());
+    }
+
+    private static List<String> symbols(WebSocketSession session) {
+        List<String> values = UriComponentsBuilder.fromUri(session.getHandshakeInfo().getUri()).build().getQueryParams().get(SYMBOLS_PARAM);
+        return values == null ? List.of() : values.stream().flatMap(it -> Arrays.stream(it.split(","))).filter(it -> !it.isBlank()).toList();
+    }
+
+    private String toJson(LatestPriceResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new MessagePublishException("Failed to serialize price: " + response.symbol(), e);
+        }
+    }
+}
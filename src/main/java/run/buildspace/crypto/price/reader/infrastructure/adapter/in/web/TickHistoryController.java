@@ -0,0 +1,41 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.TickHistory;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.Ticks;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.web.dto.PriceTickResponse;
+
+/**
+ * Serves the price history of a symbol from {@link TickHistory}. Ticks are streamed out as they are read from the
+ * mapped segments, so a long window is never held in memory. Reading may fault pages in from disk, so it runs on the
+ * bounded elastic scheduler rather than the event loop.
+ */
+@RestController
+@RequestMapping("/prices")
+public class TickHistoryController {
+
+    private final TickHistory tickHistory;
+
+    @Autowired
+    public TickHistoryController(TickHistory tickHistory) {
+        this.tickHistory = tickHistory;
+    }
+
+    /**
+     * Ticks of {@code symbol} with an exchange event time within {@code [from, to]} epoch milliseconds, oldest first.
+     */
+    @GetMapping("/{symbol}/history")
+    public Flux<PriceTickResponse> history(@PathVariable String symbol, @RequestParam long from, @RequestParam long to) {
+        return Flux.defer(() -> {
+            Ticks ticks = tickHistory.find(symbol, from, to);
+            return Flux.range(0, ticks.size()).map(i -> new PriceTickResponse(ticks.timestamp(i), ticks.price(i)));
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+}
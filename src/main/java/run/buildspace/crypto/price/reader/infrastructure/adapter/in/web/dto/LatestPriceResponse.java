@@ -0,0 +1,17 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web.dto;
+
+import lombok.Builder;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.math.BigDecimal;
+
+/**
+ * Latest price of a symbol as served over HTTP. {@code timestamp} is the exchange event time in epoch milliseconds.
+ */
+@Builder
+public record LatestPriceResponse(String symbol, BigDecimal price, long timestamp) {
+
+    public static LatestPriceResponse of(PriceUpdate priceUpdate) {
+        return new LatestPriceResponse(priceUpdate.symbol(), priceUpdate.price(), priceUpdate.timestamp());
+    }
+}
@@ -0,0 +1,12 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * One tick of a symbol's price history. {@code timestamp} is the exchange event time in epoch milliseconds.
+ */
+@Builder
+public record PriceTickResponse(long timestamp, BigDecimal price) {
+}
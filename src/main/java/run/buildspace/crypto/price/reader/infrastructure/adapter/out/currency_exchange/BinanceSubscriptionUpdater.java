@@ -1,86 +1,296 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.out.currency_exchange;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.web.socket.TextMessage;
 import run.buildspace.crypto.price.reader.application.port.out.CryptoStreamSubscriber;
-import run.buildspace.crypto.price.reader.domain.exception.BinanceSubscriptionException;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.BinanceStreams;
 import run.buildspace.crypto.price.reader.infrastructure.adapter.common.BinanceWebSocketManager;
-import run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange.dto.BinanceSubscription;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.ShardRouter;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
 import run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange.dto.SubscriptionType;
 import run.buildspace.crypto.price.reader.infrastructure.adapter.out.currency_exchange.dto.BinancePendingSubscription;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+/**
+ * Turns subscription requests into SUBSCRIBE/UNSUBSCRIBE frames on the connection that owns each symbol. The queues
+ * are drained every {@code binance.requests.drain-interval} ms, but the pace of the frames is set by each
+ * connection's message-rate token bucket, so a large burst goes out as fast as the exchange accepts it. Several
+ * frames can await their response at once, and a callback completes {@code true} only once Binance confirms the
+ * frame that carried its symbol. Callbacks save to the database and ack the request's message, so with virtual
+ * threads enabled they run on {@link BlockingThreads#callbacks()} instead of the thread that reads the response.
+ * A symbol counts as streamed only once its assignment is confirmed: a subscribe arriving while one for the same
+ * symbol is queued or awaiting Binance's answer waits for that outcome rather than completing {@code true} early.
+ * <p>
+ * Sending waits for the token bucket and for a free in-flight slot, so the queues are drained on a dedicated
+ * {@code binance-subscriptions} thread rather than on the scheduler shared with the other periodic jobs. A frame that
+ * cannot be sent fails the callbacks of its own symbols only; the remaining frames are still sent.
+ */
 @Component
 public class BinanceSubscriptionUpdater implements CryptoStreamSubscriber {
     private final Logger logger = LoggerFactory.getLogger(BinanceSubscriptionUpdater.class);
     private final BinanceWebSocketManager binanceWebSocketManager;
+    private final Executor callbacks;
     private final BlockingQueue<BinancePendingSubscription> subscriptionsPool = new LinkedBlockingQueue<>();
     private final BlockingQueue<BinancePendingSubscription> unsubscriptionsPool = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendingSubscriptions = new AtomicInteger();
+    private final AtomicInteger pendingUnsubscriptions = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // callbacks of the symbols whose SUBSCRIBE is queued or awaiting Binance's answer; guarded by itself
+    private final Map<String, List<Consumer<Boolean>>> subscribing = new HashMap<>();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "binance-subscriptions");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private static final Integer CURRENCIES_PER_REQUEST = 50;
 
     @Autowired
-    public BinanceSubscriptionUpdater(BinanceWebSocketManager binanceWebSocketManager) {
+    public BinanceSubscriptionUpdater(BinanceWebSocketManager binanceWebSocketManager, BlockingThreads blockingThreads) {
         this.binanceWebSocketManager = binanceWebSocketManager;
+        this.callbacks = blockingThreads.callbacks();
     }
 
     @Override
     public void subscribe(String symbol, Consumer<Boolean> onComplete) {
-        logger.info("Requesting subscription for symbol: {}", symbol);
-        subscriptionsPool.add(new BinancePendingSubscription(symbol, onComplete));
+        if (binanceWebSocketManager.isAllMarket()) {
+            onComplete.accept(activate(symbol));
+            return;
+        }
+        synchronized (subscribing) {
+            List<Consumer<Boolean>> waiting = subscribing.get(symbol);
+            if (waiting != null) {
+                logger.info("Subscription for symbol {} already requested, waiting for its outcome", symbol);
+                waiting.add(pending(pendingSubscriptions, onComplete));
+                return;
+            }
+            if (binanceWebSocketManager.getShardRouter().shardOf(symbol) == ShardRouter.UNASSIGNED) {
+                subscribing.put(symbol, new ArrayList<>(List.of(pending(pendingSubscriptions, onComplete))));
+                logger.info("Requesting subscription for symbol: {}", symbol);
+                subscriptionsPool.add(new BinancePendingSubscription(binanceWebSocketManager.getSymbolRegistry().register(symbol), symbol, settle(symbol)));
+                return;
+            }
+        }
+        // assigned and no longer awaiting an answer: confirmed by Binance, or carried in a combined-stream URL
+        logger.info("Symbol {} is already streamed", symbol);
+        onComplete.accept(true);
     }
 
     @Override
     public void unsubscribe(String symbol, Consumer<Boolean> onComplete) {
+        if (binanceWebSocketManager.isAllMarket() && binanceWebSocketManager.getShardRouter().shardOf(symbol) == ShardRouter.UNASSIGNED) {
+            logger.info("Filtering out symbol {} from the all-market stream", symbol);
+            binanceWebSocketManager.getSymbolRegistry().deactivate(symbol);
+            onComplete.accept(true);
+            return;
+        }
         logger.info("Requesting unsubscription for symbol: {}", symbol);
-        unsubscriptionsPool.add(new BinancePendingSubscription(symbol, onComplete));
+        unsubscriptionsPool.add(new BinancePendingSubscription(binanceWebSocketManager.getSymbolRegistry().find(symbol), symbol, pending(pendingUnsubscriptions, onComplete)));
+    }
+
+    /**
+     * Subscriptions queued or sent to Binance and not yet answered.
+     */
+    public int pendingSubscriptions() {
+        return pendingSubscriptions.get();
+    }
+
+    /**
+     * Subscriptions Binance confirmed: symbols assigned to a connection with no SUBSCRIBE in flight, plus, on the
+     * all-market stream, the symbols filtered in from it.
+     */
+    public int liveSubscriptions() {
+        ShardRouter router = binanceWebSocketManager.getShardRouter();
+        long inFlight;
+        synchronized (subscribing) {
+            inFlight = subscribing.keySet().stream().filter(it -> router.shardOf(it) != ShardRouter.UNASSIGNED).count();
+        }
+        int live = (int) Math.max(0, router.size() - inFlight);
+        return binanceWebSocketManager.isAllMarket() ? live + binanceWebSocketManager.getSymbolRegistry().activeCount() : live;
+    }
+
+    /**
+     * Unsubscriptions queued or sent to Binance and not yet answered.
+     */
+    public int pendingUnsubscriptions() {
+        return pendingUnsubscriptions.get();
+    }
+
+    private static Consumer<Boolean> pending(AtomicInteger counter, Consumer<Boolean> onComplete) {
+        counter.incrementAndGet();
+        return success -> {
+            counter.decrementAndGet();
+            onComplete.accept(success);
+        };
+    }
+
+    /**
+     * Completes every callback waiting for the SUBSCRIBE of {@code symbol}.
+     */
+    private Consumer<Boolean> settle(String symbol) {
+        return success -> {
+            List<Consumer<Boolean>> waiting;
+            synchronized (subscribing) {
+                waiting = subscribing.remove(symbol);
+            }
+            if (waiting != null) {
+                waiting.forEach(it -> it.accept(success));
+            }
+        };
+    }
+
+    /**
+     * Hands the queues to the sender thread, unless it is still busy with the previous drain.
+     */
+    @Scheduled(fixedDelayString = "${binance.requests.drain-interval}")
+    protected void scheduleSubscriptions() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        sender.execute(() -> {
+            try {
+                manageSubscriptions();
+            } catch (RuntimeException e) {
+                logger.error("Error managing Binance subscriptions", e);
+            } finally {
+                draining.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
     }
 
-    @Scheduled(fixedRate = 1200)
     protected void manageSubscriptions() {
+        if (!binanceWebSocketManager.isAllMarket()
+                && binanceWebSocketManager.allMarketThresholdReached(binanceWebSocketManager.getShardRouter().size() + subscriptionsPool.size())) {
+            switchToAllMarket();
+        }
         updateSubscriptions(subscriptionsPool, SubscriptionType.SUBSCRIBE);
         updateSubscriptions(unsubscriptionsPool, SubscriptionType.UNSUBSCRIBE);
 
     }
 
-    private void updateSubscriptions(BlockingQueue<BinancePendingSubscription> subscriptionsPool, SubscriptionType subscribe) {
+    /**
+     * Moves the pool onto the all-market stream and settles the queued subscriptions against the symbol bitset
+     * instead of sending them. Requests arriving after the switch never reach the queues.
+     */
+    private void switchToAllMarket() {
+        try {
+            binanceWebSocketManager.enableAllMarket();
+        } catch (IOException e) {
+            // the reconnect supervisor restores the all-market stream once the connection is back
+            logger.error("Error switching to the all-market stream: {}", e.getMessage());
+        }
         List<BinancePendingSubscription> pendingRequests = new ArrayList<>();
-        subscriptionsPool.drainTo(pendingRequests, CURRENCIES_PER_REQUEST);
-        if (!pendingRequests.isEmpty()) {
-            BinanceSubscription.BinanceSubscriptionBuilder request = BinanceSubscription.builder();
-            request.method(subscribe);
-            pendingRequests.forEach(pendingRequest -> request.param(pendingRequest.symbol().toLowerCase() + "usdt@markPrice@1s"));
-            handleSubscription(request.build(), pendingRequests);
+        subscriptionsPool.drainTo(pendingRequests);
+        pendingRequests.forEach(it -> it.callback().accept(activate(it.symbol())));
+    }
+
+    private boolean activate(String symbol) {
+        if (binanceWebSocketManager.getSymbolRegistry().activate(symbol)) {
+            logger.info("Filtering in symbol {} from the all-market stream", symbol);
+            return true;
         }
+        logger.error("Symbol registry has no room for {}", symbol);
+        return false;
     }
 
+    private void updateSubscriptions(BlockingQueue<BinancePendingSubscription> subscriptionsPool, SubscriptionType subscribe) {
+        List<BinancePendingSubscription> pendingRequests = new ArrayList<>();
+        subscriptionsPool.drainTo(pendingRequests);
+        routeToConnections(pendingRequests, subscribe).forEach((connection, requests) -> {
+            for (int from = 0; from < requests.size(); from += CURRENCIES_PER_REQUEST) {
+                List<BinancePendingSubscription> chunk = requests.subList(from, Math.min(from + CURRENCIES_PER_REQUEST, requests.size()));
+                handleSubscription(connection, subscribe, chunk.stream().map(this::streamOf).toList(), chunk);
+            }
+        });
+    }
 
-    private void handleSubscription(BinanceSubscription subscription, List<BinancePendingSubscription> pendingRequests) {
-        if (socketIsOpen()) {
+    private String streamOf(BinancePendingSubscription pendingRequest) {
+        return pendingRequest.symbolId() == SymbolRegistry.UNKNOWN ? BinanceStreams.markPrice(pendingRequest.symbol())
+                : binanceWebSocketManager.getSymbolRegistry().entry(pendingRequest.symbolId()).stream();
+    }
+
+    /**
+     * Groups requests by the connection that owns each symbol. Subscriptions are assigned a connection here;
+     * unsubscriptions for symbols that no connection holds only need filtering out and complete straight away.
+     */
+    private Map<Integer, List<BinancePendingSubscription>> routeToConnections(List<BinancePendingSubscription> pendingRequests, SubscriptionType subscribe) {
+        ShardRouter router = binanceWebSocketManager.getShardRouter();
+        Map<Integer, List<BinancePendingSubscription>> byConnection = new LinkedHashMap<>();
+        for (BinancePendingSubscription pendingRequest : pendingRequests) {
+            int connection = subscribe == SubscriptionType.SUBSCRIBE ? router.assign(pendingRequest.symbol()) : router.shardOf(pendingRequest.symbol());
+            if (connection == ShardRouter.UNASSIGNED) {
+                if (subscribe == SubscriptionType.SUBSCRIBE) {
+                    logger.error("No Binance connection has room for {}", pendingRequest.symbol());
+                } else {
+                    // may have been moved to the all-market stream while queued
+                    binanceWebSocketManager.getSymbolRegistry().deactivate(pendingRequest.symbol());
+                }
+                pendingRequest.callback().accept(subscribe == SubscriptionType.UNSUBSCRIBE);
+            } else {
+                byConnection.computeIfAbsent(connection, it -> new ArrayList<>()).add(pendingRequest);
+            }
+        }
+        return byConnection;
+    }
+
+    private void handleSubscription(int connection, SubscriptionType type, List<String> streams, List<BinancePendingSubscription> pendingRequests) {
+        ShardRouter router = binanceWebSocketManager.getShardRouter();
+        if (socketIsOpen(connection)) {
             try {
-                binanceWebSocketManager.getSocket().sendMessage(new TextMessage(new ObjectMapper().writeValueAsString(subscription)));
-                pendingRequests.forEach(it -> it.callback().accept(true));
+                binanceWebSocketManager.request(connection, type, streams)
+                        .whenCompleteAsync((accepted, error) -> completeSubscription(router, type, pendingRequests, Boolean.TRUE.equals(accepted)), callbacks);
             } catch (IOException e) {
+                logger.error("Error sending {} for {} symbol(s) on connection {}: {}", type, pendingRequests.size(), connection, e.getMessage());
+                releaseFailedSubscriptions(router, type, pendingRequests);
                 pendingRequests.forEach(it -> it.callback().accept(false));
-                throw new BinanceSubscriptionException("Error handling subscription: " + e.getMessage());
             }
         } else {
+            releaseFailedSubscriptions(router, type, pendingRequests);
             pendingRequests.forEach(it -> it.callback().accept(false));
         }
     }
 
-    private boolean socketIsOpen() {
-        return binanceWebSocketManager.getSocket() != null && binanceWebSocketManager.getSocket().isOpen();
+    private void completeSubscription(ShardRouter router, SubscriptionType type, List<BinancePendingSubscription> pendingRequests, boolean accepted) {
+        if (accepted && type == SubscriptionType.UNSUBSCRIBE) {
+            pendingRequests.forEach(it -> router.release(it.symbol()));
+        } else if (!accepted) {
+            logger.error("Binance did not confirm {} for {} symbol(s)", type, pendingRequests.size());
+            releaseFailedSubscriptions(router, type, pendingRequests);
+        }
+        pendingRequests.forEach(it -> it.callback().accept(accepted));
+    }
+
+    private void releaseFailedSubscriptions(ShardRouter router, SubscriptionType type, List<BinancePendingSubscription> pendingRequests) {
+        if (type == SubscriptionType.SUBSCRIBE) {
+            pendingRequests.forEach(it -> router.release(it.symbol()));
+        }
+    }
+
+    private boolean socketIsOpen(int connection) {
+        return binanceWebSocketManager.getSocket(connection) != null && binanceWebSocketManager.getSocket(connection).isOpen();
     }
 }
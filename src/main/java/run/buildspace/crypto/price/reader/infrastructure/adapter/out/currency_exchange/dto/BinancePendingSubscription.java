@@ -2,5 +2,8 @@ package run.buildspace.crypto.price.reader.infrastructure.adapter.out.currency_e
 
 import java.util.function.Consumer;
 
-public record BinancePendingSubscription(String symbol, Consumer<Boolean> callback) {
+/**
+ * Queued subscription change. {@code symbolId} is the symbol's registry id, or {@code -1} if the registry had no room.
+ */
+public record BinancePendingSubscription(int symbolId, String symbol, Consumer<Boolean> callback) {
 }
@@ -0,0 +1,326 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import run.buildspace.crypto.price.reader.application.port.out.PriceEventPublisher;
+import run.buildspace.crypto.price.reader.domain.exception.MessagePublishException;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes price updates to RabbitMQ off the caller's thread. There are {@code rabbitmq.publisher.channels} sender
+ * threads, each with its own queue, and every symbol always goes to the same one so its prices stay in order.
+ * {@link #publish} only queues the update, blocking while {@code rabbitmq.publisher.queue-capacity} updates already
+ * wait for that sender, so upstream overflow policies decide what is lost. A sender takes a batch of up to
+ * {@code rabbitmq.publisher.batch-size} updates, or whatever arrived within {@code rabbitmq.publisher.linger} ms, and
+ * publishes it on one channel; updates carrying the exchange's original event go out as-is (see {@link RawPrices}).
+ * With publisher confirms enabled every message carries a {@link CorrelationData}: an ack records the confirm latency,
+ * a nack or a failed send queues the update again up to {@code rabbitmq.publisher.max-retries} times. A retry is only
+ * sent while it is still the newest price of its symbol: once a newer one has been published it is superseded and
+ * dropped, so a stale price never reaches consumers after a newer one. With {@code rabbitmq.outbox.enabled} an update
+ * that runs out of retries, or finds its sender's queue full, is journaled in a {@link PriceOutbox} for a later replay
+ * instead of being dropped or blocking the caller, and while the outbox holds prices new ones are journaled behind
+ * them so they cannot overtake the backlog. Nor can the backlog overtake a queue: an update still queued when a newer
+ * price of its symbol was journaled is skipped as superseded, as the outbox delivers the newer one.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rabbitmq.publisher", name = "async", havingValue = "true")
+public class AsyncRabbitMQPublisher implements PriceEventPublisher {
+    private final Logger logger = LoggerFactory.getLogger(AsyncRabbitMQPublisher.class);
+
+    static final String OUTSTANDING_GAUGE = "rabbitmq.publisher.outstanding";
+    static final String QUEUE_GAUGE = "rabbitmq.publisher.queue";
+    static final String CONFIRM_TIMER = "rabbitmq.publisher.confirm";
+    static final String RETRIES_COUNTER = "rabbitmq.publisher.retries";
+    static final String DROPS_COUNTER = "rabbitmq.publisher.drops";
+    static final String SUPERSEDED_COUNTER = "rabbitmq.publisher.superseded";
+
+    /**
+     * An update on its way to the broker; {@code sequence} orders it against the other updates of its symbol.
+     */
+    private record Outgoing(PriceUpdate priceUpdate, int attempt, long sequence) {
+    }
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitMQProperties properties;
+    private final RabbitMQProperties.Publisher publisher;
+    private final RoutingKeys routingKeys;
+    private final PriceLatencyMetrics latencyMetrics;
+    private final boolean confirms;
+    private final List<BlockingQueue<Outgoing>> queues = new ArrayList<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    // sequence of the newest update published, and of the newest one journaled, for each symbol
+    private final Map<String, AtomicLong> newest = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> journaled = new ConcurrentHashMap<>();
+    private final Timer confirmTimer;
+    private final Counter retries;
+    private final Counter drops;
+    private final Counter superseded;
+    private final List<Thread> senders = new ArrayList<>();
+    private final PriceOutbox outbox;
+    private final BlockingThreads blockingThreads;
+
+    @Autowired
+    public AsyncRabbitMQPublisher(RabbitTemplate rabbitTemplate, RabbitMQProperties properties, SymbolRegistry symbolRegistry,
+                                  PriceLatencyMetrics latencyMetrics, MeterRegistry meterRegistry,
+                                   BlockingThreads blockingThreads) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.publisher = properties.publisher();
+        this.routingKeys = new RoutingKeys(properties.currencyUpdateRoutingBind(), symbolRegistry);
+        this.latencyMetrics = latencyMetrics;
+        this.blockingThreads = blockingThreads;
+        ConnectionFactory connectionFactory = rabbitTemplate.getConnectionFactory();
+        this.confirms = connectionFactory != null && connectionFactory.isPublisherConfirms();
+        for (int i = 0; i < Math.max(1, publisher.channels()); i++) {
+            queues.add(new ArrayBlockingQueue<>(publisher.queueCapacity()));
+        }
+        this.confirmTimer = Timer.builder(CONFIRM_TIMER)
+                .description("Time from publishing a price to its broker confirm")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.retries = meterRegistry.counter(RETRIES_COUNTER);
+        this.drops = meterRegistry.counter(DROPS_COUNTER);
+        this.superseded = meterRegistry.counter(SUPERSEDED_COUNTER);
+        this.outbox = properties.outbox() != null && properties.outbox().enabled()
+                ? new PriceOutbox(rabbitTemplate, properties, confirms, meterRegistry, blockingThreads)
+                : null;
+        Gauge.builder(OUTSTANDING_GAUGE, outstanding, AtomicInteger::get)
+                .description("Published prices awaiting their broker confirm")
+                .register(meterRegistry);
+        Gauge.builder(QUEUE_GAUGE, queues, it -> it.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Prices waiting for a sender")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    synchronized void start() {
+        if (!confirms) {
+            logger.warn("Publisher confirms are disabled, published prices will not be confirmed");
+        }
+        for (int i = 0; i < queues.size(); i++) {
+            BlockingQueue<Outgoing> queue = queues.get(i);
+            senders.add(blockingThreads.start("rabbitmq-publisher-" + i, () -> sendBatches(queue)));
+        }
+        if (outbox != null) {
+            outbox.start();
+        }
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        senders.forEach(Thread::interrupt);
+        senders.clear();
+        if (outbox != null) {
+            outbox.shutdown();
+        }
+        int unpublished = queues.stream().mapToInt(BlockingQueue::size).sum();
+        if (unpublished > 0) {
+            logger.warn("Discarding {} unpublished price(s)", unpublished);
+        }
+    }
+
+    @Override
+    public void publish(PriceUpdate priceUpdate) {
+        Outgoing outgoing = new Outgoing(priceUpdate, 0, stamp(priceUpdate));
+        if (outbox != null) {
+            if (outbox.pending() || !queueOf(priceUpdate).offer(outgoing)) {
+                journal(outgoing);
+            }
+            return;
+        }
+        try {
+            queueOf(priceUpdate).put(outgoing);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagePublishException("Interrupted queueing price: " + priceUpdate.symbol(), e);
+        }
+    }
+
+    @Override
+    public void publishError(String message) {
+        try {
+            rabbitTemplate.convertAndSend(properties.exchange(), properties.currencyErrorUpdateRoutingBind().replace("#", "price"), message);
+        } catch (AmqpException e) {
+            throw new MessagePublishException("Failed to publish error message: " + message, e);
+        }
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Records {@code priceUpdate} as the newest price of its symbol, returning its sequence.
+     */
+    private long stamp(PriceUpdate priceUpdate) {
+        long stamped = sequence.incrementAndGet();
+        newest.computeIfAbsent(priceUpdate.symbol(), it -> new AtomicLong()).set(stamped);
+        return stamped;
+    }
+
+    /**
+     * Whether a newer price of the same symbol has been published since {@code outgoing}.
+     */
+    private boolean superseded(Outgoing outgoing) {
+        return newest.get(outgoing.priceUpdate().symbol()).get() != outgoing.sequence();
+    }
+
+    /**
+     * Whether a price of the same symbol newer than {@code outgoing} has been journaled, so sending it now would
+     * deliver it after the outbox replays the newer one.
+     */
+    private boolean overtaken(Outgoing outgoing) {
+        AtomicLong newestJournaled = journaled.get(outgoing.priceUpdate().symbol());
+        return newestJournaled != null && newestJournaled.get() > outgoing.sequence();
+    }
+
+    /**
+     * Hands {@code outgoing} to the outbox, noting it first so queued updates of its symbol older than it are skipped
+     * from now on.
+     */
+    private void journal(Outgoing outgoing) {
+        journaled.computeIfAbsent(outgoing.priceUpdate().symbol(), it -> new AtomicLong())
+                .accumulateAndGet(outgoing.sequence(), Math::max);
+        outbox.append(outgoing.priceUpdate());
+    }
+
+    private BlockingQueue<Outgoing> queueOf(PriceUpdate priceUpdate) {
+        int key = priceUpdate.symbolId() >= 0 ? priceUpdate.symbolId() : priceUpdate.symbol().hashCode();
+        return queues.get(Math.floorMod(key, queues.size()));
+    }
+
+    private void sendBatches(BlockingQueue<Outgoing> queue) {
+        List<Outgoing> batch = new ArrayList<>(publisher.batchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                fill(queue, batch);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Error publishing {} price(s): {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first update, then gives the batch up to {@code linger} ms to fill.
+     */
+    private void fill(BlockingQueue<Outgoing> queue, List<Outgoing> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(publisher.linger());
+        queue.drainTo(batch, publisher.batchSize() - batch.size());
+        while (batch.size() < publisher.batchSize()) {
+            Outgoing next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, publisher.batchSize() - batch.size());
+        }
+    }
+
+    /**
+     * Publishes the batch on a single channel. Updates not handed to the broker because the channel failed are
+     * retried. A retry superseded while it waited in the queue is skipped; checking here, rather than only when it is
+     * queued again, also covers a newer price queued in between. Any update overtaken by a newer journaled one is
+     * skipped too.
+     */
+    private void send(List<Outgoing> batch) {
+        AtomicInteger sent = new AtomicInteger();
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (Outgoing outgoing : batch) {
+                    PriceUpdate priceUpdate = outgoing.priceUpdate();
+                    if ((outgoing.attempt() > 0 && superseded(outgoing)) || overtaken(outgoing)) {
+                        superseded.increment();
+                        sent.incrementAndGet();
+                        continue;
+                    }
+                    CorrelationData correlationData = confirms ? new CorrelationData() : null;
+                    if (RawPrices.isRaw(priceUpdate)) {
+                        operations.send(properties.exchange(), routingKeys.of(priceUpdate), RawPrices.message(priceUpdate), correlationData);
+                    } else if (confirms) {
+                        operations.convertAndSend(properties.exchange(), routingKeys.of(priceUpdate), priceUpdate, correlationData);
+                    } else {
+                        operations.convertAndSend(properties.exchange(), routingKeys.of(priceUpdate), priceUpdate);
+                    }
+                    if (confirms) {
+                        track(outgoing, correlationData, System.nanoTime());
+                    }
+                    latencyMetrics.record(PriceLatencyMetrics.Stage.SEND, priceUpdate);
+                    sent.incrementAndGet();
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            logger.error("Error publishing {} price(s): {}", batch.size() - sent.get(), e.getMessage());
+            batch.subList(sent.get(), batch.size()).forEach(it -> retry(it, e.getMessage()));
+        }
+    }
+
+    private void track(Outgoing outgoing, CorrelationData correlationData, long sentNanos) {
+        outstanding.incrementAndGet();
+        correlationData.getFuture().whenComplete((confirm, error) -> {
+            outstanding.decrementAndGet();
+            if (error == null && confirm.isAck()) {
+                confirmTimer.record(System.nanoTime() - sentNanos, TimeUnit.NANOSECONDS);
+                latencyMetrics.record(PriceLatencyMetrics.Stage.CONFIRM, outgoing.priceUpdate());
+            } else {
+                retry(outgoing, error != null ? error.getMessage() : confirm.getReason());
+            }
+        });
+    }
+
+    private void retry(Outgoing outgoing, String reason) {
+        PriceUpdate priceUpdate = outgoing.priceUpdate();
+        if (superseded(outgoing)) {
+            logger.debug("Not retrying price of {}, a newer one was published: {}", priceUpdate.symbol(), reason);
+            superseded.increment();
+            return;
+        }
+        if (outgoing.attempt() < publisher.maxRetries()
+                && queueOf(priceUpdate).offer(new Outgoing(priceUpdate, outgoing.attempt() + 1, outgoing.sequence()))) {
+            logger.debug("Retrying price of {} ({}): {}", priceUpdate.symbol(), outgoing.attempt() + 1, reason);
+            retries.increment();
+            return;
+        }
+        if (outbox != null) {
+            logger.warn("Journaling price of {} after {} attempt(s): {}", priceUpdate.symbol(), outgoing.attempt() + 1, reason);
+            journal(outgoing);
+            return;
+        }
+        logger.error("Dropping price of {} after {} attempt(s): {}", priceUpdate.symbol(), outgoing.attempt() + 1, reason);
+        drops.increment();
+    }
+}
@@ -0,0 +1,249 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of opaque records kept in memory-mapped segment files of {@code segmentSize} bytes. A segment
+ * starts with the position of its next unread record, followed by {@code [int length][bytes]} records; a zero length
+ * marks the end of what was written. The length is written after the bytes, so a record torn by a crash is never
+ * read. Records are read back in append order with {@link #read}, several at a time, and marked read in that order with
+ * {@link #commit}; a segment is deleted once fully read. At most {@code maxSegments} segments are retained: rolling
+ * past that discards the oldest one, unread records included, and a later commit of one of its records is ignored.
+ * Reopening the directory resumes where the previous process stopped.
+ */
+class OutboxJournal {
+    private final Logger logger = LoggerFactory.getLogger(OutboxJournal.class);
+
+    static final int HEADER = Long.BYTES;
+    private static final String SUFFIX = ".seg";
+
+    private record Segment(long sequence, Path path, MappedByteBuffer buffer) {
+
+        int readPosition() {
+            return (int) buffer.getLong(0);
+        }
+
+        void readPosition(int position) {
+            buffer.putLong(0, position);
+        }
+
+        /**
+         * Length of the record at {@code position}, 0 when nothing was written there.
+         */
+        int length(int position) {
+            return position + Integer.BYTES > buffer.capacity() ? 0 : buffer.getInt(position);
+        }
+    }
+
+    /**
+     * A record returned by {@link #read}, with where it sits in the journal so {@link #commit} marks exactly that one.
+     */
+    record Entry(Segment segment, int position, byte[] record) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private int writePosition;
+    private long pending;
+    private long discarded;
+
+    OutboxJournal(Path directory, int segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error opening outbox " + directory, e);
+        }
+    }
+
+    /**
+     * Appends {@code record}, rolling to a new segment when the current one is full.
+     *
+     * @throws IllegalArgumentException when the record can never fit in a segment
+     */
+    synchronized void append(byte[] record) {
+        int size = Integer.BYTES + record.length;
+        if (size > segmentSize - HEADER) {
+            throw new IllegalArgumentException("Record of " + record.length + " bytes does not fit in a segment of " + segmentSize);
+        }
+        if (writePosition + size > segmentSize) {
+            roll();
+        }
+        MappedByteBuffer buffer = segments.getLast().buffer();
+        buffer.put(writePosition + Integer.BYTES, record);
+        buffer.putInt(writePosition, record.length);
+        writePosition += size;
+        pending++;
+    }
+
+    /**
+     * Oldest unread record, or {@code null} when everything has been read. Repeated calls return the same record until
+     * it is committed.
+     */
+    synchronized Entry peek() {
+        List<Entry> entries = read(1);
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    /**
+     * Up to {@code max} of the oldest unread records, in append order. Repeated calls return the same records until
+     * they are committed.
+     */
+    synchronized List<Entry> read(int max) {
+        trim();
+        List<Entry> entries = new ArrayList<>(Math.min(max, 64));
+        for (Segment segment : segments) {
+            int position = segment.readPosition();
+            int length;
+            while (entries.size() < max && (length = segment.length(position)) > 0) {
+                byte[] record = new byte[length];
+                segment.buffer().get(position + Integer.BYTES, record);
+                entries.add(new Entry(segment, position, record));
+                position += Integer.BYTES + length;
+            }
+            if (entries.size() == max) {
+                break;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Marks {@code entry} as read. Entries must be committed in the order {@link #read} returned them; one whose
+     * segment has been discarded since, or that was already committed, is ignored.
+     */
+    synchronized void commit(Entry entry) {
+        Segment segment = entry.segment();
+        if (!retained(segment) || segment.readPosition() != entry.position()) {
+            return;
+        }
+        segment.readPosition(entry.position() + Integer.BYTES + entry.record().length);
+        pending--;
+        trim();
+    }
+
+    /**
+     * Records appended but not yet committed.
+     */
+    synchronized long lag() {
+        return pending;
+    }
+
+    /**
+     * Bytes the segments take on disk.
+     */
+    synchronized long size() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    /**
+     * Unread records thrown away to stay within {@code maxSegments}.
+     */
+    synchronized long discarded() {
+        return discarded;
+    }
+
+    synchronized void flush() {
+        segments.forEach(it -> it.buffer().force());
+    }
+
+    private boolean retained(Segment segment) {
+        for (Segment each : segments) {
+            if (each == segment) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deletes the fully read segments at the head, always keeping the one being written.
+     */
+    private void trim() {
+        while (segments.size() > 1 && segments.getFirst().length(segments.getFirst().readPosition()) == 0) {
+            delete(segments.removeFirst());
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(it -> it.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            Segment segment = new Segment(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file, map(file, Files.size(file)));
+            int position = Math.max(HEADER, segment.readPosition());
+            segment.readPosition(position);
+            int length;
+            while ((length = segment.length(position)) > 0) {
+                position += Integer.BYTES + length;
+                pending++;
+            }
+            segments.addLast(segment);
+            writePosition = position;
+        }
+        if (segments.isEmpty()) {
+            roll();
+        } else if (pending > 0) {
+            logger.info("Recovered {} unpublished price(s) from the outbox", pending);
+        }
+    }
+
+    private void roll() {
+        long sequence = segments.isEmpty() ? 0 : segments.getLast().sequence() + 1;
+        Path path = directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+        try {
+            Segment segment = new Segment(sequence, path, map(path, segmentSize));
+            segment.readPosition(HEADER);
+            segments.addLast(segment);
+            writePosition = HEADER;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error creating outbox segment " + path, e);
+        }
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.removeFirst();
+            long unread = 0;
+            for (int position = oldest.readPosition(), length; (length = oldest.length(position)) > 0; position += Integer.BYTES + length) {
+                unread++;
+            }
+            pending -= unread;
+            discarded += unread;
+            logger.warn("Outbox exceeded {} segment(s), discarding {} unpublished price(s)", maxSegments, unread);
+            delete(oldest);
+        }
+    }
+
+    private MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path());
+        } catch (IOException e) {
+            logger.warn("Error deleting outbox segment {}: {}", segment.path(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import run.buildspace.crypto.price.reader.domain.exception.MessagePublishException;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Disk-backed outbox for prices the broker could not take. Prices are journaled in the binary price format, with the
+ * original exchange event when there is one, into an {@link OutboxJournal} under {@code rabbitmq.outbox.directory}.
+ * A single drainer thread replays them in order, in batches of up to {@code rabbitmq.outbox.replay-batch-size}: the
+ * whole batch is published before any confirm is awaited, then, with publisher confirms, prices leave the journal up
+ * to the first one the broker did not ack within {@code rabbitmq.outbox.confirm-timeout} ms. The rest of the batch is
+ * replayed again after {@code rabbitmq.outbox.drain-interval} ms, so nothing overtakes it.
+ */
+class PriceOutbox {
+    private final Logger logger = LoggerFactory.getLogger(PriceOutbox.class);
+
+    static final String LAG_GAUGE = "rabbitmq.outbox.lag";
+    static final String SIZE_GAUGE = "rabbitmq.outbox.size";
+    static final String APPENDED_COUNTER = "rabbitmq.outbox.appended";
+    static final String REPLAYED_COUNTER = "rabbitmq.outbox.replayed";
+    static final String DISCARDED_COUNTER = "rabbitmq.outbox.discarded";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitMQProperties properties;
+    private final RabbitMQProperties.Outbox outbox;
+    private final boolean confirms;
+    private final OutboxJournal journal;
+    private final Counter appended;
+    private final Counter replayed;
+    private final BlockingThreads blockingThreads;
+    private Thread drainer;
+
+    PriceOutbox(RabbitTemplate rabbitTemplate, RabbitMQProperties properties, boolean confirms, MeterRegistry meterRegistry,
+                BlockingThreads blockingThreads) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.outbox = properties.outbox();
+        this.confirms = confirms;
+        this.blockingThreads = blockingThreads;
+        this.journal = new OutboxJournal(Path.of(outbox.directory()), outbox.segmentSize(), outbox.maxSegments());
+        this.appended = meterRegistry.counter(APPENDED_COUNTER);
+        this.replayed = meterRegistry.counter(REPLAYED_COUNTER);
+        FunctionCounter.builder(DISCARDED_COUNTER, journal, OutboxJournal::discarded)
+                .description("Journaled prices discarded to stay within rabbitmq.outbox.max-segments")
+                .register(meterRegistry);
+        Gauge.builder(LAG_GAUGE, journal, OutboxJournal::lag)
+                .description("Journaled prices not yet replayed to the broker")
+                .register(meterRegistry);
+        Gauge.builder(SIZE_GAUGE, journal, OutboxJournal::size)
+                .description("Disk space taken by the outbox journal")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Journals {@code priceUpdate} for a later replay.
+     */
+    void append(PriceUpdate priceUpdate) {
+        try {
+            journal.append(encode(priceUpdate));
+            appended.increment();
+        } catch (RuntimeException e) {
+            throw new MessagePublishException("Failed to journal price: " + priceUpdate.symbol(), e);
+        }
+    }
+
+    /**
+     * Whether prices still wait for their replay; new prices must then be journaled too so they do not overtake them.
+     */
+    boolean pending() {
+        return journal.lag() > 0;
+    }
+
+    synchronized void start() {
+        if (drainer != null) {
+            return;
+        }
+        drainer = blockingThreads.start("rabbitmq-outbox", this::drain);
+    }
+
+    synchronized void shutdown() {
+        if (drainer != null) {
+            drainer.interrupt();
+            drainer = null;
+        }
+        journal.flush();
+    }
+
+    /**
+     * Replays a batch of the oldest journaled prices, returning how many the broker took.
+     */
+    int replay() {
+        List<OutboxJournal.Entry> entries = journal.read(Math.max(1, outbox.replayBatchSize()));
+        List<CorrelationData> confirmations = new ArrayList<>(entries.size());
+        for (OutboxJournal.Entry entry : entries) {
+            CorrelationData correlationData = confirms ? new CorrelationData() : null;
+            if (!publish(decode(entry.record()), correlationData)) {
+                break;
+            }
+            confirmations.add(correlationData);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(outbox.confirmTimeout());
+        int replayedCount = 0;
+        while (replayedCount < confirmations.size() && acked(confirmations.get(replayedCount), deadline)) {
+            journal.commit(entries.get(replayedCount));
+            replayedCount++;
+        }
+        replayed.increment(replayedCount);
+        return replayedCount;
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (replay() == 0) {
+                    TimeUnit.MILLISECONDS.sleep(outbox.drainInterval());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Error replaying the outbox: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private boolean publish(PriceUpdate priceUpdate, CorrelationData correlationData) {
+        String routingKey = properties.currencyUpdateRoutingBind().replace("#", priceUpdate.symbol());
+        try {
+            if (RawPrices.isRaw(priceUpdate)) {
+                rabbitTemplate.send(properties.exchange(), routingKey, RawPrices.message(priceUpdate), correlationData);
+            } else {
+                rabbitTemplate.convertAndSend(properties.exchange(), routingKey, priceUpdate, correlationData);
+            }
+            return true;
+        } catch (AmqpException e) {
+            logger.debug("Replay of {} failed: {}", priceUpdate.symbol(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Whether the broker acked the price, waiting until {@code deadline} for its confirm. Without publisher confirms
+     * every price handed to the broker counts as acked.
+     */
+    private boolean acked(CorrelationData correlationData, long deadline) {
+        if (correlationData == null) {
+            return true;
+        }
+        try {
+            CorrelationData.Confirm confirm = correlationData.getFuture().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                logger.debug("Replay nacked: {}", confirm.getReason());
+            }
+            return confirm.isAck();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Replay not confirmed: {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * {@code [int length][binary price][raw event]}, the raw event taking whatever follows the price.
+     */
+    private static byte[] encode(PriceUpdate priceUpdate) {
+        byte[] price = PriceUpdateBinaryConverter.encode(priceUpdate);
+        byte[] raw = RawPrices.isRaw(priceUpdate) ? priceUpdate.raw() : new byte[0];
+        return ByteBuffer.allocate(Integer.BYTES + price.length + raw.length).putInt(price.length).put(price).put(raw).array();
+    }
+
+    /**
+     * Symbol ids are not stable across restarts, so replayed prices carry none.
+     */
+    private static PriceUpdate decode(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        byte[] price = new byte[buffer.getInt()];
+        buffer.get(price);
+        byte[] raw = buffer.hasRemaining() ? new byte[buffer.remaining()] : null;
+        if (raw != null) {
+            buffer.get(raw);
+        }
+        PriceUpdate decoded = PriceUpdateBinaryConverter.decode(price);
+        return PriceUpdate.builder()
+                .symbol(decoded.symbol())
+                .priceMantissa(decoded.priceMantissa())
+                .priceScale(decoded.priceScale())
+                .timestamp(decoded.timestamp())
+                .raw(raw)
+                .build();
+    }
+}
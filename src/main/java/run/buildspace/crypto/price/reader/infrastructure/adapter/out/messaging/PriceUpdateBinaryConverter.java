@@ -0,0 +1,93 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts {@link PriceUpdate} to and from a fixed-layout, big-endian binary body of content type
+ * {@value #CONTENT_TYPE}:
+ * <pre>
+ * offset  size  field
+ *      0     1  format version ({@value #VERSION})
+ *      1     1  price scale
+ *      2     4  symbol id ({@code -1} when unknown; only meaningful to this process)
+ *      6     8  price mantissa, the price being {@code mantissa * 10^-scale}
+ *     14     8  exchange event timestamp, epoch milliseconds
+ *     22     1  symbol length n
+ *     23     n  symbol, US-ASCII
+ * </pre>
+ * The body is written straight from the fixed-point fields into one array of the exact size, and the properties carry
+ * only the content type, so there is no reflection and no {@code __TypeId__} header.
+ */
+public class PriceUpdateBinaryConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-price-update";
+    static final byte VERSION = 1;
+
+    private static final int SCALE_OFFSET = 1;
+    private static final int SYMBOL_ID_OFFSET = 2;
+    private static final int MANTISSA_OFFSET = 6;
+    private static final int TIMESTAMP_OFFSET = 14;
+    private static final int SYMBOL_LENGTH_OFFSET = 22;
+    static final int HEADER_LENGTH = 23;
+
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (!(object instanceof PriceUpdate priceUpdate)) {
+            throw new MessageConversionException("Cannot convert " + object.getClass().getName() + " to " + CONTENT_TYPE);
+        }
+        messageProperties.setContentType(CONTENT_TYPE);
+        return new Message(encode(priceUpdate), messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        return decode(message.getBody());
+    }
+
+    static byte[] encode(PriceUpdate priceUpdate) {
+        String symbol = priceUpdate.symbol();
+        if (symbol.length() > 0xFF) {
+            throw new MessageConversionException("Symbol too long: " + symbol);
+        }
+        byte[] body = new byte[HEADER_LENGTH + symbol.length()];
+        body[0] = VERSION;
+        body[SCALE_OFFSET] = priceUpdate.priceScale();
+        INT.set(body, SYMBOL_ID_OFFSET, priceUpdate.symbolId());
+        LONG.set(body, MANTISSA_OFFSET, priceUpdate.priceMantissa());
+        LONG.set(body, TIMESTAMP_OFFSET, priceUpdate.timestamp());
+        body[SYMBOL_LENGTH_OFFSET] = (byte) symbol.length();
+        for (int i = 0; i < symbol.length(); i++) {
+            body[HEADER_LENGTH + i] = (byte) symbol.charAt(i);
+        }
+        return body;
+    }
+
+    static PriceUpdate decode(byte[] body) {
+        if (body.length < HEADER_LENGTH || body[0] != VERSION) {
+            throw new MessageConversionException("Not a version " + VERSION + " " + CONTENT_TYPE + " body");
+        }
+        int symbolLength = Byte.toUnsignedInt(body[SYMBOL_LENGTH_OFFSET]);
+        if (body.length != HEADER_LENGTH + symbolLength) {
+            throw new MessageConversionException("Truncated " + CONTENT_TYPE + " body");
+        }
+        return PriceUpdate.builder()
+                .priceScale(body[SCALE_OFFSET])
+                .symbolId((int) INT.get(body, SYMBOL_ID_OFFSET))
+                .priceMantissa((long) LONG.get(body, MANTISSA_OFFSET))
+                .timestamp((long) LONG.get(body, TIMESTAMP_OFFSET))
+                .symbol(new String(body, HEADER_LENGTH, symbolLength, StandardCharsets.US_ASCII))
+                .build();
+    }
+}
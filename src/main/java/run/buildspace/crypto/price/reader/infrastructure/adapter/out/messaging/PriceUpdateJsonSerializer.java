@@ -0,0 +1,63 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link PriceUpdate} with its historical JSON shape ({@code symbol}, {@code price}, {@code timestamp}) straight
+ * from the fixed-point fields, so publishing never has to build a {@link java.math.BigDecimal}.
+ */
+public class PriceUpdateJsonSerializer extends StdSerializer<PriceUpdate> {
+
+    // sign + 19 digits + '.' + up to 127 leading fractional zeros
+    private static final int MAX_PRICE_LENGTH = 148;
+    private static final ThreadLocal<char[]> PRICE_BUFFER = ThreadLocal.withInitial(() -> new char[MAX_PRICE_LENGTH]);
+
+    public PriceUpdateJsonSerializer() {
+        super(PriceUpdate.class);
+    }
+
+    public static Module module() {
+        return new SimpleModule(PriceUpdateJsonSerializer.class.getSimpleName()).addSerializer(PriceUpdate.class, new PriceUpdateJsonSerializer());
+    }
+
+    @Override
+    public void serialize(PriceUpdate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeStringField("symbol", value.symbol());
+        gen.writeFieldName("price");
+        char[] buffer = PRICE_BUFFER.get();
+        int start = format(value.priceMantissa(), value.priceScale(), buffer);
+        gen.writeNumber(buffer, start, buffer.length - start);
+        gen.writeNumberField("timestamp", value.timestamp());
+        gen.writeEndObject();
+    }
+
+    /**
+     * Formats {@code mantissa * 10^-scale} as a plain decimal right-aligned in {@code buffer} and returns its start.
+     */
+    static int format(long mantissa, int scale, char[] buffer) {
+        boolean negative = mantissa < 0;
+        // accumulate on the negative side so Long.MIN_VALUE does not overflow
+        long remaining = negative ? mantissa : -mantissa;
+        int pos = buffer.length;
+        int written = 0;
+        do {
+            buffer[--pos] = (char) ('0' - (remaining % 10));
+            remaining /= 10;
+            if (++written == scale) {
+                buffer[--pos] = '.';
+            }
+        } while (remaining != 0 || written <= scale);
+        if (negative) {
+            buffer[--pos] = '-';
+        }
+        return pos;
+    }
+}
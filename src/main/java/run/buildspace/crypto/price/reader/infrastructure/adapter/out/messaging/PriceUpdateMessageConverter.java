@@ -0,0 +1,39 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+/**
+ * Picks the wire format by content type. Incoming {@value PriceUpdateBinaryConverter#CONTENT_TYPE} messages are read
+ * by {@link PriceUpdateBinaryConverter} and everything else by the JSON converter. Outgoing {@link PriceUpdate}s use
+ * the binary format only when {@code binaryPrices} is set, so JSON consumers keep working until they opt in.
+ */
+public class PriceUpdateMessageConverter implements MessageConverter {
+
+    private final MessageConverter json;
+    private final PriceUpdateBinaryConverter binary = new PriceUpdateBinaryConverter();
+    private final boolean binaryPrices;
+
+    public PriceUpdateMessageConverter(MessageConverter json, boolean binaryPrices) {
+        this.json = json;
+        this.binaryPrices = binaryPrices;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (binaryPrices && object instanceof PriceUpdate) {
+            return binary.toMessage(object, messageProperties);
+        }
+        return json.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (PriceUpdateBinaryConverter.CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return binary.fromMessage(message);
+        }
+        return json.fromMessage(message);
+    }
+}
@@ -1,35 +1,135 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import run.buildspace.crypto.price.reader.application.port.out.PriceEventPublisher;
 import run.buildspace.crypto.price.reader.domain.exception.MessagePublishException;
 import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
 import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes price updates to RabbitMQ synchronously, on the caller's thread. Routing keys are cached per
+ * {@link PriceUpdate#symbolId()}, so symbols known to the {@link SymbolRegistry} build theirs only once. When the
+ * connection factory has publisher confirms enabled, each send carries a {@link CorrelationData} whose acknowledgement
+ * records the confirm latency. Updates carrying the exchange's original event are published as-is (see
+ * {@link RawPrices}). With {@code rabbitmq.outbox.enabled} a price the broker refuses or nacks is journaled in a
+ * {@link PriceOutbox} instead of being lost, and while the outbox holds prices new ones join them, so the replay keeps
+ * their order. A nack can arrive after newer prices of the symbol went out, so a nacked price is only journaled while
+ * it is still the newest of its symbol, and counted as superseded otherwise. Replaced by {@link AsyncRabbitMQPublisher} when {@code rabbitmq.publisher.async} is set.
+ */
 @Component
+@ConditionalOnProperty(prefix = "rabbitmq.publisher", name = "async", havingValue = "false", matchIfMissing = true)
 public class RabbitMQPublisher implements PriceEventPublisher {
 
+    static final String SUPERSEDED_COUNTER = "rabbitmq.publisher.superseded";
+
     private final RabbitTemplate rabbitTemplate;
     private final RabbitMQProperties properties;
+    private final RoutingKeys routingKeys;
+    private final PriceLatencyMetrics latencyMetrics;
+    private final boolean confirms;
+    private final PriceOutbox outbox;
+    private final AtomicLong sequence = new AtomicLong();
+    // sequence of the newest price published for each symbol
+    private final Map<String, AtomicLong> newest = new ConcurrentHashMap<>();
+    private final Counter superseded;
 
     @Autowired
-    public RabbitMQPublisher(RabbitTemplate rabbitTemplate, RabbitMQProperties properties) {
+    public RabbitMQPublisher(RabbitTemplate rabbitTemplate, RabbitMQProperties properties, SymbolRegistry symbolRegistry,
+                             PriceLatencyMetrics latencyMetrics, MeterRegistry meterRegistry,
+                              BlockingThreads blockingThreads) {
         this.rabbitTemplate = rabbitTemplate;
         this.properties = properties;
+        this.routingKeys = new RoutingKeys(properties.currencyUpdateRoutingBind(), symbolRegistry);
+        this.latencyMetrics = latencyMetrics;
+        ConnectionFactory connectionFactory = rabbitTemplate.getConnectionFactory();
+        this.confirms = connectionFactory != null && connectionFactory.isPublisherConfirms();
+        this.outbox = properties.outbox() != null && properties.outbox().enabled()
+                ? new PriceOutbox(rabbitTemplate, properties, confirms, meterRegistry, blockingThreads)
+                : null;
+        this.superseded = meterRegistry.counter(SUPERSEDED_COUNTER);
+    }
+
+    @PostConstruct
+    void start() {
+        if (outbox != null) {
+            outbox.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (outbox != null) {
+            outbox.shutdown();
+        }
     }
 
     @Override
     public void publish(PriceUpdate priceUpdate) {
+        long stamped = stamp(priceUpdate);
+        if (outbox != null && outbox.pending()) {
+            outbox.append(priceUpdate);
+            return;
+        }
         try {
-            rabbitTemplate.convertAndSend(properties.exchange(), properties.currencyUpdateRoutingBind().replace("#", priceUpdate.symbol()), priceUpdate);
+            if (RawPrices.isRaw(priceUpdate)) {
+                rabbitTemplate.send(properties.exchange(), routingKeys.of(priceUpdate), RawPrices.message(priceUpdate),
+                        confirms ? confirmation(priceUpdate, stamped) : null);
+            } else if (confirms) {
+                rabbitTemplate.convertAndSend(properties.exchange(), routingKeys.of(priceUpdate), priceUpdate, confirmation(priceUpdate, stamped));
+            } else {
+                rabbitTemplate.convertAndSend(properties.exchange(), routingKeys.of(priceUpdate), priceUpdate);
+            }
+            latencyMetrics.record(PriceLatencyMetrics.Stage.SEND, priceUpdate);
         } catch (AmqpException e) {
-            throw new MessagePublishException("Failed to publish price: " + priceUpdate.symbol(), e);
+            if (outbox == null) {
+                throw new MessagePublishException("Failed to publish price: " + priceUpdate.symbol(), e);
+            }
+            outbox.append(priceUpdate);
         }
     }
 
+    /**
+     * Records {@code priceUpdate} as the newest price of its symbol, returning its sequence.
+     */
+    private long stamp(PriceUpdate priceUpdate) {
+        long stamped = sequence.incrementAndGet();
+        newest.computeIfAbsent(priceUpdate.symbol(), it -> new AtomicLong()).set(stamped);
+        return stamped;
+    }
+
+    private CorrelationData confirmation(PriceUpdate priceUpdate, long stamped) {
+        CorrelationData correlationData = new CorrelationData();
+        correlationData.getFuture().thenAccept(confirm -> {
+            if (confirm.isAck()) {
+                latencyMetrics.record(PriceLatencyMetrics.Stage.CONFIRM, priceUpdate);
+            } else if (outbox != null) {
+                if (newest.get(priceUpdate.symbol()).get() != stamped) {
+                    superseded.increment();
+                    return;
+                }
+                outbox.append(priceUpdate);
+            }
+        });
+        return correlationData;
+    }
+
     @Override
     public void publishError(String message) {
         try {
@@ -0,0 +1,28 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+/**
+ * Messages whose body is the exchange's original event ({@link PriceUpdate#raw()}), published without any conversion.
+ * They are JSON, and their AMQP {@code type} is {@value #TYPE} so consumers can tell them from converted prices.
+ */
+final class RawPrices {
+
+    static final String TYPE = "binance-event";
+
+    private RawPrices() {
+    }
+
+    static boolean isRaw(PriceUpdate priceUpdate) {
+        return priceUpdate.raw() != null;
+    }
+
+    static Message message(PriceUpdate priceUpdate) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setType(TYPE);
+        return new Message(priceUpdate.raw(), properties);
+    }
+}
@@ -0,0 +1,34 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Price routing keys cached per {@link PriceUpdate#symbolId()}, so symbols known to the {@link SymbolRegistry} build
+ * theirs only once.
+ */
+class RoutingKeys {
+
+    private final String pattern;
+    private final AtomicReferenceArray<String> routingKeys;
+
+    RoutingKeys(String pattern, SymbolRegistry symbolRegistry) {
+        this.pattern = pattern;
+        this.routingKeys = new AtomicReferenceArray<>(symbolRegistry.capacity());
+    }
+
+    String of(PriceUpdate priceUpdate) {
+        int symbolId = priceUpdate.symbolId();
+        if (symbolId < 0 || symbolId >= routingKeys.length()) {
+            return pattern.replace("#", priceUpdate.symbol());
+        }
+        String routingKey = routingKeys.get(symbolId);
+        if (routingKey == null) {
+            routingKey = pattern.replace("#", priceUpdate.symbol());
+            routingKeys.set(symbolId, routingKey);
+        }
+        return routingKey;
+    }
+}
@@ -0,0 +1,164 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.persistance;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import run.buildspace.crypto.price.reader.application.port.out.PriceSubscriptionRepository;
+import run.buildspace.crypto.price.reader.domain.model.Subscription;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-through, in-memory view of the subscriptions stored by {@link SubscriptionRepositoryAdapter}. The stored
+ * symbols are loaded once at startup; {@link #exists}, {@link #findAll} and {@link #count} are answered from memory and
+ * writes go to Postgres first. Inside a transaction the in-memory set only changes once it commits, so a rollback
+ * never leaves it ahead of the database. Every {@code subscriptions.reconcile-interval} ms the set is reconciled with
+ * the database in the background, which repairs drift from writes made outside this service.
+ */
+@Primary
+@Component
+public class InMemorySubscriptionRepository implements PriceSubscriptionRepository {
+    private final Logger logger = LoggerFactory.getLogger(InMemorySubscriptionRepository.class);
+
+    private final SubscriptionRepositoryAdapter delegate;
+    private final Set<String> symbols = ConcurrentHashMap.newKeySet();
+    // writes from before they reach the database until their transaction completes
+    private final AtomicInteger pending = new AtomicInteger();
+    // guards applied, and keeps a change from landing between the checks and the repair of a reconcile round
+    private final Object lock = new Object();
+    private long applied;
+
+    @Autowired
+    public InMemorySubscriptionRepository(SubscriptionRepositoryAdapter delegate) {
+        this.delegate = delegate;
+    }
+
+    @PostConstruct
+    void load() {
+        symbols.addAll(delegate.findAll());
+        logger.info("Loaded {} subscription(s)", symbols.size());
+    }
+
+    /**
+     * Makes the in-memory set match the database. A round that overlaps a write of this service is skipped, as the
+     * snapshot may hold a change that memory does not show yet, or miss one it already shows; the next round catches
+     * up. A write counts from before it reaches the database until its transaction completes, so one that is committed
+     * but not yet applied in memory skips the round too.
+     */
+    @Scheduled(initialDelayString = "${subscriptions.reconcile-interval}", fixedDelayString = "${subscriptions.reconcile-interval}")
+    void reconcile() {
+        long before = applied();
+        if (pending.get() > 0) {
+            logger.debug("Subscriptions are being written, skipping this round");
+            return;
+        }
+        Set<String> stored = new HashSet<>(delegate.findAll());
+        long added = 0;
+        long removed = 0;
+        synchronized (lock) {
+            if (pending.get() > 0 || applied != before) {
+                logger.debug("Subscriptions changed while reconciling, skipping this round");
+                return;
+            }
+            added = stored.stream().filter(symbols::add).count();
+            for (String symbol : symbols) {
+                if (!stored.contains(symbol) && symbols.remove(symbol)) {
+                    removed++;
+                }
+            }
+        }
+        if (added + removed > 0) {
+            logger.warn("Reconciled subscriptions with the database: {} added, {} removed", added, removed);
+        }
+    }
+
+    @Override
+    public boolean exists(String symbol) {
+        return symbols.contains(symbol);
+    }
+
+    @Override
+    public void save(Subscription subscription) {
+        write(() -> delegate.save(subscription), () -> symbols.add(subscription.symbol()));
+    }
+
+    @Override
+    public void saveAll(List<Subscription> subscriptions) {
+        write(() -> delegate.saveAll(subscriptions), () -> subscriptions.forEach(it -> symbols.add(it.symbol())));
+    }
+
+    @Override
+    public void delete(String symbol) {
+        write(() -> delegate.delete(symbol), () -> symbols.remove(symbol));
+    }
+
+    @Override
+    public void deleteAll(List<String> symbols) {
+        write(() -> delegate.deleteAll(symbols), () -> this.symbols.removeAll(symbols));
+    }
+
+    @Override
+    public List<String> findAll() {
+        return List.copyOf(symbols);
+    }
+
+    @Override
+    public long count() {
+        return symbols.size();
+    }
+
+    /**
+     * Runs the database {@code write}, then applies {@code change} in memory once the surrounding transaction commits,
+     * or straight away without one.
+     */
+    private void write(Runnable write, Runnable change) {
+        pending.incrementAndGet();
+        boolean deferred = false;
+        try {
+            write.run();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        apply(change);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        pending.decrementAndGet();
+                    }
+                });
+                deferred = true;
+            } else {
+                apply(change);
+            }
+        } finally {
+            if (!deferred) {
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private void apply(Runnable change) {
+        synchronized (lock) {
+            change.run();
+            applied++;
+        }
+    }
+
+    private long applied() {
+        synchronized (lock) {
+            return applied;
+        }
+    }
+}
@@ -31,11 +31,28 @@ public class SubscriptionRepositoryAdapter implements PriceSubscriptionRepositor
         jpaPriceSubscriptionRepository.save(entity);
     }
 
+    /**
+     * Inserts the symbols in one statement. A symbol stored meanwhile, e.g. by another replica consuming the same
+     * queue or by an earlier batch that committed after it was checked, is skipped rather than failing the batch.
+     */
+    @Override
+    public void saveAll(List<Subscription> subscriptions) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        jpaPriceSubscriptionRepository.insertMissing(subscriptions.stream().map(Subscription::symbol).toArray(String[]::new));
+    }
+
     @Override
     public void delete(String symbol) {
         jpaPriceSubscriptionRepository.deleteById(symbol);
     }
 
+    @Override
+    public void deleteAll(List<String> symbols) {
+        jpaPriceSubscriptionRepository.deleteAllByIdInBatch(symbols);
+    }
+
     @Override
     public List<String> findAll() {
         return StreamSupport.stream(jpaPriceSubscriptionRepository.findAll().spliterator(), true).map(SubscriptionEntity::getSymbol).toList();
@@ -1,7 +1,19 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.out.persistance.repository;
 
 import run.buildspace.crypto.price.reader.infrastructure.adapter.out.persistance.entity.SubscriptionEntity;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface JpaPriceSubscriptionRepository extends CrudRepository<SubscriptionEntity, String> {
+public interface JpaPriceSubscriptionRepository extends JpaRepository<SubscriptionEntity, String> {
+
+    /**
+     * Inserts the symbols in a single statement, skipping those already stored, including by another transaction
+     * that committed meanwhile. Returns how many were inserted.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO subscriptions (symbol) SELECT unnest(CAST(:symbols AS text[])) ON CONFLICT (symbol) DO NOTHING",
+            nativeQuery = true)
+    int insertMissing(@Param("symbols") String[] symbols);
 }
@@ -15,8 +15,129 @@ public class BinanceWebSocketProperties {
     private final int retryMaxAttemps;
     private final int retryInterval;
     private final int retryIntervalMultiplier;
+    private final int maxSymbols;
+    private final Pool pool;
+    private final Reconnect reconnect;
+    private final Requests requests;
+    private final Combined combined;
+    private final AllMarket allMarket;
+    private final Buffer buffer;
+    private final Conflation conflation;
+    private final Passthrough passthrough;
+    private final Deadband deadband;
+    private final Lanes lanes;
+    private final History history;
     private final Observability observability;
 
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Pool {
+        private final int size;
+        private final int maxStreamsPerConnection;
+        private final int virtualNodes;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Reconnect {
+        private final int maxInterval;
+        private final int streamsPerRequest;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Requests {
+        private final int messagesPerSecond;
+        private final int maxInFlight;
+        private final int timeout;
+        private final int maxRetries;
+        private final int drainInterval;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Combined {
+        private final boolean enabled;
+        private final String url;
+        private final int maxUrlLength;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class AllMarket {
+        private final boolean enabled;
+        private final int threshold;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Buffer {
+        private final int capacity;
+        private final OverflowPolicy overflowPolicy;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Conflation {
+        private final boolean enabled;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Passthrough {
+        private final boolean enabled;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Deadband {
+        private final boolean enabled;
+        private final double absolute;
+        private final double basisPoints;
+        private final long maxSilence;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class Lanes {
+        private final boolean enabled;
+        private final int count;
+        private final int queueCapacity;
+    }
+
+    @Builder
+    @Accessors(fluent = true)
+    @Getter
+    public static class History {
+        private final boolean enabled;
+        private final String directory;
+        private final int segmentSize;
+        private final long partition;
+        private final long retention;
+        private final int priceScale;
+        private final int queueCapacity;
+    }
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST,
+        CONFLATE_LATEST;
+
+        public String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
     @Builder
     @Accessors(fluent = true)
     @Getter
@@ -27,5 +148,17 @@ public class BinanceWebSocketProperties {
         private final String webSocketSilenceDescription;
         private final String webSocketMessagesProcessedCounter;
         private final String webSocketMessagesIgnoredCounter;
+        private final String webSocketStreamsGauge;
+        private final String webSocketReconnectsCounter;
+        private final String webSocketRecoveryTimer;
+        private final String webSocketRestoredSymbolsCounter;
+        private final String priceBufferDepthGauge;
+        private final String priceBufferHighWaterGauge;
+        private final String priceBufferDropsCounter;
+        private final String priceConflationCoalescedCounter;
+        private final String priceDeadbandSuppressedCounter;
+        private final String priceLaneDepthGauge;
+        private final String priceLaneServiceTimer;
+        private final String priceLatencyTimer;
     }
 }
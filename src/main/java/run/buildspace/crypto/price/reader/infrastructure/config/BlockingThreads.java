@@ -0,0 +1,60 @@
+package run.buildspace.crypto.price.reader.infrastructure.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Threads for the adapters that block on I/O: RabbitMQ senders, processing lanes, the outbox drainer and the
+ * subscription callbacks that write to Postgres. With {@code spring.threads.virtual.enabled} they are virtual threads,
+ * like the listener containers and the scheduler Spring Boot then configures; otherwise they are daemon platform
+ * threads and subscription callbacks stay on the thread that completes them.
+ */
+@Component
+public class BlockingThreads {
+
+    private final boolean virtual;
+    private final ExecutorService callbacks;
+
+    @Autowired
+    public BlockingThreads(Environment environment) {
+        this(Threading.VIRTUAL.isActive(environment));
+    }
+
+    public BlockingThreads(boolean virtual) {
+        this.virtual = virtual;
+        this.callbacks = virtual ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-callback-", 0).factory()) : null;
+    }
+
+    public boolean virtual() {
+        return virtual;
+    }
+
+    /**
+     * Starts {@code task} on a new thread called {@code name}.
+     */
+    public Thread start(String name, Runnable task) {
+        Thread.Builder builder = virtual ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        return builder.name(name).start(task);
+    }
+
+    /**
+     * Executor for callbacks that block: a new virtual thread per task, or the calling thread in platform mode.
+     */
+    public Executor callbacks() {
+        return virtual ? callbacks : Runnable::run;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (callbacks != null) {
+            callbacks.shutdown();
+        }
+    }
+}
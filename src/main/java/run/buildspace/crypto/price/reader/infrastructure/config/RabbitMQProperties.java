@@ -12,6 +12,58 @@ public record RabbitMQProperties(String exchange,
                                  String currencyErrorUpdateQueue,
                                  String currencyErrorUpdateRoutingBind,
                                  String deadLetterExchange,
-                                 String deadLetterQueue) {
+                                 String deadLetterQueue,
+                                 Batch batch,
+                                 Publisher publisher,
+                                 PriceFormat priceFormat,
+                                 Partitions partitions,
+                                 Outbox outbox) {
 
+    /**
+     * Name of price partition {@code partition}: {@code currency-update-queue} suffixed with its index.
+     */
+    public String partitionQueue(int partition) {
+        return currencyUpdateQueue + "." + partition;
+    }
+
+    /**
+     * Wire format of published prices; {@code binary} is {@code application/x-price-update}.
+     */
+    public enum PriceFormat {
+        JSON,
+        BINARY
+    }
+
+    /**
+     * Batch consumption of the subscription queue: a batch is handed over once it holds {@code size} messages or
+     * no further message arrived within {@code receiveTimeout} ms.
+     */
+    public record Batch(boolean enabled, int size, long receiveTimeout) {
+    }
+
+    /**
+     * Asynchronous price publishing: {@code channels} sender threads each publish batches of up to {@code batchSize}
+     * updates, waiting at most {@code linger} ms to fill one. Up to {@code queueCapacity} updates wait for a sender;
+     * a nacked update is resent up to {@code maxRetries} times.
+     */
+    public record Publisher(boolean async, int batchSize, long linger, int channels, int queueCapacity, int maxRetries) {
+    }
+
+    /**
+     * Partitioned price queues: instead of the single {@code currency-update-queue}, {@code count} queues sit behind
+     * the {@code x-consistent-hash} exchange {@code exchange}, which spreads prices by routing key and so keeps every
+     * symbol on one queue. Their depth is sampled every {@code depthInterval} ms.
+     */
+    public record Partitions(boolean enabled, int count, String exchange, long depthInterval) {
+    }
+
+    /**
+     * Disk-backed outbox for prices the broker cannot take: they are journaled under {@code directory} in memory-mapped
+     * segments of {@code segmentSize} bytes, of which at most {@code maxSegments} are retained, and replayed in order.
+     * The replay sends up to {@code replayBatchSize} prices at once, waits up to {@code confirmTimeout} ms for their
+     * confirms, and is retried every {@code drainInterval} ms after a failure.
+     */
+    public record Outbox(boolean enabled, String directory, int segmentSize, int maxSegments, long drainInterval, long confirmTimeout,
+                         int replayBatchSize) {
+    }
 }
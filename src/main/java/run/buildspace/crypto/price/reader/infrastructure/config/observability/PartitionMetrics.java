@@ -0,0 +1,77 @@
+package run.buildspace.crypto.price.reader.infrastructure.config.observability;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Depth and consumer count of every price partition queue, so downstream can scale its consumers per partition. The
+ * broker is asked every {@code rabbitmq.partitions.depth-interval} ms in the background; a scrape only reads the last
+ * sample.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rabbitmq.partitions", name = "enabled", havingValue = "true")
+public class PartitionMetrics {
+    private final Logger logger = LoggerFactory.getLogger(PartitionMetrics.class);
+
+    static final String DEPTH_GAUGE = "rabbitmq.partition.depth";
+    static final String CONSUMERS_GAUGE = "rabbitmq.partition.consumers";
+    static final String PARTITION_TAG = "partition";
+
+    private final MeterRegistry registry;
+    private final AmqpAdmin amqpAdmin;
+    private final RabbitMQProperties properties;
+    private final AtomicLongArray depths;
+    private final AtomicLongArray consumers;
+
+    @Autowired
+    public PartitionMetrics(MeterRegistry registry, AmqpAdmin amqpAdmin, RabbitMQProperties properties) {
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        this.properties = properties;
+        this.depths = new AtomicLongArray(properties.partitions().count());
+        this.consumers = new AtomicLongArray(properties.partitions().count());
+    }
+
+    @PostConstruct
+    void initMetrics() {
+        for (int partition = 0; partition < depths.length(); partition++) {
+            int index = partition;
+            Gauge.builder(DEPTH_GAUGE, depths, it -> it.get(index))
+                    .tag(PARTITION_TAG, String.valueOf(partition))
+                    .description("Prices waiting in a partition queue")
+                    .register(registry);
+            Gauge.builder(CONSUMERS_GAUGE, consumers, it -> it.get(index))
+                    .tag(PARTITION_TAG, String.valueOf(partition))
+                    .description("Consumers attached to a partition queue")
+                    .register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rabbitmq.partitions.depth-interval}")
+    void sample() {
+        for (int partition = 0; partition < depths.length(); partition++) {
+            try {
+                QueueInformation info = amqpAdmin.getQueueInfo(properties.partitionQueue(partition));
+                if (info != null) {
+                    depths.set(partition, info.getMessageCount());
+                    consumers.set(partition, info.getConsumerCount());
+                }
+            } catch (AmqpException e) {
+                logger.warn("Error sampling partition {}: {}", partition, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package run.buildspace.crypto.price.reader.infrastructure.config.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms of a price on its way from Binance to RabbitMQ, one timer per {@link Stage}. Except for
+ * {@link Stage#EXCHANGE}, every stage is measured from the moment the frame was received
+ * ({@link PriceUpdate#receivedNanos()}), so consecutive stages show where the time goes. Timers publish percentile
+ * histograms, which Micrometer backs with HdrHistogram and the Prometheus endpoint exposes as buckets.
+ */
+@Component
+public class PriceLatencyMetrics {
+
+    static final String STAGE_TAG = "stage";
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(1_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    public enum Stage {
+        /** exchange event time to frame received, at millisecond precision */
+        EXCHANGE,
+        DECODE,
+        DISPATCH,
+        SEND,
+        CONFIRM;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+    @Autowired
+    public PriceLatencyMetrics(MeterRegistry meterRegistry, BinanceWebSocketProperties properties) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder(properties.observability().priceLatencyTimer())
+                    .tag(STAGE_TAG, stage.tag())
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .minimumExpectedValue(MIN_EXPECTED)
+                    .maximumExpectedValue(MAX_EXPECTED)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Records the time between the exchange event and the receipt of its frame.
+     */
+    public void recordExchange(long eventTimeMillis, long receivedMillis) {
+        timers.get(Stage.EXCHANGE).record(Math.max(0, receivedMillis - eventTimeMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records the time since {@code priceUpdate}'s frame was received as reaching {@code stage}. Updates that were
+     * not received from a frame are ignored.
+     */
+    public void record(Stage stage, PriceUpdate priceUpdate) {
+        record(stage, priceUpdate.receivedNanos());
+    }
+
+    public void record(Stage stage, long receivedNanos) {
+        if (receivedNanos != PriceUpdate.NOT_RECEIVED) {
+            timers.get(stage).record(System.nanoTime() - receivedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    Timer timer(Stage stage) {
+        return timers.get(stage);
+    }
+}
@@ -6,23 +6,43 @@ import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.out.currency_exchange.BinanceSubscriptionUpdater;
 
+/**
+ * Subscription gauges. All of them read in-process state, so a scrape never queries the database.
+ */
 @Component
 public class SubscriptionMetrics {
 
+    static final String STATE_TAG = "state";
+
     private final MeterRegistry registry;
     private final PriceSubscriptionRepository repository;
+    private final BinanceSubscriptionUpdater updater;
 
     @Autowired
-    public SubscriptionMetrics(MeterRegistry registry,PriceSubscriptionRepository repository) {
+    public SubscriptionMetrics(MeterRegistry registry, PriceSubscriptionRepository repository, BinanceSubscriptionUpdater updater) {
         this.registry = registry;
         this.repository = repository;
+        this.updater = updater;
     }
 
     @PostConstruct
     void initMetrics() {
         Gauge.builder("subscriptions.active", repository, PriceSubscriptionRepository::count)
-                .description("Active subscriptions in database")
+                .description("Active subscriptions, kept in memory and reconciled with the database")
+                .register(registry);
+        Gauge.builder("subscriptions.state", updater, BinanceSubscriptionUpdater::liveSubscriptions)
+                .tag(STATE_TAG, "live")
+                .description("Subscriptions by state")
+                .register(registry);
+        Gauge.builder("subscriptions.state", updater, BinanceSubscriptionUpdater::pendingSubscriptions)
+                .tag(STATE_TAG, "pending-subscribe")
+                .description("Subscriptions by state")
+                .register(registry);
+        Gauge.builder("subscriptions.state", updater, BinanceSubscriptionUpdater::pendingUnsubscriptions)
+                .tag(STATE_TAG, "pending-unsubscribe")
+                .description("Subscriptions by state")
                 .register(registry);
     }
-}
\ No newline at end of file
+}
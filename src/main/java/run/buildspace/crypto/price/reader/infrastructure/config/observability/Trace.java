@@ -5,6 +5,7 @@ import org.apache.logging.log4j.util.TriConsumer;
 import org.slf4j.MDC;
 
 import java.util.UUID;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 @UtilityClass
@@ -20,6 +21,15 @@ public class Trace {
         }
     }
 
+    public static <T, U> void trace(BiConsumer<T, U> action, T arg1, U arg2) {
+        MDC.put("traceId", UUID.randomUUID().toString());
+        try {
+            action.accept(arg1, arg2);
+        } finally {
+            MDC.clear();
+        }
+    }
+
     public static <T, U, V> void trace(TriConsumer<T, U, V> action, T arg1, U arg2, V arg3) {
         MDC.put("traceId", UUID.randomUUID().toString());
         try {
@@ -19,6 +19,7 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -27,6 +28,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
 @Execution(ExecutionMode.CONCURRENT)
@@ -128,6 +130,76 @@ class BinanceSubscriptionServiceTest {
         then(cryptoStreamSubscriber).shouldHaveNoInteractions();
 
     }
+    @Test
+    void batchCollapsesSameSymbolTest() {
+        // given
+        given(priceSubscriptionRepository.exists(Mocks.SYMBOL)).willReturn(false);
+        AtomicInteger succeeded = new AtomicInteger();
+
+        // when
+        subscriptionService.handleSubscriptions(List.of(Mocks.counted(true, Mocks.SYMBOL, succeeded), Mocks.counted(false, Mocks.SYMBOL, succeeded)));
+
+        // then
+        assertEquals(2, succeeded.get());
+        then(cryptoStreamSubscriber).shouldHaveNoInteractions();
+        then(transactionTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void batchStoresInOneTransactionTest() {
+        // given
+        given(priceSubscriptionRepository.exists(Mocks.SYMBOL)).willReturn(false);
+        given(priceSubscriptionRepository.exists(Mocks.OTHER_SYMBOL)).willReturn(true);
+        willAnswer(answer -> {
+            Consumer<Boolean> callback = answer.getArgument(1);
+            callback.accept(true);
+            return null;
+        }).given(cryptoStreamSubscriber).subscribe(any(), any());
+        willAnswer(answer -> {
+            Consumer<Boolean> callback = answer.getArgument(1);
+            callback.accept(true);
+            return null;
+        }).given(cryptoStreamSubscriber).unsubscribe(any(), any());
+        AtomicInteger succeeded = new AtomicInteger();
+
+        // when
+        subscriptionService.handleSubscriptions(List.of(
+                Mocks.counted(false, Mocks.SYMBOL, succeeded),
+                Mocks.counted(true, Mocks.SYMBOL, succeeded),
+                Mocks.counted(false, Mocks.OTHER_SYMBOL, succeeded)));
+
+        // then
+        assertEquals(3, succeeded.get());
+        then(transactionTemplate).should().executeWithoutResult(any());
+        then(priceSubscriptionRepository).should().saveAll(List.of(Mocks.subscription(true, Mocks.SYMBOL)));
+        then(priceSubscriptionRepository).should().deleteAll(List.of(Mocks.OTHER_SYMBOL));
+    }
+
+    @Test
+    void batchRejectedChangeFailsTest() {
+        // given
+        given(priceSubscriptionRepository.exists(Mocks.SYMBOL)).willReturn(false);
+        given(priceSubscriptionRepository.exists(Mocks.OTHER_SYMBOL)).willReturn(false);
+        willAnswer(answer -> {
+            Consumer<Boolean> callback = answer.getArgument(1);
+            callback.accept(Mocks.SYMBOL.equals(answer.getArgument(0)));
+            return null;
+        }).given(cryptoStreamSubscriber).subscribe(any(), any());
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        // when
+        subscriptionService.handleSubscriptions(List.of(
+                Mocks.counted(true, Mocks.SYMBOL, succeeded, failed),
+                Mocks.counted(true, Mocks.OTHER_SYMBOL, succeeded, failed)));
+
+        // then
+        assertEquals(1, succeeded.get());
+        assertEquals(1, failed.get());
+        then(priceSubscriptionRepository).should().saveAll(List.of(Mocks.subscription(true, Mocks.SYMBOL)));
+        then(priceSubscriptionRepository).should(never()).deleteAll(any());
+    }
+
     @Test
     void relloadAllTest() {
         //given
@@ -165,6 +237,27 @@ class BinanceSubscriptionServiceTest {
         }
 
         static final String SYMBOL = "BTC";
+        static final String OTHER_SYMBOL = "ETH";
+
+        private static Subscription subscription(boolean subscribe, String symbol) {
+            return Subscription.builder().symbol(symbol).subscribe(subscribe).build();
+        }
+
+        private static PendingSubscription counted(boolean subscribe, String symbol, AtomicInteger succeeded) {
+            return PendingSubscription.builder()
+                    .subscription(subscription(subscribe, symbol))
+                    .onSuccess(succeeded::incrementAndGet)
+                    .onFailure(Assertions::fail)
+                    .build();
+        }
+
+        private static PendingSubscription counted(boolean subscribe, String symbol, AtomicInteger succeeded, AtomicInteger failed) {
+            return PendingSubscription.builder()
+                    .subscription(subscription(subscribe, symbol))
+                    .onSuccess(succeeded::incrementAndGet)
+                    .onFailure(failed::incrementAndGet)
+                    .build();
+        }
 
         private static PendingSubscription success(boolean subscribe) {
             return PendingSubscription.builder()
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.parallel.ExecutionMode;
 import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Execution(ExecutionMode.CONCURRENT)
@@ -22,6 +23,20 @@ class PriceUpdateTest {
         assertEquals(Mocks.PRICE, priceUpdate.price());
     }
 
+    @Test
+    void currencyCreationFixedPointTest() {
+        PriceUpdate priceUpdate = PriceUpdate.builder().symbol(Mocks.SYMBOL).priceMantissa(1234567).priceScale((byte) 2).build();
+        assertEquals(Mocks.PRICE, priceUpdate.price());
+        assertEquals(1234567, Mocks.priceUpdate().priceMantissa());
+        assertEquals(2, Mocks.priceUpdate().priceScale());
+    }
+
+    @Test
+    void currencyCreationPriceOutOfRangeTest() {
+        InvalidPriceException exception = assertThrows(InvalidPriceException.class, Mocks::outOfRangePriceUpdate);
+        assertEquals("Price out of range: " + Mocks.OUT_OF_RANGE_PRICE, exception.getMessage());
+    }
+
     @Test
     void currencyCreationInvalidSymbolTest() {
         InvalidSymbolException exception = assertThrows(InvalidSymbolException.class, Mocks::wrongSymbolPriceUpdate);
@@ -34,11 +49,26 @@ class PriceUpdateTest {
         assertEquals("Price must be informed", exception.getMessage());
     }
 
+    @Test
+    void currencyEqualityIgnoresTransportTest() {
+        PriceUpdate priceUpdate = PriceUpdate.builder().symbol(Mocks.SYMBOL).price(Mocks.PRICE).timestamp(Mocks.TIMESTAMP)
+                .receivedNanos(1).raw(new byte[]{1}).build();
+        PriceUpdate same = PriceUpdate.builder().symbol(Mocks.SYMBOL).price(Mocks.PRICE).timestamp(Mocks.TIMESTAMP)
+                .receivedNanos(2).raw(new byte[]{1}).build();
+        PriceUpdate other = PriceUpdate.builder().symbol(Mocks.SYMBOL).price(Mocks.PRICE).timestamp(Mocks.TIMESTAMP + 1).build();
+        assertEquals(priceUpdate, same);
+        assertEquals(priceUpdate.hashCode(), same.hashCode());
+        assertNotEquals(priceUpdate, other);
+        assertEquals(same.toString(), priceUpdate.toString());
+    }
+
     private static class Mocks {
         private Mocks() {
         }
         static final String SYMBOL = "BTC";
         static final BigDecimal PRICE = BigDecimal.valueOf(12345.67);
+        static final long TIMESTAMP = 1_700_000_000_000L;
+        static final BigDecimal OUT_OF_RANGE_PRICE = new BigDecimal("123456789012345678901234.5");
 
         static PriceUpdate priceUpdate() {
             return PriceUpdate.builder()
@@ -55,6 +85,13 @@ class PriceUpdateTest {
                     .build();
         }
 
+        static void outOfRangePriceUpdate() {
+            PriceUpdate.builder()
+                    .symbol(SYMBOL)
+                    .price(OUT_OF_RANGE_PRICE)
+                    .build();
+        }
+
         static void wrongPriceUpdate() {
             PriceUpdate.builder()
                     .symbol(SYMBOL)
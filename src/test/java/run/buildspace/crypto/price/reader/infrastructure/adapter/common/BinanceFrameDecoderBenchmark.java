@@ -0,0 +1,87 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous {@code readTree} decoding path with {@link BinanceFrameDecoder}, and measures how an
+ * all-market frame of {@value #ALL_MARKET_SIZE} elements is filtered down to the {@value #ACTIVE_SYMBOLS} active ones.
+ * See the README "Benchmarks" section for how to run it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinanceFrameDecoderBenchmark {
+
+    private static final String MARK_PRICE = "{\"e\":\"markPriceUpdate\",\"E\":1562305380000,\"s\":\"BTCUSDT\",\"p\":\"11794.15000000\","
+            + "\"i\":\"11784.62659091\",\"P\":\"11784.25641265\",\"r\":\"0.00038167\",\"T\":1562306400000}";
+
+    private static final int ALL_MARKET_SIZE = 400;
+    private static final int ACTIVE_SYMBOLS = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SymbolRegistry registry = new SymbolRegistry(ALL_MARKET_SIZE);
+    private final BinanceFrameDecoder decoder = new BinanceFrameDecoder(registry);
+    private String allMarket;
+
+    @Setup
+    public void setUp() {
+        StringBuilder frame = new StringBuilder("[");
+        for (int i = 0; i < ALL_MARKET_SIZE; i++) {
+            String symbol = "SYM" + i;
+            if (i % (ALL_MARKET_SIZE / ACTIVE_SYMBOLS) == 0) {
+                registry.activate(symbol);
+            }
+            frame.append(i == 0 ? "" : ",").append(MARK_PRICE.replace("BTCUSDT", BinanceStreams.exchangeSymbol(symbol)));
+        }
+        allMarket = frame.append(']').toString();
+    }
+
+    @Benchmark
+    public void readTree(Blackhole blackhole) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(MARK_PRICE);
+        if (node.has("s") && node.has("p")) {
+            blackhole.consume(node.get("s").asText());
+            blackhole.consume(new BigDecimal(node.get("p").asText()));
+        } else {
+            blackhole.consume(MARK_PRICE.contains("\"result\":null"));
+        }
+    }
+
+    @Benchmark
+    public void frameDecoder(Blackhole blackhole) {
+        if (decoder.decode(MARK_PRICE) == BinanceFrameDecoder.FrameType.PRICE) {
+            blackhole.consume(decoder.symbol());
+            blackhole.consume(decoder.priceMantissa());
+            blackhole.consume(decoder.priceScale());
+        }
+    }
+
+    @Benchmark
+    public void allMarketFiltered(Blackhole blackhole) {
+        if (decoder.decode(allMarket) == BinanceFrameDecoder.FrameType.PRICE_ARRAY) {
+            while (decoder.nextPrice()) {
+                blackhole.consume(decoder.symbolId());
+                blackhole.consume(decoder.priceMantissa());
+            }
+        }
+    }
+}
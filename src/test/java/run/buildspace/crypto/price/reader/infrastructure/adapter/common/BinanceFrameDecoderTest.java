@@ -0,0 +1,240 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.BinanceFrameDecoder.FrameType;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class BinanceFrameDecoderTest {
+
+    private final SymbolRegistry registry = new SymbolRegistry(8);
+    private final BinanceFrameDecoder decoder = new BinanceFrameDecoder(registry);
+
+    @Test
+    void decodeMarkPriceTest() {
+        // when
+        FrameType type = decoder.decode(Mocks.MARK_PRICE);
+
+        // then
+        assertEquals(FrameType.PRICE, type);
+        assertEquals("BTCUSDT", decoder.symbol());
+        assertEquals(1179415000000L, decoder.priceMantissa());
+        assertEquals(8, decoder.priceScale());
+        assertTrue(decoder.hasEventTime());
+        assertEquals(1562305380000L, decoder.eventTime());
+        assertEquals(SymbolRegistry.UNKNOWN, decoder.symbolId());
+    }
+
+    @Test
+    void decodeRegisteredSymbolTest() {
+        // given
+        int id = registry.register("BTC");
+
+        // when
+        FrameType type = decoder.decode(Mocks.MARK_PRICE);
+
+        // then
+        assertEquals(FrameType.PRICE, type);
+        assertEquals(id, decoder.symbolId());
+    }
+
+    @Test
+    void decodeCombinedStreamEnvelopeTest() {
+        // when
+        FrameType type = decoder.decode("{\"stream\":\"btcusdt@markPrice@1s\",\"data\":" + Mocks.MARK_PRICE + "}");
+
+        // then
+        assertEquals(FrameType.PRICE, type);
+        assertEquals("BTCUSDT", decoder.symbol());
+        assertEquals(1179415000000L, decoder.priceMantissa());
+        assertEquals(1562305380000L, decoder.eventTime());
+    }
+
+    @Test
+    void decodeAllMarketArrayTest() {
+        // given
+        registry.activate("ETH");
+        registry.activate("SOL");
+        registry.register("XRP");
+
+        // when
+        FrameType type = decoder.decode(Mocks.ALL_MARKET);
+
+        // then
+        assertEquals(FrameType.PRICE_ARRAY, type);
+        assertTrue(decoder.nextPrice());
+        assertEquals("ETHUSDT", registry.entry(decoder.symbolId()).exchangeSymbol());
+        assertEquals(20015L, decoder.priceMantissa());
+        assertEquals(1, decoder.priceScale());
+        assertEquals(1562305380001L, decoder.eventTime());
+        assertTrue(decoder.nextPrice());
+        assertEquals("SOLUSDT", registry.entry(decoder.symbolId()).exchangeSymbol());
+        assertEquals(15L, decoder.priceMantissa());
+        assertFalse(decoder.nextPrice());
+    }
+
+    @Test
+    void decodeCombinedAllMarketArrayTest() {
+        // given
+        registry.activate("SOL");
+
+        // when
+        FrameType type = decoder.decode("{\"stream\":\"!markPrice@arr@1s\",\"data\":" + Mocks.ALL_MARKET + "}");
+
+        // then
+        assertEquals(FrameType.PRICE_ARRAY, type);
+        assertTrue(decoder.nextPrice());
+        assertEquals("SOLUSDT", registry.entry(decoder.symbolId()).exchangeSymbol());
+        assertFalse(decoder.nextPrice());
+    }
+
+    @Test
+    void rawEventTest() {
+        // when
+        decoder.decode(Mocks.MARK_PRICE);
+        byte[] plain = decoder.rawEvent();
+        decoder.decode("{\"stream\":\"btcusdt@markPrice@1s\",\"data\":" + Mocks.MARK_PRICE + "}");
+        byte[] enveloped = decoder.rawEvent();
+
+        // then
+        assertEquals(Mocks.MARK_PRICE, new String(plain, StandardCharsets.UTF_8));
+        assertEquals(Mocks.MARK_PRICE, new String(enveloped, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rawArrayElementTest() {
+        // given
+        registry.activate("SOL");
+
+        // when
+        decoder.decode(Mocks.ALL_MARKET);
+        decoder.nextPrice();
+
+        // then
+        assertEquals("{\"e\":\"markPriceUpdate\",\"E\":1562305380003,\"s\":\"SOLUSDT\",\"p\":\"15\",\"T\":1562306400000}",
+                new String(decoder.rawEvent(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decodeMalformedArrayTest() {
+        // given
+        registry.activate("BTC");
+
+        // when
+        FrameType type = decoder.decode("[{\"s\":\"BTCUSDT\",\"p\":\"1\"},{\"s\":");
+
+        // then
+        assertEquals(FrameType.PRICE_ARRAY, type);
+        assertTrue(decoder.nextPrice());
+        assertFalse(decoder.nextPrice());
+    }
+
+    @Test
+    void decodeNumericPriceTest() {
+        // when
+        FrameType type = decoder.decode("{\"s\":\"ETHUSDT\",\"p\":1234.5}");
+
+        // then
+        assertEquals(FrameType.PRICE, type);
+        assertEquals("ETHUSDT", decoder.symbol());
+        assertEquals(12345L, decoder.priceMantissa());
+        assertEquals(1, decoder.priceScale());
+        assertFalse(decoder.hasEventTime());
+    }
+
+    @Test
+    void decodeFixedPointPriceTest() {
+        assertPrice("0.00001234", new BigDecimal("0.00001234"));
+        assertPrice("-42", new BigDecimal("-42"));
+        assertPrice("7.", new BigDecimal("7"));
+        assertPrice("12345678901234567.8900000000", new BigDecimal("12345678901234567.89"));
+    }
+
+    @Test
+    void decodeInvalidPriceTest() {
+        assertEquals(FrameType.UNKNOWN, decoder.decode("{\"s\":\"BTCUSDT\",\"p\":\"\"}"));
+        assertEquals(FrameType.UNKNOWN, decoder.decode("{\"s\":\"BTCUSDT\",\"p\":\"1.2.3\"}"));
+        assertEquals(FrameType.UNKNOWN, decoder.decode("{\"s\":\"BTCUSDT\",\"p\":\"1e5\"}"));
+        assertEquals(FrameType.UNKNOWN, decoder.decode("{\"s\":\"BTCUSDT\",\"p\":\"12345678901234567890.1\"}"));
+    }
+
+    @Test
+    void decodeSubscriptionResultTest() {
+        // when
+        FrameType type = decoder.decode("{\"result\":null,\"id\":5}");
+
+        // then
+        assertEquals(FrameType.SUBSCRIPTION_RESULT, type);
+        assertEquals(5L, decoder.id());
+    }
+
+    @Test
+    void decodeSubscriptionErrorTest() {
+        // when
+        FrameType type = decoder.decode("{\"error\":{\"code\":2,\"msg\":\"Invalid request: \\\"x\\\"\"},\"id\":7}");
+
+        // then
+        assertEquals(FrameType.SUBSCRIPTION_ERROR, type);
+        assertEquals(7L, decoder.id());
+        assertEquals("{\"code\":2,\"msg\":\"Invalid request: \\\"x\\\"\"}", decoder.error());
+    }
+
+    @Test
+    void decodeSkipsNestedValuesTest() {
+        // when
+        FrameType type = decoder.decode("{ \"x\" : [1, {\"s\":\"NOPE\"}, \"}\"], \"s\" : \"BNBUSDT\" , \"p\" : \"1.0\" }");
+
+        // then
+        assertEquals(FrameType.PRICE, type);
+        assertEquals("BNBUSDT", decoder.symbol());
+    }
+
+    @Test
+    void decodeUnknownFramesTest() {
+        assertEquals(FrameType.UNKNOWN, decoder.decode("{}"));
+        assertEquals(FrameType.UNKNOWN, decoder.decode(""));
+        assertEquals(FrameType.UNKNOWN, decoder.decode("not json"));
+        assertEquals(FrameType.UNKNOWN, decoder.decode("{\"s\":\"BTCUSDT\",\"p\":"));
+        assertEquals(FrameType.UNKNOWN, decoder.decode("{\"s\":\"BTCUSDT\",\"p\":null}"));
+        assertEquals(FrameType.UNKNOWN, decoder.decode("{\"E\":12a}"));
+    }
+
+    @Test
+    void decoderIsReusableTest() {
+        // given
+        decoder.decode(Mocks.MARK_PRICE);
+
+        // when
+        FrameType type = decoder.decode("{\"result\":null,\"id\":1}");
+
+        // then
+        assertEquals(FrameType.SUBSCRIPTION_RESULT, type);
+        assertFalse(decoder.hasEventTime());
+    }
+
+    private void assertPrice(String text, BigDecimal expected) {
+        assertEquals(FrameType.PRICE, decoder.decode("{\"s\":\"BTCUSDT\",\"p\":\"" + text + "\"}"));
+        assertEquals(0, expected.compareTo(BigDecimal.valueOf(decoder.priceMantissa(), decoder.priceScale())), text);
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String MARK_PRICE = "{\"e\":\"markPriceUpdate\",\"E\":1562305380000,\"s\":\"BTCUSDT\",\"p\":\"11794.15000000\","
+                + "\"i\":\"11784.62659091\",\"P\":\"11784.25641265\",\"r\":\"0.00038167\",\"T\":1562306400000}";
+
+        private static final String ALL_MARKET = "[" + MARK_PRICE + ","
+                + "{\"e\":\"markPriceUpdate\",\"E\":1562305380001,\"s\":\"ETHUSDT\",\"p\":\"2001.5\",\"T\":1562306400000},"
+                + "{\"e\":\"markPriceUpdate\",\"E\":1562305380002,\"s\":\"XRPUSDT\",\"p\":\"0.51\",\"T\":1562306400000},"
+                + "{\"e\":\"markPriceUpdate\",\"E\":1562305380003,\"s\":\"SOLUSDT\",\"p\":\"15\",\"T\":1562306400000}]";
+    }
+}
@@ -0,0 +1,63 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class BinanceStreamsTest {
+
+    @Test
+    void combinedUrlTest() {
+        // when
+        String url = BinanceStreams.combinedUrl(Mocks.BASE_URL, List.of(BinanceStreams.markPrice("BTC"), BinanceStreams.ALL_MARKET_MARK_PRICE));
+
+        // then
+        assertEquals(Mocks.BASE_URL + "?streams=btcusdt@markPrice@1s/!markPrice@arr@1s", url);
+        assertEquals(Mocks.BASE_URL, BinanceStreams.combinedUrl(Mocks.BASE_URL, List.of()));
+    }
+
+    @Test
+    void exchangeSymbolTest() {
+        assertEquals("BTCUSDT", BinanceStreams.exchangeSymbol("btc"));
+    }
+
+    @Test
+    void combinedStreamsFittingTest() {
+        // given
+        List<String> streams = List.of("btcusdt@markPrice@1s", "ethusdt@markPrice@1s", "solusdt@markPrice@1s");
+        int twoStreams = BinanceStreams.combinedUrl(Mocks.BASE_URL, streams.subList(0, 2)).length();
+
+        // when / then
+        assertEquals(2, BinanceStreams.combinedStreamsFitting(Mocks.BASE_URL, streams, twoStreams));
+        assertEquals(1, BinanceStreams.combinedStreamsFitting(Mocks.BASE_URL, streams, twoStreams - 1));
+        assertEquals(3, BinanceStreams.combinedStreamsFitting(Mocks.BASE_URL, streams, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void combinedStreamsCapacityTest() {
+        // given
+        int maxUrlLength = 1000;
+
+        // when
+        int capacity = BinanceStreams.combinedStreamsCapacity(Mocks.BASE_URL, Mocks.STREAM.length(), maxUrlLength);
+
+        // then
+        assertTrue(BinanceStreams.combinedUrl(Mocks.BASE_URL, Collections.nCopies(capacity, Mocks.STREAM)).length() <= maxUrlLength);
+        assertEquals(capacity, BinanceStreams.combinedStreamsFitting(Mocks.BASE_URL, Collections.nCopies(capacity + 1, Mocks.STREAM), maxUrlLength));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String BASE_URL = "wss://fstream.binance.test.com/stream";
+        private static final String STREAM = "btcusdt@markPrice@1s";
+    }
+}
@@ -3,13 +3,17 @@ package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.Getter;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -18,24 +22,45 @@ import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.client.WebSocketClient;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import run.buildspace.crypto.price.reader.application.port.out.PriceSubscriptionRepository;
 import run.buildspace.crypto.price.reader.domain.exception.WSException;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange.dto.SubscriptionType;
 import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.withSettings;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -52,27 +77,145 @@ class BinanceWebSocketManagerTest {
 
     private MeterRegistry meterRegistry;
 
+    @Mock
+    private PriceSubscriptionRepository priceSubscriptionRepository;
+
     @BeforeEach
     void setUp() {
         properties = Mocks.properties();
         meterRegistry = new SimpleMeterRegistry();
-        binanceWebSocketManager = new BinanceWebSocketManager(properties, meterRegistry);
-        ReflectionTestUtils.setField(binanceWebSocketManager, "client", webSocketClient);
+        binanceWebSocketManager = new BinanceWebSocketManager(properties, meterRegistry, priceSubscriptionRepository, new SymbolRegistry(Mocks.MAX_SYMBOLS), new PriceLatencyMetrics(meterRegistry, properties));
+        ReflectionTestUtils.setField(binanceWebSocketManager, "clientFactory", (Supplier<WebSocketClient>) () -> webSocketClient);
 
         binanceWebSocketManager.connect();
     }
 
+    @AfterEach
+    void tearDown() {
+        binanceWebSocketManager.disconnect();
+    }
+
     @Test
     void socketConnectionCreatedTest() {
         // Given: connection established in @BeforeEach
 
         // When / Then
-        assertEquals(webSocketClient.getSession(), binanceWebSocketManager.getSocket());
+        assertEquals(webSocketClient.getSession(), WebSocketSessionDecorator.unwrap(binanceWebSocketManager.getSocket()));
         assertNotNull(meterRegistry.find(properties.observability().webSocketStatusGauge()).gauge());
         assertEquals(1.0, meterRegistry.find(properties.observability().webSocketStatusGauge()).gauge().value());
         assertNotNull(meterRegistry.find(properties.observability().webSocketSilenceGauge()).gauge());
     }
 
+    @Test
+    void connectionPoolTest() {
+        // Given
+        BinanceWebSocketProperties poolProperties = Mocks.properties(Mocks.POOL_SIZE);
+        MeterRegistry poolRegistry = new SimpleMeterRegistry();
+        Mocks.WebSocketClientTest first = new Mocks.WebSocketClientTest();
+        Mocks.WebSocketClientTest second = new Mocks.WebSocketClientTest();
+        Iterator<Mocks.WebSocketClientTest> clients = List.of(first, second).iterator();
+        BinanceWebSocketManager pool = new BinanceWebSocketManager(poolProperties, poolRegistry, priceSubscriptionRepository, new SymbolRegistry(Mocks.MAX_SYMBOLS), Mocks.latencyMetrics());
+        ReflectionTestUtils.setField(pool, "clientFactory", (Supplier<WebSocketClient>) clients::next);
+
+        // When
+        pool.connect();
+        second.close();
+
+        // Then
+        assertEquals(Mocks.POOL_SIZE, pool.getPoolSize());
+        assertEquals(first.getSession(), WebSocketSessionDecorator.unwrap(pool.getSocket(0)));
+        assertEquals(second.getSession(), WebSocketSessionDecorator.unwrap(pool.getSocket(1)));
+        assertEquals(1.0, poolRegistry.find(poolProperties.observability().webSocketStatusGauge()).tag("connection", "0").gauge().value());
+        assertEquals(0.0, poolRegistry.find(poolProperties.observability().webSocketStatusGauge()).tag("connection", "1").gauge().value());
+        pool.disconnect();
+    }
+
+    @Test
+    void combinedStreamConnectionTest() {
+        // Given
+        List<String> symbols = List.of(Mocks.SYMBOL, Mocks.OTHER_SYMBOL, "SOL");
+        BinanceWebSocketProperties combinedProperties = Mocks.combinedProperties(Mocks.combinedUrlLength(2));
+        given(priceSubscriptionRepository.findAll()).willReturn(symbols);
+        List<Mocks.WebSocketClientTest> clients = List.of(new Mocks.WebSocketClientTest(), new Mocks.WebSocketClientTest());
+        Iterator<Mocks.WebSocketClientTest> nextClient = clients.iterator();
+        BinanceWebSocketManager combined = new BinanceWebSocketManager(combinedProperties, new SimpleMeterRegistry(), priceSubscriptionRepository, new SymbolRegistry(Mocks.MAX_SYMBOLS), Mocks.latencyMetrics());
+        ReflectionTestUtils.setField(combined, "clientFactory", (Supplier<WebSocketClient>) nextClient::next);
+
+        // When
+        combined.connect();
+
+        // Then
+        assertEquals(2, combined.getPoolSize());
+        for (String symbol : symbols) {
+            int connection = combined.getShardRouter().shardOf(symbol);
+            String url = clients.get(connection).getUri();
+            assertTrue(url.startsWith(Mocks.COMBINED_URL + "?streams="));
+            boolean inUrl = url.contains(BinanceStreams.markPrice(symbol));
+            boolean inFrame = Mockito.mockingDetails(clients.get(connection).getSession()).getInvocations().stream()
+                    .anyMatch(invocation -> invocation.getArguments().length == 1 && invocation.getArguments()[0] instanceof TextMessage message
+                            && message.getPayload().contains(BinanceStreams.markPrice(symbol)));
+            assertTrue(inUrl || inFrame, symbol + " is not streamed");
+        }
+        combined.disconnect();
+    }
+
+    @Test
+    void allMarketAtStartupTest() throws IOException {
+        // Given
+        given(priceSubscriptionRepository.findAll()).willReturn(List.of("BTC", "ETH"));
+        Mocks.WebSocketClientTest client = new Mocks.WebSocketClientTest();
+        BinanceWebSocketManager allMarket = new BinanceWebSocketManager(Mocks.allMarketProperties(), new SimpleMeterRegistry(), priceSubscriptionRepository, new SymbolRegistry(Mocks.MAX_SYMBOLS), Mocks.latencyMetrics());
+        ReflectionTestUtils.setField(allMarket, "clientFactory", (Supplier<WebSocketClient>) () -> client);
+        List<PriceUpdate> prices = new CopyOnWriteArrayList<>();
+        allMarket.getPriceUpdates().subscribe(prices::add);
+
+        // When
+        allMarket.connect();
+        client.handleMessage(Mocks.allMarketMessage());
+
+        // Then
+        assertTrue(allMarket.isAllMarket());
+        assertEquals(0, allMarket.getShardRouter().size());
+        ArgumentCaptor<TextMessage> subscription = ArgumentCaptor.forClass(TextMessage.class);
+        then(client.getSession()).should().sendMessage(subscription.capture());
+        assertTrue(subscription.getValue().getPayload().contains(BinanceStreams.ALL_MARKET_MARK_PRICE));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !prices.isEmpty());
+        assertEquals(1, prices.size());
+        assertEquals(Mocks.SYMBOL, prices.get(0).symbol());
+        assertEquals(allMarket.getSymbolRegistry().find("BTC"), prices.get(0).symbolId());
+        assertEquals(0, Mocks.PRICE.compareTo(prices.get(0).price()));
+        allMarket.disconnect();
+    }
+
+    @Test
+    void enableAllMarketTest() throws IOException {
+        // Given
+        binanceWebSocketManager.getShardRouter().assign("BTC");
+
+        // When
+        binanceWebSocketManager.enableAllMarket();
+
+        // Then
+        ArgumentCaptor<TextMessage> frames = ArgumentCaptor.forClass(TextMessage.class);
+        then(webSocketClient.getSession()).should(Mockito.times(2)).sendMessage(frames.capture());
+        assertTrue(frames.getAllValues().get(0).getPayload().contains("\"SUBSCRIBE\""));
+        assertTrue(frames.getAllValues().get(0).getPayload().contains(BinanceStreams.ALL_MARKET_MARK_PRICE));
+        assertTrue(frames.getAllValues().get(1).getPayload().contains("\"UNSUBSCRIBE\""));
+        assertTrue(frames.getAllValues().get(1).getPayload().contains(BinanceStreams.markPrice("BTC")));
+        assertTrue(binanceWebSocketManager.isAllMarket());
+        assertEquals(ShardRouter.UNASSIGNED, binanceWebSocketManager.getShardRouter().shardOf("BTC"));
+        assertTrue(binanceWebSocketManager.getSymbolRegistry().isActive(binanceWebSocketManager.getSymbolRegistry().find("BTC")));
+    }
+
+    @Test
+    void connectionStreamsGaugeTest() {
+        // When
+        int connection = binanceWebSocketManager.getShardRouter().assign(Mocks.SYMBOL);
+
+        // Then
+        assertEquals(1.0, meterRegistry.find(properties.observability().webSocketStreamsGauge()).tag("connection", String.valueOf(connection)).gauge().value());
+    }
+
     @Test
     void socketConnectionCloseTest() {
         // Given: connection established in @BeforeEach
@@ -81,6 +224,63 @@ class BinanceWebSocketManagerTest {
         assertEquals(0.0, meterRegistry.find(properties.observability().webSocketStatusGauge()).gauge().value());
     }
 
+    @Test
+    void reconnectRestoresSymbolsTest() throws IOException {
+        // Given
+        binanceWebSocketManager.getShardRouter().assign(Mocks.SYMBOL);
+        binanceWebSocketManager.getShardRouter().assign(Mocks.OTHER_SYMBOL);
+        WebSocketSession dropped = webSocketClient.getSession();
+
+        // When
+        webSocketClient.close();
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> meterRegistry.find(properties.observability().webSocketReconnectsCounter()).counter() != null);
+        ArgumentCaptor<TextMessage> resubscription = ArgumentCaptor.forClass(TextMessage.class);
+        then(webSocketClient.getSession()).should().sendMessage(resubscription.capture());
+        assertNotEquals(dropped, webSocketClient.getSession());
+        assertTrue(resubscription.getValue().getPayload().contains("\"method\":\"SUBSCRIBE\""));
+        assertTrue(resubscription.getValue().getPayload().contains(BinanceStreams.markPrice(Mocks.SYMBOL)));
+        assertTrue(resubscription.getValue().getPayload().contains(BinanceStreams.markPrice(Mocks.OTHER_SYMBOL)));
+        assertEquals(1.0, meterRegistry.find(properties.observability().webSocketStatusGauge()).gauge().value());
+        assertEquals(1.0, meterRegistry.find(properties.observability().webSocketReconnectsCounter()).counter().count());
+        assertEquals(2.0, meterRegistry.find(properties.observability().webSocketRestoredSymbolsCounter()).counter().count());
+        assertEquals(1, meterRegistry.find(properties.observability().webSocketRecoveryTimer()).timer().count());
+    }
+
+    @Test
+    void reconnectDropsSessionOfFailedAttemptTest() throws IOException {
+        // Given
+        binanceWebSocketManager.getShardRouter().assign(Mocks.SYMBOL);
+        webSocketClient.failSends(new IOException("Woops!"), new IllegalStateException("Woops!"));
+
+        // When
+        webSocketClient.close();
+
+        // Then
+        await().atMost(10, TimeUnit.SECONDS).until(() -> meterRegistry.find(properties.observability().webSocketReconnectsCounter()).counter() != null);
+        List<WebSocketSession> sessions = webSocketClient.getSessions();
+        assertEquals(4, sessions.size());
+        then(sessions.get(1)).should().close(CloseStatus.GOING_AWAY);
+        then(sessions.get(2)).should().close(CloseStatus.GOING_AWAY);
+        assertEquals(1.0, meterRegistry.find(properties.observability().webSocketStatusGauge()).gauge().value());
+        assertEquals(1.0, meterRegistry.find(properties.observability().webSocketReconnectsCounter()).counter().count());
+    }
+
+    @Test
+    void disconnectDoesNotReconnectTest() throws InterruptedException {
+        // Given: connection established in @BeforeEach
+
+        // When
+        binanceWebSocketManager.disconnect();
+        webSocketClient.close();
+        Thread.sleep(2 * properties.retryInterval());
+
+        // Then
+        assertNull(meterRegistry.find(properties.observability().webSocketReconnectsCounter()).counter());
+        assertEquals(0.0, meterRegistry.find(properties.observability().webSocketStatusGauge()).gauge().value());
+    }
+
     @Test
     void handleValidMessageTest() throws InterruptedException {
 
@@ -101,6 +301,56 @@ class BinanceWebSocketManagerTest {
         latch.await();
     }
 
+    @Test
+    void eventTimeLatencyTest() {
+        // Given
+        List<PriceUpdate> prices = new CopyOnWriteArrayList<>();
+        binanceWebSocketManager.getPriceUpdates().subscribe(prices::add);
+
+        // When
+        webSocketClient.handleMessage(Mocks.eventTimeMessage());
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !prices.isEmpty());
+        assertEquals(Mocks.EVENT_TIME, prices.get(0).timestamp());
+        assertTrue(prices.get(0).receivedNanos() != PriceUpdate.NOT_RECEIVED);
+        assertEquals(1, meterRegistry.find(properties.observability().priceLatencyTimer()).tag("stage", "exchange").timer().count());
+        assertEquals(1, meterRegistry.find(properties.observability().priceLatencyTimer()).tag("stage", "decode").timer().count());
+    }
+
+    @Test
+    void requestConfirmedByIdTest() throws Exception {
+        // Given
+        CompletableFuture<Boolean> first = binanceWebSocketManager.request(0, SubscriptionType.SUBSCRIBE, List.of(BinanceStreams.markPrice(Mocks.SYMBOL)));
+        CompletableFuture<Boolean> second = binanceWebSocketManager.request(0, SubscriptionType.SUBSCRIBE, List.of(BinanceStreams.markPrice(Mocks.OTHER_SYMBOL)));
+        ArgumentCaptor<TextMessage> requests = ArgumentCaptor.forClass(TextMessage.class);
+        then(webSocketClient.getSession()).should(Mockito.times(2)).sendMessage(requests.capture());
+        long firstId = Mocks.requestId(requests.getAllValues().get(0));
+        long secondId = Mocks.requestId(requests.getAllValues().get(1));
+
+        // When
+        webSocketClient.handleMessage(Mocks.resultMessage(secondId));
+
+        // Then
+        assertNotEquals(firstId, secondId);
+        assertTrue(second.get(1, TimeUnit.SECONDS));
+        assertFalse(first.isDone());
+        webSocketClient.handleMessage(Mocks.resultMessage(firstId));
+        assertTrue(first.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void requestTimeoutRetriesTest() throws Exception {
+        // Given / When
+        CompletableFuture<Boolean> request = binanceWebSocketManager.request(0, SubscriptionType.SUBSCRIBE, List.of(BinanceStreams.markPrice(Mocks.SYMBOL)));
+
+        // Then
+        assertFalse(request.get(5, TimeUnit.SECONDS));
+        ArgumentCaptor<TextMessage> attempts = ArgumentCaptor.forClass(TextMessage.class);
+        then(webSocketClient.getSession()).should(Mockito.times(2)).sendMessage(attempts.capture());
+        assertEquals(attempts.getAllValues().get(0).getPayload(), attempts.getAllValues().get(1).getPayload());
+    }
+
     @Test
     void handleConnectionMessageTest() throws InterruptedException {
         // Given
@@ -117,16 +367,34 @@ class BinanceWebSocketManagerTest {
     @Test
     void handleWrongMessageTest() {
         // Given
+        List<WSException> errors = new ArrayList<>();
         binanceWebSocketManager.getPriceUpdates().subscribe(
                 price -> fail("No price should be received"),
-                error -> {
-                    // Then
-                    WSException exception = (WSException) error;
-                    assertEquals("Invalid message received from Binance: {}", exception.getMessage());
-                });
+                error -> fail("The price stream should not terminate"));
+        binanceWebSocketManager.getErrors().subscribe(errors::add);
+
+        // When
+        webSocketClient.handleMessage(Mocks.wrongMessage());
+        webSocketClient.handleMessage(Mocks.wrongMessage());
+
+        // Then
+        assertEquals(2, errors.size());
+        assertEquals("Invalid message received from Binance: {}", errors.get(0).getMessage());
+    }
+
+    @Test
+    void priceAfterErrorTest() throws InterruptedException {
+        // Given
+        CountDownLatch latch = new CountDownLatch(1);
+        binanceWebSocketManager.getPriceUpdates().subscribe(price -> latch.countDown());
 
         // When
         webSocketClient.handleMessage(Mocks.wrongMessage());
+        webSocketClient.handleMessage(Mocks.validMessage());
+
+        // Then
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertNotNull(meterRegistry.find(properties.observability().priceBufferDepthGauge()).gauge());
     }
 
     @Test
@@ -135,8 +403,8 @@ class BinanceWebSocketManagerTest {
         WebSocketClient mockSocketClient = Mockito.mock(WebSocketClient.class);
         CompletableFuture<WebSocketSession> mockFuture = Mockito.mock(CompletableFuture.class);
 
-        binanceWebSocketManager = new BinanceWebSocketManager(properties, meterRegistry);
-        ReflectionTestUtils.setField(binanceWebSocketManager, "client", mockSocketClient);
+        binanceWebSocketManager = new BinanceWebSocketManager(properties, meterRegistry, priceSubscriptionRepository, new SymbolRegistry(Mocks.MAX_SYMBOLS), new PriceLatencyMetrics(meterRegistry, properties));
+        ReflectionTestUtils.setField(binanceWebSocketManager, "clientFactory", (Supplier<WebSocketClient>) () -> mockSocketClient);
 
         given(mockSocketClient.execute(any(TextWebSocketHandler.class), any(String.class))).willReturn(mockFuture);
         willThrow(new InterruptedException("Test exception")).given(mockFuture).get();
@@ -152,28 +420,114 @@ class BinanceWebSocketManagerTest {
         }
 
         private static final String SYMBOL = "BTCUSDT";
+        private static final String OTHER_SYMBOL = "ETH";
+        private static final int POOL_SIZE = 2;
+        private static final int ALL_MARKET_THRESHOLD = 2;
+        private static final int MAX_SYMBOLS = 64;
+        private static final int BUFFER_CAPACITY = 16;
+        private static final int REQUEST_TIMEOUT = 1000;
+
+        private static TextMessage resultMessage(long id) {
+            return new TextMessage("{\"result\":null,\"id\":" + id + "}");
+        }
+
+        private static long requestId(TextMessage request) {
+            Matcher matcher = Pattern.compile("\"id\":(\\d+)").matcher(request.getPayload());
+            assertTrue(matcher.find());
+            return Long.parseLong(matcher.group(1));
+        }
 
         private static final String PRICE_TEXT = "12345.67";
         private static final BigDecimal PRICE = new BigDecimal(PRICE_TEXT);
+        private static final long EVENT_TIME = 1_700_000_000_000L;
 
         private static TextMessage validMessage() {
             return new TextMessage("{\"s\":\"" + SYMBOL + "\",\"p\":" + PRICE_TEXT + "}");
         }
 
+        private static TextMessage eventTimeMessage() {
+            return new TextMessage("{\"e\":\"markPriceUpdate\",\"E\":" + EVENT_TIME + ",\"s\":\"" + SYMBOL + "\",\"p\":\"" + PRICE_TEXT + "\"}");
+        }
+
+        private static PriceLatencyMetrics latencyMetrics() {
+            return new PriceLatencyMetrics(new SimpleMeterRegistry(), properties());
+        }
+
         private static TextMessage connectionMessage() {
             return new TextMessage("{\"result\":null,\"id\":5}");
         }
 
+        private static TextMessage allMarketMessage() {
+            return new TextMessage("[{\"e\":\"markPriceUpdate\",\"s\":\"XRPUSDT\",\"p\":\"0.5\"},"
+                    + "{\"e\":\"markPriceUpdate\",\"s\":\"" + SYMBOL + "\",\"p\":\"" + PRICE_TEXT + "\"}]");
+        }
+
         private static TextMessage wrongMessage() {
             return new TextMessage("{}");
         }
 
         private static BinanceWebSocketProperties properties() {
+            return properties(1);
+        }
+
+        private static final String COMBINED_URL = "wss://fstream.binance.test.com/stream";
+
+        private static int combinedUrlLength(int streams) {
+            return BinanceStreams.combinedUrl(COMBINED_URL, Collections.nCopies(streams, BinanceStreams.markPrice("BTCUSDT"))).length();
+        }
+
+        private static BinanceWebSocketProperties combinedProperties(int maxUrlLength) {
+            return properties(1, BinanceWebSocketProperties.Combined.builder()
+                    .enabled(true)
+                    .url(COMBINED_URL)
+                    .maxUrlLength(maxUrlLength)
+                    .build());
+        }
+
+        private static BinanceWebSocketProperties allMarketProperties() {
+            return properties(1, null, ALL_MARKET_THRESHOLD);
+        }
+
+        private static BinanceWebSocketProperties properties(int poolSize) {
+            return properties(poolSize, null);
+        }
+
+        private static BinanceWebSocketProperties properties(int poolSize, BinanceWebSocketProperties.Combined combined) {
+            return properties(poolSize, combined, 0);
+        }
+
+        private static BinanceWebSocketProperties properties(int poolSize, BinanceWebSocketProperties.Combined combined, int allMarketThreshold) {
             return BinanceWebSocketProperties.builder()
                     .url("wss://fstream.binance.test.com/ws")
                     .retryMaxAttemps(2)
                     .retryInterval(500)
                     .retryIntervalMultiplier(2)
+                    .maxSymbols(MAX_SYMBOLS)
+                    .pool(BinanceWebSocketProperties.Pool.builder()
+                            .size(poolSize)
+                            .maxStreamsPerConnection(200)
+                            .virtualNodes(16)
+                            .build())
+                    .reconnect(BinanceWebSocketProperties.Reconnect.builder()
+                            .maxInterval(1000)
+                            .streamsPerRequest(200)
+                            .build())
+                    .requests(BinanceWebSocketProperties.Requests.builder()
+                            .messagesPerSecond(100)
+                            .maxInFlight(4)
+                            .timeout(REQUEST_TIMEOUT)
+                            .maxRetries(1)
+                            .drainInterval(50)
+                            .build())
+                    .combined(combined)
+                    .buffer(BinanceWebSocketProperties.Buffer.builder()
+                            .capacity(BUFFER_CAPACITY)
+                            .overflowPolicy(BinanceWebSocketProperties.OverflowPolicy.DROP_OLDEST)
+                            .build())
+                    .allMarket(BinanceWebSocketProperties.AllMarket.builder()
+                            .enabled(allMarketThreshold > 0)
+                            .threshold(allMarketThreshold)
+                            .build())
                     .observability(BinanceWebSocketProperties.Observability.builder()
                             .webSocketStatusGauge("web.socket.gauge")
                             .webSocketStatusDescription("web.socket.gauge.description")
@@ -181,6 +535,14 @@ class BinanceWebSocketManagerTest {
                             .webSocketSilenceDescription("web.socket.silence.gauge.description")
                             .webSocketMessagesProcessedCounter("web.socket.messages.processed")
                             .webSocketMessagesIgnoredCounter("web.socket.messages.ignored")
+                            .webSocketStreamsGauge("web.socket.streams")
+                            .webSocketReconnectsCounter("web.socket.reconnects")
+                            .webSocketRecoveryTimer("web.socket.recovery")
+                            .webSocketRestoredSymbolsCounter("web.socket.symbols.restored")
+                            .priceBufferDepthGauge("price.buffer.depth")
+                            .priceBufferHighWaterGauge("price.buffer.high.water")
+                            .priceBufferDropsCounter("price.buffer.drops")
+                            .priceLatencyTimer("price.latency")
                             .build())
                     .build();
         }
@@ -190,11 +552,31 @@ class BinanceWebSocketManagerTest {
             private WebSocketHandler webSocketHandler;
             @Getter
             private WebSocketSession session;
+            @Getter
+            private String uri;
+            @Getter
+            private final List<WebSocketSession> sessions = new CopyOnWriteArrayList<>();
+            // thrown by the sends of the next sessions, one failure per session
+            private final List<Exception> sendFailures = new CopyOnWriteArrayList<>();
+
+            void failSends(Exception... failures) {
+                sendFailures.addAll(List.of(failures));
+            }
 
 
             @Override
             public CompletableFuture<WebSocketSession> execute(WebSocketHandler webSocketHandler, String uriTemplate, Object... uriVariables) {
-                session = Mockito.mock(WebSocketSession.class);
+                uri = uriTemplate;
+                session = Mockito.mock(WebSocketSession.class, withSettings().strictness(Strictness.LENIENT));
+                given(session.isOpen()).willReturn(true);
+                if (!sendFailures.isEmpty()) {
+                    try {
+                        willThrow(sendFailures.remove(0)).given(session).sendMessage(any());
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                sessions.add(session);
                 this.webSocketHandler = webSocketHandler;
                 try {
                     this.webSocketHandler.afterConnectionEstablished(session);
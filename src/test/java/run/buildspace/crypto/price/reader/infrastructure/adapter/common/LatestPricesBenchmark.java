@@ -0,0 +1,75 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures reads of {@link LatestPrices} by {@value #READERS} threads while the dispatch thread keeps writing the same
+ * {@value #SYMBOLS} symbols, i.e. the lookups behind {@code GET /prices/{symbol}} without the HTTP layer.
+ * See the README "Benchmarks" section for how to run it.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatestPricesBenchmark {
+
+    private static final int SYMBOLS = 64;
+    private static final int READERS = 3;
+
+    private LatestPrices latestPrices;
+    private PriceUpdate[] updates;
+    private int writes;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Setup
+    public void setUp() {
+        SymbolRegistry symbolRegistry = new SymbolRegistry(SYMBOLS);
+        BinanceWebSocketManager binanceWebSocketManager = mock(BinanceWebSocketManager.class);
+        given(binanceWebSocketManager.getSymbolRegistry()).willReturn(symbolRegistry);
+        latestPrices = new LatestPrices(binanceWebSocketManager);
+        updates = new PriceUpdate[SYMBOLS];
+        for (int i = 0; i < SYMBOLS; i++) {
+            int symbolId = symbolRegistry.register("SYM" + i);
+            updates[i] = PriceUpdate.builder().symbolId(symbolId).symbol("SYM" + i + "USDT").priceMantissa(1179415000000L + i)
+                    .priceScale((byte) 8).timestamp(1562305380000L).build();
+            latestPrices.update(updates[i]);
+        }
+    }
+
+    @Benchmark
+    @Group("latestPrices")
+    @GroupThreads(1)
+    public void write() {
+        latestPrices.update(updates[writes++ & (SYMBOLS - 1)]);
+    }
+
+    @Benchmark
+    @Group("latestPrices")
+    @GroupThreads(READERS)
+    public PriceUpdate read(Cursor cursor) {
+        return latestPrices.find(cursor.next++ & (SYMBOLS - 1));
+    }
+}
@@ -0,0 +1,132 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Sinks;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class LatestPricesTest {
+
+    @Mock
+    private BinanceWebSocketManager binanceWebSocketManager;
+
+    private SymbolRegistry symbolRegistry;
+    private LatestPrices latestPrices;
+
+    @BeforeEach
+    void setUp() {
+        symbolRegistry = new SymbolRegistry(Mocks.MAX_SYMBOLS);
+        given(binanceWebSocketManager.getSymbolRegistry()).willReturn(symbolRegistry);
+        latestPrices = new LatestPrices(binanceWebSocketManager);
+    }
+
+    @Test
+    void keepsLatestPriceTest() {
+        // given
+        int btc = symbolRegistry.register("BTC");
+        Sinks.Many<PriceUpdate> priceSink = Sinks.many().multicast().directBestEffort();
+        given(binanceWebSocketManager.getPriceUpdates()).willReturn(priceSink.asFlux());
+        latestPrices.start();
+
+        // when
+        priceSink.tryEmitNext(Mocks.priceUpdate(btc, "100.5", 1L));
+        priceSink.tryEmitNext(Mocks.priceUpdate(btc, "101.25", 2L));
+
+        // then
+        PriceUpdate latest = latestPrices.find("BTC");
+        assertEquals("BTC", latest.symbol());
+        assertEquals(new BigDecimal("101.25"), latest.price());
+        assertEquals(2L, latest.timestamp());
+        assertEquals(latest, latestPrices.find(btc));
+        latestPrices.stop();
+    }
+
+    @Test
+    void withoutPriceTest() {
+        // given
+        int btc = symbolRegistry.register("BTC");
+
+        // when
+        latestPrices.update(Mocks.priceUpdate(PriceUpdate.NO_SYMBOL_ID, "100", 1L));
+
+        // then
+        assertNull(latestPrices.find(btc));
+        assertNull(latestPrices.find("ETH"));
+        assertNull(latestPrices.find(Mocks.MAX_SYMBOLS));
+    }
+
+    @Test
+    void findAllTest() {
+        // given
+        int btc = symbolRegistry.register("BTC");
+        int eth = symbolRegistry.register("ETH");
+        symbolRegistry.register("XRP");
+        latestPrices.update(Mocks.priceUpdate(btc, "100", 1L));
+        latestPrices.update(Mocks.priceUpdate(eth, "10", 1L));
+
+        // when
+        List<PriceUpdate> all = latestPrices.findAll();
+        List<PriceUpdate> some = latestPrices.findAll(List.of("ETH", "XRP", "DOGE"));
+
+        // then
+        assertEquals(List.of("BTC", "ETH"), all.stream().map(PriceUpdate::symbol).toList());
+        assertEquals(List.of("ETH"), some.stream().map(PriceUpdate::symbol).toList());
+    }
+
+    @Test
+    void consistentReadsWhileWritingTest() {
+        // given
+        int btc = symbolRegistry.register("BTC");
+        latestPrices.update(Mocks.priceUpdate(btc, "0", 0L));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (long i = 1; i <= Mocks.WRITES; i++) {
+                // scale and timestamp are derived from the mantissa, so a torn read is detectable
+                latestPrices.update(PriceUpdate.builder().symbolId(btc).symbol("BTCUSDT").priceMantissa(i)
+                        .priceScale((byte) (i % 8)).timestamp(i * 8 + i % 8).build());
+            }
+            writing.set(false);
+        });
+
+        // when / then
+        long last = 0;
+        while (writing.get()) {
+            PriceUpdate latest = latestPrices.find(btc);
+            assertEquals(latest.priceMantissa() * 8 + latest.priceScale(), latest.timestamp());
+            assertEquals(latest.priceMantissa() % 8, latest.priceScale());
+            assertTrue(latest.priceMantissa() >= last);
+            last = latest.priceMantissa();
+        }
+        writer.join();
+        assertEquals(Mocks.WRITES, latestPrices.find(btc).priceMantissa());
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int MAX_SYMBOLS = 8;
+        private static final long WRITES = 1_000_000;
+
+        private static PriceUpdate priceUpdate(int symbolId, String price, long timestamp) {
+            return PriceUpdate.builder().symbolId(symbolId).symbol("BTCUSDT").price(new BigDecimal(price)).timestamp(timestamp).build();
+        }
+    }
+}
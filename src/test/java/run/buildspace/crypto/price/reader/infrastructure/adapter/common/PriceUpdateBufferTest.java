@@ -0,0 +1,173 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties.OverflowPolicy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Execution(ExecutionMode.CONCURRENT)
+class PriceUpdateBufferTest {
+
+    @Test
+    void capacityRoundedToPowerOfTwoTest() {
+        // given / when
+        PriceUpdateBuffer buffer = new PriceUpdateBuffer(Mocks.properties(5, OverflowPolicy.DROP_OLDEST), new SimpleMeterRegistry(), Mocks.MAX_SYMBOLS);
+
+        // then
+        assertEquals(8, buffer.capacity());
+    }
+
+    @Test
+    void dropOldestTest() throws InterruptedException {
+        // given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceUpdateBuffer buffer = new PriceUpdateBuffer(Mocks.properties(Mocks.CAPACITY, OverflowPolicy.DROP_OLDEST), meterRegistry, Mocks.MAX_SYMBOLS);
+
+        // when
+        buffer.offer(Mocks.priceUpdate(0, 1));
+        buffer.offer(Mocks.priceUpdate(1, 2));
+        buffer.offer(Mocks.priceUpdate(2, 3));
+
+        // then
+        assertEquals(2, buffer.take().priceMantissa());
+        assertEquals(3, buffer.take().priceMantissa());
+        assertEquals(1.0, Mocks.drops(meterRegistry, OverflowPolicy.DROP_OLDEST));
+    }
+
+    @Test
+    void dropNewestTest() throws InterruptedException {
+        // given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceUpdateBuffer buffer = new PriceUpdateBuffer(Mocks.properties(Mocks.CAPACITY, OverflowPolicy.DROP_NEWEST), meterRegistry, Mocks.MAX_SYMBOLS);
+
+        // when
+        buffer.offer(Mocks.priceUpdate(0, 1));
+        buffer.offer(Mocks.priceUpdate(1, 2));
+        buffer.offer(Mocks.priceUpdate(2, 3));
+
+        // then
+        assertEquals(1, buffer.take().priceMantissa());
+        assertEquals(2, buffer.take().priceMantissa());
+        assertEquals(1.0, Mocks.drops(meterRegistry, OverflowPolicy.DROP_NEWEST));
+    }
+
+    @Test
+    void conflateLatestTest() throws InterruptedException {
+        // given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceUpdateBuffer buffer = new PriceUpdateBuffer(Mocks.properties(Mocks.CAPACITY, OverflowPolicy.CONFLATE_LATEST), meterRegistry, Mocks.MAX_SYMBOLS);
+
+        // when
+        buffer.offer(Mocks.priceUpdate(0, 1));
+        buffer.offer(Mocks.priceUpdate(1, 2));
+        buffer.offer(Mocks.priceUpdate(0, 3));
+        buffer.offer(Mocks.priceUpdate(2, 4));
+
+        // then
+        assertEquals(2, buffer.take().priceMantissa());
+        assertEquals(4, buffer.take().priceMantissa());
+        assertEquals(0, buffer.depth());
+        assertEquals(1.0, Mocks.drops(meterRegistry, OverflowPolicy.CONFLATE_LATEST));
+        assertEquals(1.0, Mocks.drops(meterRegistry, OverflowPolicy.DROP_OLDEST));
+    }
+
+    @Test
+    void dispatchTest() {
+        // given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceUpdateBuffer buffer = new PriceUpdateBuffer(Mocks.properties(Mocks.CAPACITY, OverflowPolicy.DROP_OLDEST), meterRegistry, Mocks.MAX_SYMBOLS);
+        List<PriceUpdate> prices = new CopyOnWriteArrayList<>();
+        buffer.asFlux().subscribe(prices::add);
+
+        // when
+        buffer.offer(Mocks.priceUpdate(0, 1));
+        buffer.offer(Mocks.priceUpdate(1, 2));
+        buffer.start();
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> prices.size() == 2);
+        assertEquals(0, buffer.depth());
+        assertEquals(2.0, meterRegistry.find(Mocks.HIGH_WATER).gauge().value());
+        buffer.shutdown();
+    }
+
+    @Test
+    void countsUndeliveredTest() {
+        // given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceUpdateBuffer buffer = new PriceUpdateBuffer(Mocks.properties(Mocks.CAPACITY, OverflowPolicy.DROP_OLDEST), meterRegistry, Mocks.MAX_SYMBOLS);
+        buffer.start();
+        buffer.offer(Mocks.priceUpdate(0, 1));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> Mocks.drops(meterRegistry, PriceUpdateBuffer.NO_SUBSCRIBER) == 1.0);
+        List<PriceUpdate> prices = new CopyOnWriteArrayList<>();
+        buffer.asFlux().subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(PriceUpdate value) {
+                prices.add(value);
+            }
+        });
+
+        // when
+        buffer.offer(Mocks.priceUpdate(0, 2));
+        buffer.offer(Mocks.priceUpdate(1, 3));
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> Mocks.drops(meterRegistry, PriceUpdateBuffer.NO_DEMAND) == 1.0);
+        assertEquals(List.of(2L), prices.stream().map(PriceUpdate::priceMantissa).toList());
+        buffer.shutdown();
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int CAPACITY = 2;
+        private static final int MAX_SYMBOLS = 8;
+        private static final String DROPS = "price.buffer.drops";
+        private static final String HIGH_WATER = "price.buffer.high.water";
+
+        private static PriceUpdate priceUpdate(int symbolId, long mantissa) {
+            return PriceUpdate.builder().symbolId(symbolId).symbol("SYM" + symbolId + "USDT").priceMantissa(mantissa).priceScale((byte) 0).build();
+        }
+
+        private static double drops(MeterRegistry meterRegistry, OverflowPolicy policy) {
+            return drops(meterRegistry, policy.tag());
+        }
+
+        private static double drops(MeterRegistry meterRegistry, String action) {
+            return meterRegistry.find(DROPS).tag(PriceUpdateBuffer.POLICY_TAG, action).counter().count();
+        }
+
+        private static BinanceWebSocketProperties properties(int capacity, OverflowPolicy policy) {
+            return BinanceWebSocketProperties.builder()
+                    .buffer(BinanceWebSocketProperties.Buffer.builder()
+                            .capacity(capacity)
+                            .overflowPolicy(policy)
+                            .build())
+                    .observability(BinanceWebSocketProperties.Observability.builder()
+                            .priceBufferDepthGauge("price.buffer.depth")
+                            .priceBufferHighWaterGauge(HIGH_WATER)
+                            .priceBufferDropsCounter(DROPS)
+                            .build())
+                    .build();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
 
 
+import run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging.PriceUpdateMessageConverter;
 import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,13 +10,18 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 @Execution(ExecutionMode.CONCURRENT)
@@ -98,17 +104,58 @@ class RabbitMQManagerTest {
         assertEquals(rabbitMQManager.deadLetterQueue().getName(), binding.getDestination());
     }
 
+    @Test
+    void partitionedCurrencyUpdateTest() {
+        // given
+        RabbitMQProperties.Partitions partitions = new RabbitMQProperties.Partitions(true, Mocks.PARTITIONS, "currency-update-partitions", 1000);
+        rabbitMQProperties = Mocks.rabbitMQProperties(partitions);
+        rabbitMQManager = new RabbitMQManager(rabbitMQProperties);
+
+        // when
+        Declarables declarables = rabbitMQManager.partitionedCurrencyUpdate(rabbitMQManager.exchange());
+
+        // then
+        CustomExchange exchange = declarables.getDeclarablesByType(CustomExchange.class).get(0);
+        assertEquals(partitions.exchange(), exchange.getName());
+        assertEquals(RabbitMQManager.CONSISTENT_HASH_EXCHANGE, exchange.getType());
+        List<Queue> queues = declarables.getDeclarablesByType(Queue.class);
+        assertEquals(partitions.count(), queues.size());
+        assertEquals(rabbitMQProperties.partitionQueue(0), queues.get(0).getName());
+        List<Binding> bindings = declarables.getDeclarablesByType(Binding.class);
+        assertEquals(partitions.count() + 1, bindings.size());
+        assertEquals(rabbitMQProperties.exchange(), bindings.get(0).getExchange());
+        assertEquals(partitions.exchange(), bindings.get(0).getDestination());
+        assertEquals(rabbitMQProperties.currencyUpdateRoutingBind(), bindings.get(0).getRoutingKey());
+        assertTrue(bindings.subList(1, bindings.size()).stream().allMatch(it ->
+                it.getExchange().equals(partitions.exchange()) && it.getRoutingKey().equals(RabbitMQManager.PARTITION_WEIGHT)));
+    }
+
     @Test
     void jsonMessageConverterTest() {
         assertInstanceOf(Jackson2JsonMessageConverter.class, rabbitMQManager.jsonMessageConverter());
     }
 
+    @Test
+    void messageConverterTest() {
+        assertInstanceOf(PriceUpdateMessageConverter.class, rabbitMQManager.messageConverter());
+    }
+
     private static class Mocks {
         private Mocks() {
         }
 
+        private static final int PARTITIONS = 3;
+
         private static RabbitMQProperties rabbitMQProperties() {
             return new PodamFactoryImpl().manufacturePojo(RabbitMQProperties.class);
         }
+
+        private static RabbitMQProperties rabbitMQProperties(RabbitMQProperties.Partitions partitions) {
+            RabbitMQProperties properties = rabbitMQProperties();
+            return new RabbitMQProperties(properties.exchange(), properties.currencyUpdateQueue(), properties.currencyUpdateRoutingBind(),
+                    properties.subscriptionQueue(), properties.subscriptionRoutingBind(), properties.currencyErrorUpdateQueue(),
+                    properties.currencyErrorUpdateRoutingBind(), properties.deadLetterExchange(), properties.deadLetterQueue(),
+                    properties.batch(), properties.publisher(), properties.priceFormat(), partitions, properties.outbox());
+        }
     }
 }
\ No newline at end of file
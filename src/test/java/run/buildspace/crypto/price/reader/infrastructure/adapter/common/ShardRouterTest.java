@@ -0,0 +1,133 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class ShardRouterTest {
+
+    @Test
+    void assignFollowsRingTest() {
+        // given
+        ShardRouter router = new ShardRouter(Mocks.SHARDS, Mocks.VIRTUAL_NODES, Mocks.LARGE_CAPACITY);
+        ConsistentHashRing ring = new ConsistentHashRing(Mocks.SHARDS, Mocks.VIRTUAL_NODES);
+
+        // when / then
+        for (int i = 0; i < 100; i++) {
+            assertEquals(ring.nodeFor("SYM" + i), router.assign("SYM" + i));
+        }
+    }
+
+    @Test
+    void assignIsStickyTest() {
+        // given
+        ShardRouter router = new ShardRouter(Mocks.SHARDS, Mocks.VIRTUAL_NODES, Mocks.LARGE_CAPACITY);
+
+        // when
+        int shard = router.assign(Mocks.SYMBOL);
+
+        // then
+        assertEquals(shard, router.assign(Mocks.SYMBOL));
+        assertEquals(shard, router.shardOf(Mocks.SYMBOL));
+        assertEquals(1, router.load(shard));
+    }
+
+    @Test
+    void assignSpreadsSymbolsTest() {
+        // given
+        ShardRouter router = new ShardRouter(Mocks.SHARDS, Mocks.VIRTUAL_NODES, Mocks.LARGE_CAPACITY);
+        Set<Integer> used = new HashSet<>();
+
+        // when
+        for (int i = 0; i < 200; i++) {
+            used.add(router.assign("SYM" + i));
+        }
+
+        // then
+        assertEquals(Mocks.SHARDS, used.size());
+    }
+
+    @Test
+    void fullShardSpillsToNeighbourTest() {
+        // given
+        ShardRouter router = new ShardRouter(Mocks.SHARDS, Mocks.VIRTUAL_NODES, 1);
+        int owner = new ConsistentHashRing(Mocks.SHARDS, Mocks.VIRTUAL_NODES).nodeFor(Mocks.SYMBOL);
+        router.assign(Mocks.SYMBOL);
+
+        // when
+        String sameOwner = Mocks.symbolOwnedBy(owner, Mocks.SYMBOL);
+        int spilled = router.assign(sameOwner);
+
+        // then
+        assertNotEquals(owner, spilled);
+        assertTrue(spilled >= 0);
+    }
+
+    @Test
+    void allShardsFullTest() {
+        // given
+        ShardRouter router = new ShardRouter(1, Mocks.VIRTUAL_NODES, 1);
+        router.assign(Mocks.SYMBOL);
+
+        // when / then
+        assertEquals(ShardRouter.UNASSIGNED, router.assign("ETH"));
+    }
+
+    @Test
+    void releaseFreesCapacityTest() {
+        // given
+        ShardRouter router = new ShardRouter(1, Mocks.VIRTUAL_NODES, 1);
+        router.assign(Mocks.SYMBOL);
+
+        // when
+        router.release(Mocks.SYMBOL);
+
+        // then
+        assertEquals(ShardRouter.UNASSIGNED, router.shardOf(Mocks.SYMBOL));
+        assertEquals(0, router.assign("ETH"));
+    }
+
+    @Test
+    void symbolsOfListsShardAssignmentsTest() {
+        // given
+        ShardRouter router = new ShardRouter(Mocks.SHARDS, Mocks.VIRTUAL_NODES, Mocks.LARGE_CAPACITY);
+        int shard = router.assign(Mocks.SYMBOL);
+        String sameShard = Mocks.symbolOwnedBy(shard, Mocks.SYMBOL);
+        router.assign(sameShard);
+
+        // when
+        List<String> symbols = router.symbolsOf(shard);
+
+        // then
+        assertEquals(Set.of(Mocks.SYMBOL, sameShard), new HashSet<>(symbols));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String SYMBOL = "BTC";
+        private static final int SHARDS = 4;
+        private static final int VIRTUAL_NODES = 32;
+        private static final int LARGE_CAPACITY = 1000;
+
+        private static String symbolOwnedBy(int owner, String exclude) {
+            ConsistentHashRing ring = new ConsistentHashRing(SHARDS, VIRTUAL_NODES);
+            for (int i = 0; ; i++) {
+                String candidate = "SYM" + i;
+                if (!candidate.equals(exclude) && ring.nodeFor(candidate) == owner) {
+                    return candidate;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class SymbolRegistryTest {
+
+    @Test
+    void registerAssignsDenseIdsTest() {
+        // given
+        SymbolRegistry registry = new SymbolRegistry(Mocks.CAPACITY);
+
+        // when
+        int first = registry.register(Mocks.SYMBOL);
+        int second = registry.register("ETH");
+
+        // then
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(first, registry.register(Mocks.SYMBOL));
+        assertEquals(first, registry.find(Mocks.SYMBOL));
+    }
+
+    @Test
+    void registerCachesDerivedDataTest() {
+        // given
+        SymbolRegistry registry = new SymbolRegistry(Mocks.CAPACITY);
+
+        // when
+        SymbolRegistry.Entry entry = registry.entry(registry.register(Mocks.SYMBOL));
+
+        // then
+        assertEquals(Mocks.SYMBOL, entry.symbol());
+        assertEquals(Mocks.EXCHANGE_SYMBOL, entry.exchangeSymbol());
+        assertEquals(BinanceStreams.markPrice(Mocks.SYMBOL), entry.stream());
+        assertEquals(Mocks.EXCHANGE_SYMBOL, entry.tags().stream().filter(tag -> tag.getKey().equals(SymbolRegistry.SYMBOL_TAG)).findFirst().orElseThrow().getValue());
+    }
+
+    @Test
+    void idOfRegionTest() {
+        // given
+        SymbolRegistry registry = new SymbolRegistry(Mocks.CAPACITY);
+        int id = registry.register(Mocks.SYMBOL);
+        String frame = "{\"s\":\"" + Mocks.EXCHANGE_SYMBOL + "\"}";
+        int start = frame.indexOf(Mocks.EXCHANGE_SYMBOL);
+
+        // when / then
+        assertEquals(id, registry.idOf(frame, start, start + Mocks.EXCHANGE_SYMBOL.length()));
+        assertEquals(SymbolRegistry.UNKNOWN, registry.idOf(frame, start, start + 3));
+        assertEquals(SymbolRegistry.UNKNOWN, registry.find("XRP"));
+    }
+
+    @Test
+    void activateTogglesBitTest() {
+        // given
+        SymbolRegistry registry = new SymbolRegistry(Mocks.CAPACITY);
+
+        // when
+        registry.activate(Mocks.SYMBOL);
+        int id = registry.find(Mocks.SYMBOL);
+
+        // then
+        assertTrue(registry.isActive(id));
+        assertEquals(id, registry.activeIdOf(Mocks.EXCHANGE_SYMBOL, 0, Mocks.EXCHANGE_SYMBOL.length()));
+        assertEquals(1, registry.activeCount());
+
+        registry.deactivate(Mocks.SYMBOL);
+        assertFalse(registry.isActive(id));
+        assertEquals(SymbolRegistry.UNKNOWN, registry.activeIdOf(Mocks.EXCHANGE_SYMBOL, 0, Mocks.EXCHANGE_SYMBOL.length()));
+        assertEquals(0, registry.activeCount());
+    }
+
+    @Test
+    void fullRegistryTest() {
+        // given
+        SymbolRegistry registry = new SymbolRegistry(Mocks.CAPACITY);
+        for (int i = 0; i < Mocks.CAPACITY; i++) {
+            assertTrue(registry.activate("SYM" + i));
+        }
+
+        // when / then
+        assertEquals(SymbolRegistry.UNKNOWN, registry.register(Mocks.SYMBOL));
+        assertFalse(registry.activate(Mocks.SYMBOL));
+        assertEquals(Mocks.CAPACITY, registry.activeCount());
+        assertEquals(Mocks.CAPACITY - 1, registry.find("SYM" + (Mocks.CAPACITY - 1)));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String SYMBOL = "BTC";
+        private static final String EXCHANGE_SYMBOL = "BTCUSDT";
+        private static final int CAPACITY = 70;
+    }
+}
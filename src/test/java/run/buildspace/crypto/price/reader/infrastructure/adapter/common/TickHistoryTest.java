@@ -0,0 +1,120 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Sinks;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class TickHistoryTest {
+
+    @Mock
+    private BinanceWebSocketManager binanceWebSocketManager;
+
+    @TempDir
+    private Path directory;
+
+    private SymbolRegistry symbolRegistry;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        symbolRegistry = new SymbolRegistry(Mocks.MAX_SYMBOLS);
+        meterRegistry = new SimpleMeterRegistry();
+        given(binanceWebSocketManager.getSymbolRegistry()).willReturn(symbolRegistry);
+    }
+
+    @Test
+    void recordsPricesTest() {
+        // given
+        int btc = symbolRegistry.register("BTC");
+        int eth = symbolRegistry.register("ETH");
+        Sinks.Many<PriceUpdate> priceSink = Sinks.many().multicast().directBestEffort();
+        given(binanceWebSocketManager.getPriceUpdates()).willReturn(priceSink.asFlux());
+        TickHistory tickHistory = new TickHistory(binanceWebSocketManager, Mocks.properties(directory, true), meterRegistry,
+                new BlockingThreads(false));
+        tickHistory.start();
+
+        // when
+        priceSink.tryEmitNext(Mocks.priceUpdate(btc, "BTCUSDT", "100.5", Mocks.START));
+        priceSink.tryEmitNext(Mocks.priceUpdate(eth, "ETHUSDT", "10", Mocks.START + 1));
+        priceSink.tryEmitNext(Mocks.priceUpdate(btc, "BTCUSDT", "101.25", Mocks.START + 2));
+        priceSink.tryEmitNext(Mocks.priceUpdate(btc, "BTCUSDT", "99", Mocks.START + 1));
+        priceSink.tryEmitNext(Mocks.priceUpdate(PriceUpdate.NO_SYMBOL_ID, "XRPUSDT", "1", Mocks.START + 3));
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> meterRegistry.get(TickHistory.SKIPPED_COUNTER).counter().count() == 1);
+        Ticks ticks = tickHistory.find("btc", Mocks.START, Mocks.START + 10);
+        assertEquals(2, ticks.size());
+        assertEquals(Mocks.START + 2, ticks.timestamp(1));
+        assertEquals(0, new BigDecimal("101.25").compareTo(ticks.price(1)));
+        assertEquals(3.0, meterRegistry.get(TickHistory.WRITTEN_COUNTER).counter().count());
+        assertEquals(2.0, meterRegistry.get(TickHistory.SEGMENTS_GAUGE).gauge().value());
+        assertEquals(1.0, meterRegistry.get(TickHistory.READ_TIMER).timer().count());
+        tickHistory.stop();
+    }
+
+    @Test
+    void disabledTest() {
+        // given
+        TickHistory tickHistory = new TickHistory(binanceWebSocketManager, Mocks.properties(directory, false), meterRegistry,
+                new BlockingThreads(false));
+
+        // when
+        tickHistory.start();
+
+        // then
+        assertFalse(tickHistory.enabled());
+        assertTrue(tickHistory.find("BTC", 0, Long.MAX_VALUE).isEmpty());
+        then(binanceWebSocketManager).should(never()).getPriceUpdates();
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int MAX_SYMBOLS = 8;
+        private static final long START = 1_700_000_000_000L;
+
+        private static PriceUpdate priceUpdate(int symbolId, String symbol, String price, long timestamp) {
+            return PriceUpdate.builder().symbolId(symbolId).symbol(symbol).price(new BigDecimal(price)).timestamp(timestamp).build();
+        }
+
+        private static BinanceWebSocketProperties properties(Path directory, boolean enabled) {
+            return BinanceWebSocketProperties.builder()
+                    .history(BinanceWebSocketProperties.History.builder()
+                            .enabled(enabled)
+                            .directory(directory.toString())
+                            .segmentSize(64 * 1024)
+                            .partition(TimeUnit.HOURS.toMillis(1))
+                            .retention(TimeUnit.DAYS.toMillis(1))
+                            .priceScale(8)
+                            .queueCapacity(16)
+                            .build())
+                    .build();
+        }
+    }
+}
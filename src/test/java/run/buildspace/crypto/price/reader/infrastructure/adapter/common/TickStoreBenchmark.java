@@ -0,0 +1,137 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the {@link TickStore}: appends of ticks for {@value #SYMBOLS} symbols, retention included, and reads of a
+ * {@value #WINDOW} ms window, one tick per ms, summed over the mapped records. {@code readSealed} reads a window of an
+ * older, sealed segment, mapped once on its first read; {@code readActive} one of the segment being written.
+ * See the README "Benchmarks" section for how to run it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickStoreBenchmark {
+
+    private static final int SYMBOLS = 64;
+    private static final int SEGMENT_SIZE = 1 << 20;
+    private static final long PARTITION = 10_000;
+    private static final long RETENTION = 10 * PARTITION;
+    private static final long WINDOW = 1_000;
+    private static final long START = 1_700_000_000_000L;
+    private static final String[] NAMES = new String[SYMBOLS];
+
+    static {
+        for (int i = 0; i < SYMBOLS; i++) {
+            NAMES[i] = "SYM" + i + "USDT";
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private Path directory;
+        private TickStore store;
+        private long ticks;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("tick-store-write");
+            store = new TickStore(directory, SEGMENT_SIZE, PARTITION, RETENTION, 8);
+            ticks = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Reader {
+        private Path directory;
+        private TickStore store;
+        private long end;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("tick-store-read");
+            store = new TickStore(directory, SEGMENT_SIZE, PARTITION, RETENTION, 8);
+            end = START + 3 * PARTITION + PARTITION / 2;
+            for (long timestamp = START; timestamp < end; timestamp++) {
+                for (String name : NAMES) {
+                    store.append(name, timestamp, 1179415000000L + timestamp % 1000, 8);
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    /**
+     * One tick per ms and symbol, cycling through the symbols; retention runs every {@code PARTITION} ms of tick time.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean append(Writer writer) {
+        long tick = writer.ticks++;
+        long timestamp = START + tick / SYMBOLS;
+        if (tick % (PARTITION * SYMBOLS) == 0) {
+            writer.store.expire(timestamp);
+        }
+        return writer.store.append(NAMES[(int) (tick % SYMBOLS)], timestamp, 1179415000000L + tick, 8);
+    }
+
+    @Benchmark
+    public long readSealed(Reader reader, Cursor cursor) {
+        return sum(reader.store.find(NAMES[cursor.next++ & (SYMBOLS - 1)], START + PARTITION, START + PARTITION + WINDOW - 1));
+    }
+
+    @Benchmark
+    public long readActive(Reader reader, Cursor cursor) {
+        return sum(reader.store.find(NAMES[cursor.next++ & (SYMBOLS - 1)], reader.end - WINDOW, reader.end - 1));
+    }
+
+    private static long sum(Ticks ticks) {
+        long sum = 0;
+        for (int i = 0; i < ticks.size(); i++) {
+            sum += ticks.priceMantissa(i);
+        }
+        return sum;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
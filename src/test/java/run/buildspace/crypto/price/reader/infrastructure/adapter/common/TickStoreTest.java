@@ -0,0 +1,209 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class TickStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void findRangeTest() {
+        // given
+        TickStore store = Mocks.store(directory);
+        for (int i = 0; i < Mocks.TICKS_PER_SEGMENT * 3; i++) {
+            store.append(Mocks.SYMBOL, Mocks.START + i, 10_000 + i, 2);
+        }
+
+        // when
+        Ticks ticks = store.find(Mocks.SYMBOL, Mocks.START + 50, Mocks.START + 149);
+
+        // then
+        assertEquals(100, ticks.size());
+        assertEquals(Mocks.START + 50, ticks.timestamp(0));
+        assertEquals(Mocks.START + 149, ticks.timestamp(99));
+        assertEquals(0, new BigDecimal("100.50").compareTo(ticks.price(0)));
+        assertEquals(Mocks.PRICE_SCALE, ticks.priceScale());
+        assertTrue(store.find(Mocks.SYMBOL, Mocks.START - 10, Mocks.START - 1).isEmpty());
+        assertTrue(store.find("ETHUSDT", Mocks.START, Mocks.START + 10).isEmpty());
+    }
+
+    @Test
+    void duplicateTimestampsTest() {
+        // given
+        TickStore store = Mocks.store(directory);
+        for (int i = 0; i < Mocks.TICKS_PER_SEGMENT; i++) {
+            store.append(Mocks.SYMBOL, Mocks.START + i / 10, i, 0);
+        }
+
+        // when
+        Ticks ticks = store.find(Mocks.SYMBOL, Mocks.START + 2, Mocks.START + 2);
+
+        // then
+        assertEquals(10, ticks.size());
+        assertEquals(20, ticks.priceMantissa(0) / Mocks.SCALE_FACTOR);
+        assertEquals(29, ticks.priceMantissa(9) / Mocks.SCALE_FACTOR);
+    }
+
+    @Test
+    void rollsOnPartitionAndCapacityTest() throws IOException {
+        // given
+        TickStore store = Mocks.store(directory);
+
+        // when
+        for (int i = 0; i < Mocks.TICKS_PER_SEGMENT + 1; i++) {
+            store.append(Mocks.SYMBOL, Mocks.START + i, i, 0);
+        }
+        store.append(Mocks.SYMBOL, Mocks.START + Mocks.PARTITION, 1, 0);
+
+        // then
+        assertEquals(3, store.segments());
+        assertEquals(3, Mocks.segments(directory));
+        assertEquals(Mocks.TICKS_PER_SEGMENT + 2, store.find(Mocks.SYMBOL, 0, Long.MAX_VALUE).size());
+        assertEquals(Mocks.SEALED_SIZE + Mocks.sealedSize(1) + Mocks.SEGMENT_SIZE, store.size());
+    }
+
+    @Test
+    void skipsOutOfOrderTest() {
+        // given
+        TickStore store = Mocks.store(directory);
+        store.append(Mocks.SYMBOL, Mocks.START + 10, 1, 0);
+
+        // when
+        boolean older = store.append(Mocks.SYMBOL, Mocks.START + 5, 2, 0);
+        boolean overflowing = store.append(Mocks.SYMBOL, Mocks.START + 11, Long.MAX_VALUE, 0);
+        boolean unrepresentable = store.append(Mocks.SYMBOL, Mocks.START + 12, 1, Mocks.PRICE_SCALE + 19);
+
+        // then
+        assertFalse(older);
+        assertFalse(overflowing);
+        assertFalse(unrepresentable);
+        assertEquals(1, store.find(Mocks.SYMBOL, 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    void expireTest() throws IOException {
+        // given
+        TickStore store = Mocks.store(directory);
+        for (int partition = 0; partition < 4; partition++) {
+            store.append(Mocks.SYMBOL, Mocks.START + partition * Mocks.PARTITION, partition, 0);
+        }
+
+        // when
+        int expired = store.expire(Mocks.START + 2 * Mocks.PARTITION + Mocks.RETENTION);
+
+        // then
+        assertEquals(2, expired);
+        assertEquals(2, Mocks.segments(directory));
+        assertEquals(2, store.segments());
+        Ticks ticks = store.find(Mocks.SYMBOL, 0, Long.MAX_VALUE);
+        assertEquals(2, ticks.size());
+        assertEquals(Mocks.START + 2 * Mocks.PARTITION, ticks.timestamp(0));
+    }
+
+    @Test
+    void viewOutlivesSealAndExpiryTest() {
+        // given
+        TickStore store = Mocks.store(directory);
+        for (int i = 0; i < 10; i++) {
+            store.append(Mocks.SYMBOL, Mocks.START + i, i, 0);
+        }
+        Ticks ticks = store.find(Mocks.SYMBOL, Mocks.START, Mocks.START + 9);
+
+        // when
+        store.append(Mocks.SYMBOL, Mocks.START + Mocks.PARTITION, 10, 0);
+        store.expire(Mocks.START + Mocks.PARTITION + Mocks.RETENTION);
+
+        // then
+        assertEquals(10, ticks.size());
+        assertEquals(Mocks.START + 9, ticks.timestamp(9));
+        assertEquals(9 * Mocks.SCALE_FACTOR, ticks.priceMantissa(9));
+        assertTrue(store.find(Mocks.SYMBOL, Mocks.START, Mocks.START + 9).isEmpty());
+    }
+
+    @Test
+    void reopenTest() {
+        // given
+        TickStore store = Mocks.store(directory);
+        for (int i = 0; i < Mocks.TICKS_PER_SEGMENT + 10; i++) {
+            store.append(Mocks.SYMBOL, Mocks.START + i, i, 0);
+        }
+        store.flush();
+
+        // when
+        TickStore reopened = Mocks.store(directory);
+        boolean older = reopened.append(Mocks.SYMBOL, Mocks.START, 0, 0);
+        boolean newer = reopened.append(Mocks.SYMBOL, Mocks.START + 200, 200, 0);
+
+        // then
+        assertFalse(older);
+        assertTrue(newer);
+        assertEquals(3, reopened.segments());
+        Ticks ticks = reopened.find(Mocks.SYMBOL, Mocks.START + 60, Long.MAX_VALUE);
+        assertEquals(Mocks.TICKS_PER_SEGMENT + 10 - 60 + 1, ticks.size());
+        assertEquals(Mocks.START + 200, ticks.timestamp(ticks.size() - 1));
+    }
+
+    @Test
+    void reopenAtOtherScaleTest() {
+        // given
+        TickStore store = Mocks.store(directory);
+        store.append(Mocks.SYMBOL, Mocks.START, 1, 0);
+        store.flush();
+
+        // when / then
+        assertThrows(IllegalStateException.class, () -> new TickStore(directory, Mocks.SEGMENT_SIZE, Mocks.PARTITION,
+                Mocks.RETENTION, Mocks.PRICE_SCALE + 1));
+    }
+
+    @Test
+    void segmentTooSmallTest() {
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> new TickStore(directory, TickSegment.HEADER + TickSegment.RECORD,
+                Mocks.PARTITION, Mocks.RETENTION, Mocks.PRICE_SCALE));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String SYMBOL = "BTCUSDT";
+        private static final int TICKS_PER_SEGMENT = TickSegment.INDEX_INTERVAL * 2;
+        private static final int SEGMENT_SIZE = TickSegment.HEADER + TICKS_PER_SEGMENT * TickSegment.RECORD + 2 * Long.BYTES;
+        private static final long SEALED_SIZE = SEGMENT_SIZE;
+        private static final long START = 1_700_000_000_000L;
+        private static final long PARTITION = 1_000_000;
+        private static final long RETENTION = 10 * PARTITION;
+        private static final int PRICE_SCALE = 4;
+        private static final long SCALE_FACTOR = 10_000;
+
+        private static TickStore store(Path directory) {
+            return new TickStore(directory, SEGMENT_SIZE, PARTITION, RETENTION, PRICE_SCALE);
+        }
+
+        private static long sealedSize(int ticks) {
+            return TickSegment.HEADER + (long) ticks * TickSegment.RECORD + Long.BYTES;
+        }
+
+        private static long segments(Path directory) throws IOException {
+            try (Stream<Path> files = Files.walk(directory)) {
+                return files.filter(Files::isRegularFile).count();
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class TokenBucketTest {
+
+    @Test
+    void burstUpToCapacityTest() throws InterruptedException {
+        // given
+        TokenBucket bucket = new TokenBucket(Mocks.PERMITS_PER_SECOND);
+
+        // when
+        long start = System.nanoTime();
+        for (int i = 0; i < Mocks.PERMITS_PER_SECOND; i++) {
+            bucket.acquire();
+        }
+
+        // then
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, bucket.available());
+    }
+
+    @Test
+    void pacesBeyondCapacityTest() throws InterruptedException {
+        // given
+        TokenBucket bucket = new TokenBucket(Mocks.PERMITS_PER_SECOND);
+        for (int i = 0; i < Mocks.PERMITS_PER_SECOND; i++) {
+            bucket.acquire();
+        }
+
+        // when
+        long start = System.nanoTime();
+        bucket.acquire();
+        bucket.acquire();
+
+        // then
+        long expected = 2 * TimeUnit.SECONDS.toNanos(1) / Mocks.PERMITS_PER_SECOND;
+        assertTrue(System.nanoTime() - start >= expected * 9 / 10);
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int PERMITS_PER_SECOND = 20;
+    }
+}
@@ -1,5 +1,7 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,8 +12,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Sinks;
 import run.buildspace.crypto.price.reader.application.port.in.ForPriceProcessing;
+import run.buildspace.crypto.price.reader.domain.exception.WSException;
 import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
 import run.buildspace.crypto.price.reader.infrastructure.adapter.common.BinanceWebSocketManager;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 import java.util.concurrent.CountDownLatch;
@@ -19,6 +26,8 @@ import java.util.concurrent.TimeUnit;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 
 
 @Execution(ExecutionMode.CONCURRENT)
@@ -31,13 +40,22 @@ class BinancePriceListenerTest {
     private BinanceWebSocketManager binanceWebSocketManager;
     @Mock
     private ForPriceProcessing forPriceProcessing;
+    @Mock
+    private BinanceWebSocketProperties properties;
+    @Mock
+    private MeterRegistry meterRegistry;
+    @Mock
+    private PriceLatencyMetrics latencyMetrics;
 
     private Sinks.Many<PriceUpdate> priceSink;
+    private Sinks.Many<WSException> errorSink;
 
     @BeforeEach
     void setUp() {
         priceSink = Sinks.many().multicast().directBestEffort();
+        errorSink = Sinks.many().multicast().directBestEffort();
         given(binanceWebSocketManager.getPriceUpdates()).willReturn(priceSink.asFlux());
+        given(binanceWebSocketManager.getErrors()).willReturn(errorSink.asFlux());
     }
 
     @Test
@@ -54,11 +72,107 @@ class BinancePriceListenerTest {
         
         // then
         then(forPriceProcessing).should().processPrice(priceUpdate);
+        then(latencyMetrics).should().record(PriceLatencyMetrics.Stage.DISPATCH, priceUpdate);
+    }
+
+    @Test
+    void errorKeepsPriceStreamTest() {
+        // given
+        PriceUpdate priceUpdate = Mocks.priceUpdate();
+        binancePriceListener.run();
+
+        // when
+        errorSink.tryEmitNext(new WSException(Mocks.ERROR));
+        priceSink.tryEmitNext(priceUpdate);
+
+        // then
+        then(forPriceProcessing).should().processError(Mocks.ERROR);
+        then(forPriceProcessing).should().processPrice(priceUpdate);
+    }
+
+    @Test
+    void conflatedMessageTest() {
+        // given
+        SymbolRegistry symbolRegistry = new SymbolRegistry(Mocks.MAX_SYMBOLS);
+        PriceUpdate priceUpdate = PriceUpdate.builder().symbolId(symbolRegistry.register("BTC")).symbol("BTCUSDT").priceMantissa(1).priceScale((byte) 0).build();
+        given(binanceWebSocketManager.getSymbolRegistry()).willReturn(symbolRegistry);
+        BinancePriceListener conflated = new BinancePriceListener(binanceWebSocketManager, forPriceProcessing, Mocks.conflationProperties(), new SimpleMeterRegistry(), latencyMetrics, new BlockingThreads(false));
+        conflated.run();
+
+        // when
+        priceSink.tryEmitNext(priceUpdate);
+
+        // then
+        then(forPriceProcessing).should(timeout(5000)).processPrice(priceUpdate);
+        conflated.stop();
+    }
+
+    @Test
+    void deadbandMessageTest() {
+        // given
+        SymbolRegistry symbolRegistry = new SymbolRegistry(Mocks.MAX_SYMBOLS);
+        int btc = symbolRegistry.register("BTC");
+        PriceUpdate first = PriceUpdate.builder().symbolId(btc).symbol("BTCUSDT").priceMantissa(10000).priceScale((byte) 2).build();
+        PriceUpdate unchanged = PriceUpdate.builder().symbolId(btc).symbol("BTCUSDT").priceMantissa(100000).priceScale((byte) 3).build();
+        given(binanceWebSocketManager.getSymbolRegistry()).willReturn(symbolRegistry);
+        BinancePriceListener filtered = new BinancePriceListener(binanceWebSocketManager, forPriceProcessing, Mocks.deadbandProperties(), new SimpleMeterRegistry(), latencyMetrics, new BlockingThreads(false));
+        filtered.run();
+
+        // when
+        priceSink.tryEmitNext(first);
+        priceSink.tryEmitNext(unchanged);
+
+        // then
+        then(forPriceProcessing).should().processPrice(first);
+        then(forPriceProcessing).should(never()).processPrice(unchanged);
+    }
+
+    @Test
+    void laneMessageTest() {
+        // given
+        PriceUpdate priceUpdate = Mocks.priceUpdate();
+        BinancePriceListener laned = new BinancePriceListener(binanceWebSocketManager, forPriceProcessing, Mocks.laneProperties(), new SimpleMeterRegistry(), latencyMetrics, new BlockingThreads(false));
+        laned.run();
+
+        // when
+        priceSink.tryEmitNext(priceUpdate);
+
+        // then
+        then(forPriceProcessing).should(timeout(5000)).processPrice(priceUpdate);
+        laned.stop();
     }
 
     private static class Mocks{
         private Mocks() {
         }
+        private static final String ERROR = "Invalid message received from Binance: {}";
+        private static final int MAX_SYMBOLS = 8;
+
+        private static BinanceWebSocketProperties conflationProperties() {
+            return BinanceWebSocketProperties.builder()
+                    .conflation(BinanceWebSocketProperties.Conflation.builder().enabled(true).build())
+                    .observability(BinanceWebSocketProperties.Observability.builder()
+                            .priceConflationCoalescedCounter("price.conflation.coalesced")
+                            .build())
+                    .build();
+        }
+        private static BinanceWebSocketProperties deadbandProperties() {
+            return BinanceWebSocketProperties.builder()
+                    .deadband(BinanceWebSocketProperties.Deadband.builder().enabled(true).basisPoints(1).maxSilence(60000).build())
+                    .observability(BinanceWebSocketProperties.Observability.builder()
+                            .priceDeadbandSuppressedCounter("price.deadband.suppressed")
+                            .build())
+                    .build();
+        }
+        private static BinanceWebSocketProperties laneProperties() {
+            return BinanceWebSocketProperties.builder()
+                    .lanes(BinanceWebSocketProperties.Lanes.builder().enabled(true).count(2).queueCapacity(8).build())
+                    .observability(BinanceWebSocketProperties.Observability.builder()
+                            .priceLaneDepthGauge("price.lanes.depth")
+                            .priceLaneServiceTimer("price.lanes.service")
+                            .build())
+                    .build();
+        }
         private static PriceUpdate priceUpdate(){
             return new PodamFactoryImpl().manufacturePojo(PriceUpdate.class);
         }
@@ -0,0 +1,95 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Execution(ExecutionMode.CONCURRENT)
+class PriceConflatorTest {
+
+    @Test
+    void keepsLatestPerSymbolTest() {
+        // given
+        SymbolRegistry symbolRegistry = new SymbolRegistry(Mocks.MAX_SYMBOLS);
+        int btc = symbolRegistry.register("BTC");
+        int eth = symbolRegistry.register("ETH");
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<PriceUpdate> prices = new CopyOnWriteArrayList<>();
+        PriceConflator conflator = new PriceConflator(symbolRegistry, meterRegistry, Mocks.COALESCED, prices::add, new BlockingThreads(false));
+
+        // when
+        conflator.offer(Mocks.priceUpdate(btc, "BTCUSDT", 1));
+        conflator.offer(Mocks.priceUpdate(eth, "ETHUSDT", 2));
+        conflator.offer(Mocks.priceUpdate(btc, "BTCUSDT", 3));
+        conflator.offer(Mocks.priceUpdate(btc, "BTCUSDT", 4));
+        conflator.start();
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> prices.size() == 2);
+        assertEquals(4, prices.get(0).priceMantissa());
+        assertEquals(2, prices.get(1).priceMantissa());
+        assertEquals(2.0, conflator.coalescedCount(btc));
+        assertEquals(0.0, conflator.coalescedCount(eth));
+        assertEquals(2.0, meterRegistry.find(Mocks.COALESCED).tag("symbol", "BTCUSDT").counter().count());
+        conflator.shutdown();
+    }
+
+    @Test
+    void deliversAfterDrainTest() {
+        // given
+        SymbolRegistry symbolRegistry = new SymbolRegistry(Mocks.MAX_SYMBOLS);
+        int btc = symbolRegistry.register("BTC");
+        List<PriceUpdate> prices = new CopyOnWriteArrayList<>();
+        PriceConflator conflator = new PriceConflator(symbolRegistry, new SimpleMeterRegistry(), Mocks.COALESCED, prices::add, new BlockingThreads(false));
+        conflator.start();
+
+        // when
+        conflator.offer(Mocks.priceUpdate(btc, "BTCUSDT", 1));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> prices.size() == 1);
+        conflator.offer(Mocks.priceUpdate(btc, "BTCUSDT", 2));
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> prices.size() == 2);
+        assertEquals(2, prices.get(1).priceMantissa());
+        assertEquals(0.0, conflator.coalescedCount(btc));
+        conflator.shutdown();
+    }
+
+    @Test
+    void unknownSymbolBypassesSlotsTest() {
+        // given
+        List<PriceUpdate> prices = new CopyOnWriteArrayList<>();
+        PriceConflator conflator = new PriceConflator(new SymbolRegistry(Mocks.MAX_SYMBOLS), new SimpleMeterRegistry(), Mocks.COALESCED, prices::add, new BlockingThreads(false));
+        PriceUpdate priceUpdate = Mocks.priceUpdate(PriceUpdate.NO_SYMBOL_ID, "XRPUSDT", 1);
+
+        // when
+        conflator.offer(priceUpdate);
+
+        // then
+        assertEquals(List.of(priceUpdate), prices);
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int MAX_SYMBOLS = 8;
+        private static final String COALESCED = "price.conflation.coalesced";
+
+        private static PriceUpdate priceUpdate(int symbolId, String symbol, long mantissa) {
+            return PriceUpdate.builder().symbolId(symbolId).symbol(symbol).priceMantissa(mantissa).priceScale((byte) 0).build();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class PriceDeadbandTest {
+
+    private SymbolRegistry symbolRegistry;
+    private MeterRegistry meterRegistry;
+    private final AtomicLong clock = new AtomicLong();
+    private int btc;
+
+    @BeforeEach
+    void setUp() {
+        symbolRegistry = new SymbolRegistry(Mocks.MAX_SYMBOLS);
+        meterRegistry = new SimpleMeterRegistry();
+        btc = symbolRegistry.register("BTC");
+    }
+
+    @Test
+    void basisPointsTest() {
+        // given
+        PriceDeadband deadband = deadband(0, 10, 0);
+
+        // when / then
+        assertTrue(deadband.test(Mocks.priceUpdate(btc, "100.00")));
+        assertFalse(deadband.test(Mocks.priceUpdate(btc, "100.05")));
+        assertFalse(deadband.test(Mocks.priceUpdate(btc, "99.95")));
+        assertTrue(deadband.test(Mocks.priceUpdate(btc, "100.20")));
+        assertFalse(deadband.test(Mocks.priceUpdate(btc, "100.25")));
+        assertEquals(3, deadband.suppressedCount(btc));
+        assertEquals(3, meterRegistry.get(Mocks.SUPPRESSED).tag("symbol", "BTCUSDT").functionCounter().count());
+    }
+
+    @Test
+    void absoluteTest() {
+        // given
+        PriceDeadband deadband = deadband(0.5, 0, 0);
+
+        // when / then
+        assertTrue(deadband.test(Mocks.priceUpdate(btc, "100")));
+        assertFalse(deadband.test(Mocks.priceUpdate(btc, "100.4")));
+        assertTrue(deadband.test(Mocks.priceUpdate(btc, "99.5")));
+    }
+
+    @Test
+    void anyChangeWithoutThresholdsTest() {
+        // given
+        PriceDeadband deadband = deadband(0, 0, 0);
+
+        // when / then
+        assertTrue(deadband.test(Mocks.priceUpdate(btc, "100")));
+        assertFalse(deadband.test(Mocks.priceUpdate(btc, "100.000")));
+        assertTrue(deadband.test(Mocks.priceUpdate(btc, "100.001")));
+    }
+
+    @Test
+    void heartbeatTest() {
+        // given
+        PriceDeadband deadband = deadband(0, 10, 1000);
+        assertTrue(deadband.test(Mocks.priceUpdate(btc, "100")));
+
+        // when
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        boolean beforeSilence = deadband.test(Mocks.priceUpdate(btc, "100"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        boolean afterSilence = deadband.test(Mocks.priceUpdate(btc, "100"));
+
+        // then
+        assertFalse(beforeSilence);
+        assertTrue(afterSilence);
+        assertFalse(deadband.test(Mocks.priceUpdate(btc, "100")));
+    }
+
+    @Test
+    void unknownSymbolPassesTest() {
+        // given
+        PriceDeadband deadband = deadband(0, 10, 0);
+
+        // when / then
+        assertTrue(deadband.test(Mocks.priceUpdate(PriceUpdate.NO_SYMBOL_ID, "100")));
+        assertTrue(deadband.test(Mocks.priceUpdate(PriceUpdate.NO_SYMBOL_ID, "100")));
+    }
+
+    private PriceDeadband deadband(double absolute, double basisPoints, long maxSilence) {
+        BinanceWebSocketProperties.Deadband properties = BinanceWebSocketProperties.Deadband.builder()
+                .enabled(true).absolute(absolute).basisPoints(basisPoints).maxSilence(maxSilence).build();
+        return new PriceDeadband(properties, symbolRegistry, meterRegistry, Mocks.SUPPRESSED, clock::get);
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int MAX_SYMBOLS = 8;
+        private static final String SUPPRESSED = "price.deadband.suppressed";
+
+        private static PriceUpdate priceUpdate(int symbolId, String price) {
+            return PriceUpdate.builder().symbolId(symbolId).symbol("BTCUSDT").price(new BigDecimal(price)).build();
+        }
+    }
+}
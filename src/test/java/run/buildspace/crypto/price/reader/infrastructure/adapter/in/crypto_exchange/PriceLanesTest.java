@@ -0,0 +1,118 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class PriceLanesTest {
+
+    @Test
+    void keepsOrderPerSymbolTest() {
+        // given
+        Map<Integer, List<Long>> prices = new ConcurrentHashMap<>();
+        Map<Integer, String> threads = new ConcurrentHashMap<>();
+        PriceLanes lanes = new PriceLanes(Mocks.LANES, Mocks.CAPACITY, new SimpleMeterRegistry(), Mocks.DEPTH, Mocks.SERVICE, price -> {
+            prices.computeIfAbsent(price.symbolId(), it -> new CopyOnWriteArrayList<>()).add(price.priceMantissa());
+            threads.putIfAbsent(price.symbolId(), Thread.currentThread().getName());
+        }, new BlockingThreads(false));
+        lanes.start();
+
+        // when
+        for (int mantissa = 0; mantissa < 100; mantissa++) {
+            for (int symbolId = 0; symbolId < Mocks.SYMBOLS; symbolId++) {
+                lanes.offer(Mocks.priceUpdate(symbolId, mantissa));
+            }
+        }
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> prices.values().stream().mapToInt(List::size).sum() == 100 * Mocks.SYMBOLS);
+        for (int symbolId = 0; symbolId < Mocks.SYMBOLS; symbolId++) {
+            List<Long> received = prices.get(symbolId);
+            for (int i = 0; i < received.size(); i++) {
+                assertEquals(i, received.get(i));
+            }
+        }
+        assertNotEquals(threads.get(0), threads.get(1));
+        assertEquals(threads.get(0), threads.get(Mocks.LANES));
+        lanes.shutdown();
+    }
+
+    @Test
+    void laneMetricsTest() throws InterruptedException {
+        // given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        PriceLanes lanes = new PriceLanes(Mocks.LANES, Mocks.CAPACITY, meterRegistry, Mocks.DEPTH, Mocks.SERVICE, price -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, new BlockingThreads(false));
+        lanes.start();
+
+        // when
+        lanes.offer(Mocks.priceUpdate(0, 1));
+        lanes.offer(Mocks.priceUpdate(0, 2));
+        lanes.offer(Mocks.priceUpdate(0, 3));
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> depth(meterRegistry, "0") == 2);
+        assertEquals(0, depth(meterRegistry, "1"));
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() ->
+                meterRegistry.get(Mocks.SERVICE).tag(PriceLanes.LANE_TAG, "0").timer().count() == 3);
+        assertTrue(meterRegistry.get(Mocks.SERVICE).tag(PriceLanes.LANE_TAG, "0").timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+        lanes.shutdown();
+    }
+
+    @Test
+    void laneWithoutSymbolIdTest() {
+        // given
+        PriceLanes lanes = new PriceLanes(Mocks.LANES, Mocks.CAPACITY, new SimpleMeterRegistry(), Mocks.DEPTH, Mocks.SERVICE, price -> {
+        }, new BlockingThreads(false));
+
+        // when
+        int first = lanes.laneIndex(PriceUpdate.builder().symbol("BTCUSDT").priceMantissa(1).priceScale((byte) 0).build());
+        int second = lanes.laneIndex(PriceUpdate.builder().symbol("BTCUSDT").priceMantissa(2).priceScale((byte) 0).build());
+
+        // then
+        assertEquals(first, second);
+    }
+
+    private static double depth(MeterRegistry meterRegistry, String lane) {
+        return meterRegistry.get(Mocks.DEPTH).tag(PriceLanes.LANE_TAG, lane).gauge().value();
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int LANES = 4;
+        private static final int CAPACITY = 16;
+        private static final int SYMBOLS = 8;
+        private static final String DEPTH = "price.lanes.depth";
+        private static final String SERVICE = "price.lanes.service";
+
+        private static PriceUpdate priceUpdate(int symbolId, long mantissa) {
+            return PriceUpdate.builder().symbolId(symbolId).symbol("S" + symbolId).priceMantissa(mantissa).priceScale((byte) 0).build();
+        }
+    }
+}
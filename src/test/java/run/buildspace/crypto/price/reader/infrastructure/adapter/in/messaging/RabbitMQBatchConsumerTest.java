@@ -0,0 +1,115 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.messaging;
+
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import run.buildspace.crypto.price.reader.application.port.in.ForSubscriptionUpdate;
+import run.buildspace.crypto.price.reader.domain.model.PendingSubscription;
+import run.buildspace.crypto.price.reader.domain.model.Subscription;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class RabbitMQBatchConsumerTest {
+
+    @InjectMocks
+    private RabbitMQBatchConsumer rabbitMQBatchConsumer;
+
+    @Mock
+    private ForSubscriptionUpdate forSubscriptionUpdate;
+
+    @Mock
+    private Channel channel;
+
+    private ArgumentCaptor<List<PendingSubscription>> pendingSubscriptionsCaptor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        pendingSubscriptionsCaptor = ArgumentCaptor.forClass(List.class);
+    }
+
+    @Test
+    void batchAcknowledgesEachMessageTest() throws IOException {
+        // given
+        willDoNothing().given(forSubscriptionUpdate).handleSubscriptions(pendingSubscriptionsCaptor.capture());
+
+        // when
+        rabbitMQBatchConsumer.receiveMessages(Mocks.messages(), channel);
+        pendingSubscriptionsCaptor.getValue().forEach(it -> it.onSuccess().run());
+
+        // then
+        then(channel).should().basicAck(Mocks.FIRST_DELIVERY_TAG, false);
+        then(channel).should().basicAck(Mocks.LAST_DELIVERY_TAG, false);
+        then(channel).should(never()).basicAck(anyLong(), eq(true));
+        then(channel).should(never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void batchNotAcknowledgedUntilSettledTest() throws IOException {
+        // given
+        willDoNothing().given(forSubscriptionUpdate).handleSubscriptions(pendingSubscriptionsCaptor.capture());
+
+        // when
+        rabbitMQBatchConsumer.receiveMessages(Mocks.messages(), channel);
+        pendingSubscriptionsCaptor.getValue().get(0).onSuccess().run();
+
+        // then
+        then(channel).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void batchWithFailureSendsSingleACKAndNACKTest() throws IOException {
+        // given
+        willDoNothing().given(forSubscriptionUpdate).handleSubscriptions(pendingSubscriptionsCaptor.capture());
+
+        // when
+        rabbitMQBatchConsumer.receiveMessages(Mocks.messages(), channel);
+        List<PendingSubscription> pendingSubscriptions = pendingSubscriptionsCaptor.getValue();
+        pendingSubscriptions.get(0).onSuccess().run();
+        pendingSubscriptions.get(1).onFailure().run();
+
+        // then
+        then(channel).should().basicAck(Mocks.FIRST_DELIVERY_TAG, false);
+        then(channel).should().basicNack(Mocks.LAST_DELIVERY_TAG, false, true);
+        then(channel).should(never()).basicAck(anyLong(), eq(true));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final long FIRST_DELIVERY_TAG = 1L;
+        private static final long LAST_DELIVERY_TAG = 2L;
+
+        private static List<Message<Subscription>> messages() {
+            return List.of(message(FIRST_DELIVERY_TAG), message(LAST_DELIVERY_TAG));
+        }
+
+        private static Message<Subscription> message(long deliveryTag) {
+            return MessageBuilder.withPayload(new PodamFactoryImpl().manufacturePojo(Subscription.class))
+                    .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag)
+                    .build();
+        }
+    }
+}
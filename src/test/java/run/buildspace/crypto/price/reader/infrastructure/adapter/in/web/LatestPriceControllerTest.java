@@ -0,0 +1,94 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.LatestPrices;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class LatestPriceControllerTest {
+
+    @InjectMocks
+    private LatestPriceController latestPriceController;
+
+    @Mock
+    private LatestPrices latestPrices;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(latestPriceController).build();
+    }
+
+    @Test
+    void priceTest() {
+        // given
+        given(latestPrices.find("BTC")).willReturn(Mocks.priceUpdate("BTC", "101.25"));
+
+        // when / then
+        webTestClient.get().uri("/prices/BTC").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.symbol").isEqualTo("BTC")
+                .jsonPath("$.price").isEqualTo(101.25)
+                .jsonPath("$.timestamp").isEqualTo(Mocks.TIMESTAMP);
+    }
+
+    @Test
+    void priceNotFoundTest() {
+        // when / then
+        webTestClient.get().uri("/prices/DOGE").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void pricesTest() {
+        // given
+        given(latestPrices.findAll()).willReturn(List.of(Mocks.priceUpdate("BTC", "100"), Mocks.priceUpdate("ETH", "10")));
+
+        // when / then
+        webTestClient.get().uri("/prices").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].symbol").isEqualTo("ETH");
+    }
+
+    @Test
+    void pricesOfSymbolsTest() {
+        // given
+        given(latestPrices.findAll(List.of("ETH", "DOGE"))).willReturn(List.of(Mocks.priceUpdate("ETH", "10")));
+
+        // when / then
+        webTestClient.get().uri("/prices?symbols=ETH,DOGE").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].symbol").isEqualTo("ETH");
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final long TIMESTAMP = 1562305380000L;
+
+        private static PriceUpdate priceUpdate(String symbol, String price) {
+            return PriceUpdate.builder().symbolId(0).symbol(symbol).price(new BigDecimal(price)).timestamp(TIMESTAMP).build();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Schedulers;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.LatestPrices;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class PriceFanOutTest {
+
+    @Mock
+    private LatestPrices latestPrices;
+
+    private final Map<Integer, PriceUpdate> table = new ConcurrentHashMap<>();
+    private SymbolRegistry symbolRegistry;
+    private MeterRegistry meterRegistry;
+    private PriceFanOut priceFanOut;
+    private IntConsumer stored;
+    private int btc;
+    private int eth;
+
+    @BeforeEach
+    void setUp() {
+        symbolRegistry = new SymbolRegistry(Mocks.MAX_SYMBOLS);
+        btc = symbolRegistry.register("BTC");
+        eth = symbolRegistry.register("ETH");
+        meterRegistry = new SimpleMeterRegistry();
+        given(latestPrices.capacity()).willReturn(Mocks.MAX_SYMBOLS);
+        lenient().when(latestPrices.has(anyInt())).thenAnswer(invocation -> table.containsKey(invocation.<Integer>getArgument(0)));
+        lenient().when(latestPrices.find(anyInt())).thenAnswer(invocation -> table.get(invocation.<Integer>getArgument(0)));
+        priceFanOut = start(new PriceFanOut(latestPrices, symbolRegistry, meterRegistry, Schedulers.immediate(), Schedulers.immediate()));
+    }
+
+    @Test
+    void filtersSymbolsTest() {
+        // given
+        Client client = new Client(Long.MAX_VALUE);
+        priceFanOut.stream(List.of("eth"), Mocks.TRANSPORT).subscribe(client);
+
+        // when
+        store(btc, 1);
+        store(eth, 2);
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> client.received.size() == 1);
+        assertEquals("ETH", client.received.get(0).symbol());
+        client.dispose();
+    }
+
+    @Test
+    void startsWithLatestPricesTest() {
+        // given
+        store(btc, 1);
+        store(eth, 2);
+        Client client = new Client(Long.MAX_VALUE);
+
+        // when
+        priceFanOut.stream(List.of(), Mocks.TRANSPORT).subscribe(client);
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> client.received.size() == 2);
+        assertEquals(List.of(1L, 2L), client.received.stream().map(PriceUpdate::priceMantissa).toList());
+        client.dispose();
+    }
+
+    @Test
+    void conflatesSlowClientTest() {
+        // given
+        Client slow = new Client(0);
+        Client fast = new Client(Long.MAX_VALUE);
+        priceFanOut.stream(List.of(), Mocks.TRANSPORT).subscribe(slow);
+        priceFanOut.stream(List.of(), Mocks.FAST_TRANSPORT).subscribe(fast);
+
+        // when
+        for (long mantissa = 1; mantissa <= Mocks.PRICES; mantissa++) {
+            store(btc, mantissa);
+        }
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> lastMantissa(fast) == Mocks.PRICES);
+        assertEquals(1.0, gauge(PriceFanOut.CLIENTS_GAUGE));
+        assertEquals(1.0, meterRegistry.get(PriceFanOut.LAG_GAUGE).gauge().value());
+        assertEquals(Mocks.PRICES - Mocks.PREFETCH - 1, drops(Mocks.TRANSPORT));
+        slow.request(Long.MAX_VALUE);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> lastMantissa(slow) == Mocks.PRICES);
+        assertEquals(Mocks.PREFETCH + 1, slow.received.size());
+        slow.dispose();
+        fast.dispose();
+        assertEquals(0.0, gauge(PriceFanOut.CLIENTS_GAUGE));
+        assertEquals(Mocks.PRICES - Mocks.PREFETCH - 1, drops(Mocks.TRANSPORT));
+    }
+
+    @Test
+    void drainsOffDispatchThreadTest() {
+        // given
+        PriceFanOut asyncFanOut = start(new PriceFanOut(latestPrices, symbolRegistry, meterRegistry, Schedulers.newSingle("fan-out-test"),
+                Schedulers.parallel()));
+        Set<Thread> readers = ConcurrentHashMap.newKeySet();
+        given(latestPrices.find(anyInt())).willAnswer(invocation -> {
+            readers.add(Thread.currentThread());
+            return table.get(invocation.<Integer>getArgument(0));
+        });
+        Client client = new Client(Long.MAX_VALUE);
+        asyncFanOut.stream(List.of("btc"), Mocks.ASYNC_TRANSPORT).subscribe(client);
+
+        // when
+        for (long mantissa = 1; mantissa <= Mocks.PRICES; mantissa++) {
+            store(btc, mantissa);
+        }
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> lastMantissa(client) == Mocks.PRICES);
+        assertFalse(readers.contains(Thread.currentThread()));
+        assertEquals(Mocks.PRICES, client.received.size() + (long) drops(Mocks.ASYNC_TRANSPORT));
+        client.dispose();
+        asyncFanOut.stop();
+    }
+
+    private PriceFanOut start(PriceFanOut fanOut) {
+        fanOut.start();
+        ArgumentCaptor<IntConsumer> listener = ArgumentCaptor.forClass(IntConsumer.class);
+        then(latestPrices).should(atLeastOnce()).listen(listener.capture());
+        stored = listener.getValue();
+        return fanOut;
+    }
+
+    private double drops(String transport) {
+        return meterRegistry.get(PriceFanOut.DROPS_COUNTER).tag(PriceFanOut.TRANSPORT_TAG, transport).counter().count();
+    }
+
+    private void store(int symbolId, long mantissa) {
+        table.put(symbolId, PriceUpdate.builder().symbolId(symbolId).symbol(symbolRegistry.entry(symbolId).symbol())
+                .priceMantissa(mantissa).priceScale((byte) 0).build());
+        stored.accept(symbolId);
+    }
+
+    private static long lastMantissa(Client client) {
+        return client.received.isEmpty() ? 0 : client.received.get(client.received.size() - 1).priceMantissa();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag(PriceFanOut.TRANSPORT_TAG, Mocks.TRANSPORT).gauge().value();
+    }
+
+    private static class Client extends BaseSubscriber<PriceUpdate> {
+        private final List<PriceUpdate> received = new CopyOnWriteArrayList<>();
+        private final long initialRequest;
+
+        private Client(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialRequest > 0) {
+                request(initialRequest);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(PriceUpdate value) {
+            received.add(value);
+        }
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int MAX_SYMBOLS = 8;
+        private static final int PRICES = 50;
+        // prices publishOn takes ahead of the subscriber
+        private static final int PREFETCH = 8;
+        private static final String TRANSPORT = "test";
+        private static final String FAST_TRANSPORT = "fast";
+        private static final String ASYNC_TRANSPORT = "async";
+    }
+}
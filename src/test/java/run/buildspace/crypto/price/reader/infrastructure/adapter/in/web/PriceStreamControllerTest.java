@@ -0,0 +1,73 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.web.dto.LatestPriceResponse;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class PriceStreamControllerTest {
+
+    @InjectMocks
+    private PriceStreamController priceStreamController;
+
+    @Mock
+    private PriceFanOut priceFanOut;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(priceStreamController).build();
+    }
+
+    @Test
+    void streamTest() {
+        // given
+        given(priceFanOut.stream(List.of("BTC", "ETH"), PriceStreamController.TRANSPORT))
+                .willReturn(Flux.just(Mocks.priceUpdate("BTC", "100"), Mocks.priceUpdate("ETH", "10")));
+
+        // when
+        List<ServerSentEvent<LatestPriceResponse>> events = webTestClient.get().uri("/prices/stream?symbols=BTC,ETH")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<LatestPriceResponse>>() {
+                })
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // then
+        assertEquals(List.of("BTC", "ETH"), events.stream().map(ServerSentEvent::event).toList());
+        assertEquals(new BigDecimal("10"), events.get(1).data().price());
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static PriceUpdate priceUpdate(String symbol, String price) {
+            return PriceUpdate.builder().symbolId(0).symbol(symbol).price(new BigDecimal(price)).build();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.BinanceWebSocketManager;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.LatestPrices;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.in.web.dto.LatestPriceResponse;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Load test of the price streams over real local connections: thousands of SSE and WebSocket clients, each filtered to
+ * one symbol, while prices are emitted as fast as the dispatch thread can store them. Every client must end on the
+ * last price of its symbol, whatever it skipped on the way.
+ */
+class PriceStreamLoadITTest {
+
+    private AnnotationConfigApplicationContext context;
+    private DisposableServer server;
+    private final List<Disposable> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(Mocks.StreamConfig.class);
+        server = HttpServer.create().host(Mocks.HOST).port(0)
+                .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.applicationContext(context).build()))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.forEach(Disposable::dispose);
+        server.disposeNow();
+        context.close();
+    }
+
+    @Test
+    void thousandsOfClientsTest() {
+        // given
+        SymbolRegistry symbolRegistry = context.getBean(SymbolRegistry.class);
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        Sinks.Many<PriceUpdate> priceSink = context.getBean(Mocks.StreamConfig.class).priceSink;
+        int[] symbolIds = new int[Mocks.SYMBOLS];
+        for (int i = 0; i < Mocks.SYMBOLS; i++) {
+            symbolIds[i] = symbolRegistry.register(Mocks.symbol(i));
+        }
+        AtomicReferenceArray<BigDecimal> sseLast = new AtomicReferenceArray<>(Mocks.SSE_CLIENTS);
+        AtomicReferenceArray<BigDecimal> wsLast = new AtomicReferenceArray<>(Mocks.WS_CLIENTS);
+        connectSse(sseLast);
+        connectWebSocket(wsLast, context.getBean(ObjectMapper.class));
+        await().atMost(60, TimeUnit.SECONDS).until(() -> clients(meterRegistry, PriceStreamController.TRANSPORT) == Mocks.SSE_CLIENTS
+                && clients(meterRegistry, PriceStreamWebSocketHandler.TRANSPORT) == Mocks.WS_CLIENTS);
+
+        // when
+        long start = System.nanoTime();
+        for (long round = 1; round <= Mocks.ROUNDS; round++) {
+            for (int i = 0; i < Mocks.SYMBOLS; i++) {
+                priceSink.tryEmitNext(PriceUpdate.builder().symbolId(symbolIds[i]).symbol(Mocks.symbol(i) + "USDT")
+                        .priceMantissa(round).priceScale((byte) 0).build());
+            }
+        }
+
+        // then
+        BigDecimal last = BigDecimal.valueOf(Mocks.ROUNDS);
+        await().atMost(60, TimeUnit.SECONDS).until(() -> allReached(sseLast, last) && allReached(wsLast, last));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        clients.forEach(Disposable::dispose);
+        await().atMost(30, TimeUnit.SECONDS).until(() -> clients(meterRegistry, PriceStreamController.TRANSPORT) == 0
+                && clients(meterRegistry, PriceStreamWebSocketHandler.TRANSPORT) == 0);
+        System.out.printf("%d clients got the last of %d prices in %d ms, %.0f dropped%n", Mocks.SSE_CLIENTS + Mocks.WS_CLIENTS,
+                Mocks.ROUNDS * Mocks.SYMBOLS, elapsedMillis, drops(meterRegistry));
+        assertEquals(0.0, meterRegistry.get(PriceFanOut.LAG_GAUGE).gauge().value());
+    }
+
+    private void connectSse(AtomicReferenceArray<BigDecimal> last) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://" + Mocks.HOST + ":" + server.port())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(ConnectionProvider.builder("sse")
+                        .maxConnections(Mocks.SSE_CLIENTS).pendingAcquireMaxCount(-1).build())))
+                .build();
+        for (int i = 0; i < Mocks.SSE_CLIENTS; i++) {
+            int client = i;
+            clients.add(webClient.get().uri("/prices/stream?symbols={symbol}", Mocks.symbol(i % Mocks.SYMBOLS))
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<LatestPriceResponse>>() {
+                    })
+                    .subscribe(event -> last.set(client, event.data().price())));
+        }
+    }
+
+    private void connectWebSocket(AtomicReferenceArray<BigDecimal> last, ObjectMapper objectMapper) {
+        ReactorNettyWebSocketClient webSocketClient = new ReactorNettyWebSocketClient();
+        for (int i = 0; i < Mocks.WS_CLIENTS; i++) {
+            int client = i;
+            URI uri = URI.create("ws://" + Mocks.HOST + ":" + server.port() + PriceStreamWebSocketHandler.PATH
+                    + "?symbols=" + Mocks.symbol(i % Mocks.SYMBOLS));
+            clients.add(webSocketClient.execute(uri, session -> session.receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .doOnNext(json -> last.set(client, Mocks.price(objectMapper, json)))
+                    .then()).subscribe());
+        }
+    }
+
+    private static boolean allReached(AtomicReferenceArray<BigDecimal> last, BigDecimal price) {
+        for (int i = 0; i < last.length(); i++) {
+            if (last.get(i) == null || last.get(i).compareTo(price) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double clients(MeterRegistry meterRegistry, String transport) {
+        return meterRegistry.find(PriceFanOut.CLIENTS_GAUGE).tag(PriceFanOut.TRANSPORT_TAG, transport).gauges().stream()
+                .mapToDouble(it -> it.value()).sum();
+    }
+
+    private static double drops(MeterRegistry meterRegistry) {
+        return meterRegistry.find(PriceFanOut.DROPS_COUNTER).counters().stream().mapToDouble(it -> it.count()).sum();
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String HOST = "localhost";
+        private static final int SSE_CLIENTS = 2000;
+        private static final int WS_CLIENTS = 500;
+        private static final int SYMBOLS = 50;
+        private static final int MAX_SYMBOLS = 64;
+        private static final long ROUNDS = 200;
+
+        private static String symbol(int i) {
+            return "SYM" + i;
+        }
+
+        private static BigDecimal price(ObjectMapper objectMapper, String json) {
+            try {
+                return objectMapper.readValue(json, LatestPriceResponse.class).price();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Configuration
+        @EnableWebFlux
+        @Import({PriceFanOut.class, PriceStreamController.class, PriceStreamWebSocketHandler.class, PriceStreamRoutes.class})
+        static class StreamConfig {
+            private final Sinks.Many<PriceUpdate> priceSink = Sinks.many().multicast().directBestEffort();
+
+            @Bean
+            SymbolRegistry symbolRegistry() {
+                return new SymbolRegistry(MAX_SYMBOLS);
+            }
+
+            @Bean
+            LatestPrices latestPrices(SymbolRegistry symbolRegistry) {
+                BinanceWebSocketManager binanceWebSocketManager = mock(BinanceWebSocketManager.class);
+                given(binanceWebSocketManager.getSymbolRegistry()).willReturn(symbolRegistry);
+                given(binanceWebSocketManager.getPriceUpdates()).willReturn(priceSink.asFlux());
+                return new LatestPrices(binanceWebSocketManager);
+            }
+
+            @Bean
+            MeterRegistry meterRegistry() {
+                return new SimpleMeterRegistry();
+            }
+
+            @Bean
+            ObjectMapper objectMapper() {
+                return new ObjectMapper();
+            }
+        }
+    }
+}
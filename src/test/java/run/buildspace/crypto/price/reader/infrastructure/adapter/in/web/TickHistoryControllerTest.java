@@ -0,0 +1,72 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.in.web;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.TickHistory;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.Ticks;
+
+import java.math.BigDecimal;
+
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class TickHistoryControllerTest {
+
+    @InjectMocks
+    private TickHistoryController tickHistoryController;
+
+    @Mock
+    private TickHistory tickHistory;
+
+    @Mock
+    private Ticks ticks;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(tickHistoryController).build();
+    }
+
+    @Test
+    void historyTest() {
+        // given
+        given(tickHistory.find("BTC", Mocks.FROM, Mocks.TO)).willReturn(ticks);
+        given(ticks.size()).willReturn(2);
+        given(ticks.timestamp(0)).willReturn(Mocks.FROM);
+        given(ticks.timestamp(1)).willReturn(Mocks.TO);
+        given(ticks.price(0)).willReturn(new BigDecimal("100.5"));
+        given(ticks.price(1)).willReturn(new BigDecimal("101.25"));
+
+        // when / then
+        webTestClient.get().uri("/prices/BTC/history?from={from}&to={to}", Mocks.FROM, Mocks.TO).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].timestamp").isEqualTo(Mocks.FROM)
+                .jsonPath("$[1].price").isEqualTo(101.25);
+    }
+
+    @Test
+    void missingWindowTest() {
+        // when / then
+        webTestClient.get().uri("/prices/BTC/history?from={from}", Mocks.FROM).exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final long FROM = 1_700_000_000_000L;
+        private static final long TO = FROM + 1000;
+    }
+}
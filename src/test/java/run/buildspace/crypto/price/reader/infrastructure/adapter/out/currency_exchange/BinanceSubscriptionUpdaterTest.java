@@ -1,9 +1,11 @@
 package run.buildspace.crypto.price.reader.infrastructure.adapter.out.currency_exchange;
 
-import run.buildspace.crypto.price.reader.domain.exception.BinanceSubscriptionException;
 import run.buildspace.crypto.price.reader.infrastructure.adapter.common.BinanceWebSocketManager;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.ShardRouter;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
 import run.buildspace.crypto.price.reader.infrastructure.adapter.in.crypto_exchange.dto.SubscriptionType;
 import run.buildspace.crypto.price.reader.infrastructure.adapter.out.currency_exchange.dto.BinancePendingSubscription;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,24 +15,30 @@ import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,13 +54,26 @@ class BinanceSubscriptionUpdaterTest {
     @Mock
     private WebSocketSession socket;
 
-    private ArgumentCaptor<TextMessage> subscriptionCaptor = ArgumentCaptor.forClass(TextMessage.class);
+    @Spy
+    private BlockingThreads blockingThreads = new BlockingThreads(false);
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<String>> streamsCaptor = ArgumentCaptor.forClass(List.class);
 
     private BlockingQueue<BinancePendingSubscription> subscriptionsPool;
     private BlockingQueue<BinancePendingSubscription> unsubscriptionsPool;
 
+    private ShardRouter shardRouter;
+
+    private SymbolRegistry symbolRegistry;
+
     @BeforeEach
     void setUp() {
+        shardRouter = new ShardRouter(Mocks.POOL_SIZE, Mocks.VIRTUAL_NODES, Mocks.CAPACITY);
+        lenient().when(binanceWebSocketManager.getPoolSize()).thenReturn(Mocks.POOL_SIZE);
+        lenient().when(binanceWebSocketManager.getShardRouter()).thenReturn(shardRouter);
+        symbolRegistry = new SymbolRegistry(Mocks.CAPACITY);
+        lenient().when(binanceWebSocketManager.getSymbolRegistry()).thenReturn(symbolRegistry);
         this.subscriptionsPool = (BlockingQueue<BinancePendingSubscription>) ReflectionTestUtils
                 .getField(binanceSubscriptionUpdater, "subscriptionsPool");
         this.unsubscriptionsPool = (BlockingQueue<BinancePendingSubscription>) ReflectionTestUtils
@@ -67,9 +88,125 @@ class BinanceSubscriptionUpdaterTest {
         BinancePendingSubscription pendingSubscription = subscriptionsPool.poll(1, TimeUnit.SECONDS);
         Assertions.assertNotNull(pendingSubscription);
         assertEquals(Mocks.CURRENCY, pendingSubscription.symbol());
+        assertEquals(symbolRegistry.find(Mocks.CURRENCY), pendingSubscription.symbolId());
         pendingSubscription.callback().accept(true);
     }
 
+    @Test
+    void pendingCountTest() throws InterruptedException {
+        // when
+        binanceSubscriptionUpdater.subscribe(Mocks.CURRENCY, Assertions::assertTrue);
+        binanceSubscriptionUpdater.unsubscribe(Mocks.CURRENCY, Assertions::assertTrue);
+
+        // then
+        assertEquals(1, binanceSubscriptionUpdater.pendingSubscriptions());
+        assertEquals(1, binanceSubscriptionUpdater.pendingUnsubscriptions());
+        subscriptionsPool.poll(1, TimeUnit.SECONDS).callback().accept(true);
+        unsubscriptionsPool.poll(1, TimeUnit.SECONDS).callback().accept(true);
+        assertEquals(0, binanceSubscriptionUpdater.pendingSubscriptions());
+        assertEquals(0, binanceSubscriptionUpdater.pendingUnsubscriptions());
+    }
+
+    @Test
+    void subscribeAlreadyStreamedTest() {
+        // given
+        shardRouter.assign(Mocks.CURRENCY);
+
+        // when
+        binanceSubscriptionUpdater.subscribe(Mocks.CURRENCY, Assertions::assertTrue);
+
+        // then
+        assertEquals(0, subscriptionsPool.size());
+    }
+
+    @Test
+    void subscribeWhileInFlightTest() throws IOException {
+        // given
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        List<Boolean> first = new ArrayList<>();
+        List<Boolean> second = new ArrayList<>();
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
+        given(socket.isOpen()).willReturn(true);
+        given(binanceWebSocketManager.request(eq(Mocks.CONNECTION), eq(SubscriptionType.SUBSCRIBE), any())).willReturn(response);
+        binanceSubscriptionUpdater.subscribe(Mocks.CURRENCY, first::add);
+        binanceSubscriptionUpdater.manageSubscriptions();
+
+        // when
+        binanceSubscriptionUpdater.subscribe(Mocks.CURRENCY, second::add);
+
+        // then
+        assertTrue(second.isEmpty());
+        assertEquals(0, subscriptionsPool.size());
+        assertEquals(2, binanceSubscriptionUpdater.pendingSubscriptions());
+        response.complete(false);
+        assertEquals(List.of(false), first);
+        assertEquals(List.of(false), second);
+        assertEquals(0, binanceSubscriptionUpdater.pendingSubscriptions());
+        assertEquals(ShardRouter.UNASSIGNED, shardRouter.shardOf(Mocks.CURRENCY));
+    }
+
+    @Test
+    void liveSubscriptionsTest() throws IOException {
+        // given
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
+        given(socket.isOpen()).willReturn(true);
+        given(binanceWebSocketManager.request(eq(Mocks.CONNECTION), eq(SubscriptionType.SUBSCRIBE), any())).willReturn(response);
+        shardRouter.assign(Mocks.OTHER_CURRENCY);
+        binanceSubscriptionUpdater.subscribe(Mocks.CURRENCY, Assertions::assertTrue);
+
+        // when
+        binanceSubscriptionUpdater.manageSubscriptions();
+
+        // then
+        assertEquals(1, binanceSubscriptionUpdater.liveSubscriptions());
+        response.complete(true);
+        assertEquals(2, binanceSubscriptionUpdater.liveSubscriptions());
+    }
+
+    @Test
+    void subscribeAllMarketTest() {
+        // given
+        given(binanceWebSocketManager.isAllMarket()).willReturn(true);
+
+        // when
+        binanceSubscriptionUpdater.subscribe(Mocks.CURRENCY, Assertions::assertTrue);
+
+        // then
+        assertEquals(0, subscriptionsPool.size());
+        assertTrue(symbolRegistry.isActive(symbolRegistry.find(Mocks.CURRENCY)));
+    }
+
+    @Test
+    void unsubscribeAllMarketTest() {
+        // given
+        given(binanceWebSocketManager.isAllMarket()).willReturn(true);
+        symbolRegistry.activate(Mocks.CURRENCY);
+
+        // when
+        binanceSubscriptionUpdater.unsubscribe(Mocks.CURRENCY, Assertions::assertTrue);
+
+        // then
+        assertEquals(0, unsubscriptionsPool.size());
+        assertEquals(0, symbolRegistry.activeCount());
+    }
+
+    @Test
+    void allMarketThresholdTest() throws IOException {
+        // given
+        given(binanceWebSocketManager.allMarketThresholdReached(1)).willReturn(true);
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertTrue));
+
+        // when
+        binanceSubscriptionUpdater.manageSubscriptions();
+
+        // then
+        then(binanceWebSocketManager).should().enableAllMarket();
+        assertEquals(0, subscriptionsPool.size());
+        assertTrue(symbolRegistry.isActive(symbolRegistry.find(Mocks.CURRENCY)));
+        then(socket).shouldHaveNoInteractions();
+    }
+
     @Test
     void unsubscribeTest() throws InterruptedException {
         // when
@@ -85,11 +222,12 @@ class BinanceSubscriptionUpdaterTest {
     @Test
     void manageSubscriptionsTest() throws IOException {
         // given
-        given(binanceWebSocketManager.getSocket()).willReturn(socket);
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
         given(socket.isOpen()).willReturn(true);
-        willDoNothing().given(socket).sendMessage(subscriptionCaptor.capture());
-        subscriptionsPool.add(new BinancePendingSubscription(Mocks.CURRENCY, Assertions::assertTrue));
-        unsubscriptionsPool.add(new BinancePendingSubscription(Mocks.CURRENCY, Assertions::assertTrue));
+        given(binanceWebSocketManager.request(eq(Mocks.CONNECTION), any(SubscriptionType.class), streamsCaptor.capture()))
+                .willReturn(CompletableFuture.completedFuture(true));
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertTrue));
+        unsubscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertTrue));
 
         // when
         binanceSubscriptionUpdater.manageSubscriptions();
@@ -98,13 +236,95 @@ class BinanceSubscriptionUpdaterTest {
         assertEquals(0, subscriptionsPool.size());
         assertEquals(0, unsubscriptionsPool.size());
 
-        List<TextMessage> messages = subscriptionCaptor.getAllValues();
-        assertEquals(2, messages.size());
-        assertTrue(messages.get(0).getPayload().contains(SubscriptionType.SUBSCRIBE.name()));
-        assertTrue(messages.get(0).getPayload().contains(Mocks.CURRENCY.toLowerCase() + "usdt@markPrice@1s"));
-        assertTrue(messages.get(1).getPayload().contains(SubscriptionType.UNSUBSCRIBE.name()));
-        assertTrue(messages.get(1).getPayload().contains(Mocks.CURRENCY.toLowerCase() + "usdt@markPrice@1s"));
+        then(binanceWebSocketManager).should().request(eq(Mocks.CONNECTION), eq(SubscriptionType.SUBSCRIBE), any());
+        then(binanceWebSocketManager).should().request(eq(Mocks.CONNECTION), eq(SubscriptionType.UNSUBSCRIBE), any());
+        List<List<String>> streams = streamsCaptor.getAllValues();
+        assertEquals(2, streams.size());
+        assertEquals(List.of(Mocks.CURRENCY.toLowerCase() + "usdt@markPrice@1s"), streams.get(0));
+        assertEquals(List.of(Mocks.CURRENCY.toLowerCase() + "usdt@markPrice@1s"), streams.get(1));
+        assertEquals(ShardRouter.UNASSIGNED, shardRouter.shardOf(Mocks.CURRENCY));
+
+    }
+
+    @Test
+    void subscriptionKeepsConnectionAssignmentTest() throws IOException {
+        // given
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
+        given(socket.isOpen()).willReturn(true);
+        given(binanceWebSocketManager.request(eq(Mocks.CONNECTION), eq(SubscriptionType.SUBSCRIBE), any()))
+                .willReturn(CompletableFuture.completedFuture(true));
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertTrue));
+
+        // when
+        binanceSubscriptionUpdater.manageSubscriptions();
+
+        // then
+        assertEquals(Mocks.CONNECTION, shardRouter.shardOf(Mocks.CURRENCY));
+    }
+
+    @Test
+    void subscriptionCompletesOnConfirmationTest() throws IOException {
+        // given
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        List<Boolean> results = new ArrayList<>();
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
+        given(socket.isOpen()).willReturn(true);
+        given(binanceWebSocketManager.request(eq(Mocks.CONNECTION), eq(SubscriptionType.SUBSCRIBE), any())).willReturn(response);
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, results::add));
+
+        // when
+        binanceSubscriptionUpdater.manageSubscriptions();
+
+        // then
+        assertTrue(results.isEmpty());
+        response.complete(true);
+        assertEquals(List.of(true), results);
+        assertEquals(Mocks.CONNECTION, shardRouter.shardOf(Mocks.CURRENCY));
+    }
+
+    @Test
+    void subscriptionNotConfirmedTest() throws IOException {
+        // given
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
+        given(socket.isOpen()).willReturn(true);
+        given(binanceWebSocketManager.request(eq(Mocks.CONNECTION), eq(SubscriptionType.SUBSCRIBE), any()))
+                .willReturn(CompletableFuture.completedFuture(false));
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertFalse));
+
+        // when
+        binanceSubscriptionUpdater.manageSubscriptions();
+
+        // then
+        assertEquals(ShardRouter.UNASSIGNED, shardRouter.shardOf(Mocks.CURRENCY));
+    }
+
+    @Test
+    void unsubscribeUnknownSymbolTest() {
+        // given
+        unsubscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertTrue));
+
+        // when
+        binanceSubscriptionUpdater.manageSubscriptions();
+
+        // then
+        assertEquals(0, unsubscriptionsPool.size());
+        then(socket).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void noConnectionWithRoomTest() {
+        // given
+        for (int i = 0; i < Mocks.CAPACITY; i++) {
+            shardRouter.assign("SYMBOL" + i);
+        }
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertFalse));
+
+        // when
+        binanceSubscriptionUpdater.manageSubscriptions();
 
+        // then
+        assertEquals(ShardRouter.UNASSIGNED, shardRouter.shardOf(Mocks.CURRENCY));
+        then(socket).shouldHaveNoInteractions();
     }
 
     @Test
@@ -123,16 +343,17 @@ class BinanceSubscriptionUpdaterTest {
     @Test
     void socketNotCreatedTest() throws IOException {
         // given
-        subscriptionsPool.add(new BinancePendingSubscription(Mocks.CURRENCY, Assertions::assertFalse));
-        given(binanceWebSocketManager.getSocket()).willReturn(socket);
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertFalse));
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
         // when
         binanceSubscriptionUpdater.manageSubscriptions();
 
         // then
         assertEquals(0, subscriptionsPool.size());
         assertEquals(0, unsubscriptionsPool.size());
+        assertEquals(ShardRouter.UNASSIGNED, shardRouter.shardOf(Mocks.CURRENCY));
 
-        then(socket).should(never()).sendMessage(any(TextMessage.class));
+        then(binanceWebSocketManager).should(never()).request(anyInt(), any(), any());
 
     }
 
@@ -140,8 +361,8 @@ class BinanceSubscriptionUpdaterTest {
     void socketNotOpenTest() throws IOException {
 
         // given
-        subscriptionsPool.add(new BinancePendingSubscription(Mocks.CURRENCY, Assertions::assertFalse));
-        given(binanceWebSocketManager.getSocket()).willReturn(socket);
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, Assertions::assertFalse));
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
         given(socket.isOpen()).willReturn(false);
 
         // when
@@ -151,25 +372,55 @@ class BinanceSubscriptionUpdaterTest {
         assertEquals(0, subscriptionsPool.size());
         assertEquals(0, unsubscriptionsPool.size());
 
-        then(socket).should(never()).sendMessage(any(TextMessage.class));
+        then(binanceWebSocketManager).should(never()).request(anyInt(), any(), any());
 
     }
 
     @Test
-    void interruptedExceptionTest() throws IOException {
+    void sendFailureTest() throws IOException {
         // given
-        subscriptionsPool.add(new BinancePendingSubscription(Mocks.CURRENCY, Assertions::assertFalse));
-        given(binanceWebSocketManager.getSocket()).willReturn(socket);
+        List<Boolean> subscribed = new ArrayList<>();
+        List<Boolean> unsubscribed = new ArrayList<>();
+        shardRouter.assign(Mocks.OTHER_CURRENCY);
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, subscribed::add));
+        unsubscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.OTHER_CURRENCY), Mocks.OTHER_CURRENCY, unsubscribed::add));
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
         given(socket.isOpen()).willReturn(true);
-        willThrow(new IOException("Woops!")).given(socket).sendMessage(any(TextMessage.class));
-
+        willThrow(new IOException("Woops!")).given(binanceWebSocketManager).request(anyInt(), eq(SubscriptionType.SUBSCRIBE), any());
+        given(binanceWebSocketManager.request(anyInt(), eq(SubscriptionType.UNSUBSCRIBE), any()))
+                .willReturn(CompletableFuture.completedFuture(true));
 
         // when
-        BinanceSubscriptionException bse = assertThrows(BinanceSubscriptionException.class, () -> binanceSubscriptionUpdater.manageSubscriptions());
+        binanceSubscriptionUpdater.manageSubscriptions();
 
         // then
-        assertEquals("Error handling subscription: Woops!", bse.getMessage());
+        assertEquals(List.of(false), subscribed);
+        assertEquals(List.of(true), unsubscribed);
+        assertEquals(ShardRouter.UNASSIGNED, shardRouter.shardOf(Mocks.CURRENCY));
+        assertEquals(ShardRouter.UNASSIGNED, shardRouter.shardOf(Mocks.OTHER_CURRENCY));
+    }
+
+    @Test
+    void scheduleSubscriptionsTest() throws IOException {
+        // given
+        CountDownLatch sending = new CountDownLatch(1);
+        List<Boolean> results = new CopyOnWriteArrayList<>();
+        given(binanceWebSocketManager.getSocket(Mocks.CONNECTION)).willReturn(socket);
+        given(socket.isOpen()).willReturn(true);
+        given(binanceWebSocketManager.request(eq(Mocks.CONNECTION), eq(SubscriptionType.SUBSCRIBE), any())).willAnswer(invocation -> {
+            sending.await();
+            return CompletableFuture.completedFuture(true);
+        });
+        subscriptionsPool.add(new BinancePendingSubscription(symbolRegistry.register(Mocks.CURRENCY), Mocks.CURRENCY, results::add));
+
+        // when
+        binanceSubscriptionUpdater.scheduleSubscriptions();
 
+        // then
+        assertTrue(results.isEmpty());
+        sending.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> results.equals(List.of(true)));
+        binanceSubscriptionUpdater.shutdown();
     }
 
     private static class Mocks {
@@ -177,5 +428,10 @@ class BinanceSubscriptionUpdaterTest {
         }
 
         private static final String CURRENCY = "BTC";
+        private static final String OTHER_CURRENCY = "ETH";
+        private static final int POOL_SIZE = 1;
+        private static final int CONNECTION = 0;
+        private static final int VIRTUAL_NODES = 8;
+        private static final int CAPACITY = 2;
     }
 }
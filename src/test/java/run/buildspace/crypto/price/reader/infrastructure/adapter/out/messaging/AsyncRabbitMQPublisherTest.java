@@ -0,0 +1,280 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class AsyncRabbitMQPublisherTest {
+
+    private AsyncRabbitMQPublisher asyncRabbitMQPublisher;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private PriceLatencyMetrics latencyMetrics;
+
+    private MeterRegistry meterRegistry;
+
+    private final ArgumentCaptor<CorrelationData> correlationCaptor = ArgumentCaptor.forClass(CorrelationData.class);
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        given(connectionFactory.isPublisherConfirms()).willReturn(true);
+        given(rabbitTemplate.getConnectionFactory()).willReturn(connectionFactory);
+        lenient().when(rabbitTemplate.invoke(any())).thenAnswer(answer ->
+                answer.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitTemplate));
+        meterRegistry = new SimpleMeterRegistry();
+        asyncRabbitMQPublisher = new AsyncRabbitMQPublisher(rabbitTemplate, Mocks.properties(), new SymbolRegistry(Mocks.MAX_SYMBOLS),
+                latencyMetrics, meterRegistry, new BlockingThreads(false));
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncRabbitMQPublisher.stop();
+    }
+
+    @Test
+    void publishBatchOnOneChannelTest() {
+        // given
+        asyncRabbitMQPublisher.publish(Mocks.priceUpdate());
+        asyncRabbitMQPublisher.publish(Mocks.priceUpdate());
+        asyncRabbitMQPublisher.publish(Mocks.priceUpdate());
+
+        // when
+        asyncRabbitMQPublisher.start();
+
+        // then
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should(times(3)).convertAndSend(eq(Mocks.EXCHANGE), eq(Mocks.ROUTING_KEY), any(PriceUpdate.class), any(CorrelationData.class)));
+        then(rabbitTemplate).should(times(1)).invoke(any());
+        assertEquals(3, asyncRabbitMQPublisher.outstanding());
+    }
+
+    @Test
+    void publishConfirmTest() {
+        // given
+        asyncRabbitMQPublisher.start();
+        PriceUpdate priceUpdate = Mocks.priceUpdate();
+
+        // when
+        asyncRabbitMQPublisher.publish(priceUpdate);
+
+        // then
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should().convertAndSend(eq(Mocks.EXCHANGE), anyString(), eq(priceUpdate), correlationCaptor.capture()));
+        assertEquals(1, meterRegistry.get(AsyncRabbitMQPublisher.OUTSTANDING_GAUGE).gauge().value());
+        correlationCaptor.getValue().getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertEquals(0, meterRegistry.get(AsyncRabbitMQPublisher.OUTSTANDING_GAUGE).gauge().value());
+        assertEquals(1, meterRegistry.get(AsyncRabbitMQPublisher.CONFIRM_TIMER).timer().count());
+        then(latencyMetrics).should().record(PriceLatencyMetrics.Stage.SEND, priceUpdate);
+        then(latencyMetrics).should().record(PriceLatencyMetrics.Stage.CONFIRM, priceUpdate);
+    }
+
+    @Test
+    void publishRawTest() {
+        // given
+        asyncRabbitMQPublisher.start();
+        byte[] raw = "{\"e\":\"markPriceUpdate\",\"s\":\"BTCUSDT\",\"p\":\"25.0\"}".getBytes(StandardCharsets.UTF_8);
+        PriceUpdate priceUpdate = PriceUpdate.builder().symbolId(1).price(new BigDecimal("25.0")).symbol(Mocks.CURRENCY_SYMBOL).raw(raw).build();
+
+        // when
+        asyncRabbitMQPublisher.publish(priceUpdate);
+
+        // then
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should().send(eq(Mocks.EXCHANGE), eq(Mocks.ROUTING_KEY), message.capture(), any(CorrelationData.class)));
+        assertSame(raw, message.getValue().getBody());
+        assertEquals(1, asyncRabbitMQPublisher.outstanding());
+        then(rabbitTemplate).should(never()).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void publishNackRetriedThenDroppedTest() {
+        // given
+        asyncRabbitMQPublisher.start();
+        PriceUpdate priceUpdate = Mocks.priceUpdate();
+
+        // when
+        asyncRabbitMQPublisher.publish(priceUpdate);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should().convertAndSend(eq(Mocks.EXCHANGE), anyString(), eq(priceUpdate), correlationCaptor.capture()));
+        correlationCaptor.getValue().getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should(times(2)).convertAndSend(eq(Mocks.EXCHANGE), anyString(), eq(priceUpdate), correlationCaptor.capture()));
+        correlationCaptor.getValue().getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+
+        // then
+        assertEquals(1, meterRegistry.get(AsyncRabbitMQPublisher.RETRIES_COUNTER).counter().count());
+        assertEquals(1, meterRegistry.get(AsyncRabbitMQPublisher.DROPS_COUNTER).counter().count());
+        assertEquals(0, asyncRabbitMQPublisher.outstanding());
+    }
+
+    @Test
+    void publishSendFailureRetriedTest() {
+        // given
+        PriceUpdate priceUpdate = Mocks.priceUpdate();
+        willThrow(new AmqpException("Woops!"))
+                .willAnswer(answer -> null)
+                .given(rabbitTemplate).convertAndSend(anyString(), anyString(), eq(priceUpdate), any(CorrelationData.class));
+        asyncRabbitMQPublisher.start();
+
+        // when
+        asyncRabbitMQPublisher.publish(priceUpdate);
+
+        // then
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should(times(2)).convertAndSend(eq(Mocks.EXCHANGE), anyString(), eq(priceUpdate), any(CorrelationData.class)));
+        assertEquals(1, meterRegistry.get(AsyncRabbitMQPublisher.RETRIES_COUNTER).counter().count());
+        then(rabbitTemplate).should(atLeast(2)).invoke(any());
+    }
+
+    @Test
+    void publishNackSupersededTest() {
+        // given
+        asyncRabbitMQPublisher.start();
+        PriceUpdate stale = Mocks.priceUpdate();
+        PriceUpdate newer = Mocks.priceUpdate("26.0");
+        asyncRabbitMQPublisher.publish(stale);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should().convertAndSend(eq(Mocks.EXCHANGE), anyString(), eq(stale), correlationCaptor.capture()));
+        CorrelationData staleCorrelation = correlationCaptor.getValue();
+        asyncRabbitMQPublisher.publish(newer);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should().convertAndSend(eq(Mocks.EXCHANGE), anyString(), eq(newer), any(CorrelationData.class)));
+
+        // when
+        staleCorrelation.getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+
+        // then
+        assertEquals(1, meterRegistry.get(AsyncRabbitMQPublisher.SUPERSEDED_COUNTER).counter().count());
+        assertEquals(0, meterRegistry.get(AsyncRabbitMQPublisher.RETRIES_COUNTER).counter().count());
+        then(rabbitTemplate).should(times(1)).convertAndSend(eq(Mocks.EXCHANGE), anyString(), eq(stale), any(CorrelationData.class));
+    }
+
+    @Test
+    void publishBehindOutboxBacklogTest(@TempDir Path directory) {
+        // given
+        asyncRabbitMQPublisher.stop();
+        meterRegistry = new SimpleMeterRegistry();
+        asyncRabbitMQPublisher = new AsyncRabbitMQPublisher(rabbitTemplate, Mocks.properties(Mocks.outbox(directory)),
+                new SymbolRegistry(Mocks.MAX_SYMBOLS), latencyMetrics, meterRegistry, new BlockingThreads(false));
+        PriceOutbox outbox = (PriceOutbox) ReflectionTestUtils.getField(asyncRabbitMQPublisher, "outbox");
+        outbox.append(Mocks.priceUpdate());
+
+        // when
+        asyncRabbitMQPublisher.publish(Mocks.priceUpdate("26.0"));
+
+        // then
+        assertEquals(0, meterRegistry.get(AsyncRabbitMQPublisher.QUEUE_GAUGE).gauge().value());
+        assertEquals(2, meterRegistry.get(PriceOutbox.APPENDED_COUNTER).counter().count());
+    }
+
+    @Test
+    void publishQueueOverflowNotOvertakenTest(@TempDir Path directory) {
+        // given
+        asyncRabbitMQPublisher.stop();
+        meterRegistry = new SimpleMeterRegistry();
+        asyncRabbitMQPublisher = new AsyncRabbitMQPublisher(rabbitTemplate, Mocks.properties(Mocks.outbox(directory)),
+                new SymbolRegistry(Mocks.MAX_SYMBOLS), latencyMetrics, meterRegistry, new BlockingThreads(false));
+        for (int price = 1; price <= Mocks.QUEUE_CAPACITY; price++) {
+            asyncRabbitMQPublisher.publish(Mocks.priceUpdate(String.valueOf(price)));
+        }
+        PriceUpdate newest = Mocks.priceUpdate(String.valueOf(Mocks.QUEUE_CAPACITY + 1));
+        asyncRabbitMQPublisher.publish(newest);
+
+        // when
+        asyncRabbitMQPublisher.start();
+
+        // then
+        await().atMost(Duration.ofSeconds(2)).until(() ->
+                meterRegistry.get(AsyncRabbitMQPublisher.SUPERSEDED_COUNTER).counter().count() == Mocks.QUEUE_CAPACITY);
+        ArgumentCaptor<PriceUpdate> sent = ArgumentCaptor.forClass(PriceUpdate.class);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                then(rabbitTemplate).should(atLeast(1)).convertAndSend(eq(Mocks.EXCHANGE), anyString(), sent.capture(), any(CorrelationData.class)));
+        assertEquals(0, newest.price().compareTo(sent.getValue().price()));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String EXCHANGE = "cryptocurrencies";
+        private static final String CURRENCY_SYMBOL = "BTC";
+        private static final String ROUTING_KEY = CURRENCY_SYMBOL + ".price.update";
+        private static final int MAX_SYMBOLS = 8;
+        private static final int QUEUE_CAPACITY = 16;
+
+        private static PriceUpdate priceUpdate() {
+            return priceUpdate("25.0");
+        }
+
+        private static PriceUpdate priceUpdate(String price) {
+            return PriceUpdate.builder().symbolId(1).price(new BigDecimal(price)).symbol(CURRENCY_SYMBOL).timestamp(System.currentTimeMillis()).build();
+        }
+
+        private static RabbitMQProperties.Outbox outbox(Path directory) {
+            return new RabbitMQProperties.Outbox(true, directory.toString(), 4096, 2, 10, 1000, 16);
+        }
+
+        private static RabbitMQProperties properties() {
+            return properties(new RabbitMQProperties.Outbox(false, "outbox", 4096, 2, 10, 1000, 16));
+        }
+
+        private static RabbitMQProperties properties(RabbitMQProperties.Outbox outbox) {
+            return new RabbitMQProperties(EXCHANGE, "currency-update", "#.price.update", "currency.subscription",
+                    "currency.subscription.#", "currency-update-error", "#.error", "dead-letter-exchange", "dead-letter-queue",
+                    new RabbitMQProperties.Batch(false, 10, 100),
+                    new RabbitMQProperties.Publisher(true, 10, 50, 1, QUEUE_CAPACITY, 1),
+                    RabbitMQProperties.PriceFormat.JSON,
+                    new RabbitMQProperties.Partitions(false, 1, "currency-update-partitions", 1000),
+                    outbox);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Execution(ExecutionMode.CONCURRENT)
+class OutboxJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void appendPeekCommitTest() {
+        // given
+        OutboxJournal journal = new OutboxJournal(directory, Mocks.SEGMENT_SIZE, Mocks.MAX_SEGMENTS);
+        journal.append(Mocks.record(1));
+        journal.append(Mocks.record(2));
+
+        // when
+        OutboxJournal.Entry first = journal.peek();
+        OutboxJournal.Entry again = journal.peek();
+        journal.commit(first);
+        OutboxJournal.Entry second = journal.peek();
+        journal.commit(second);
+
+        // then
+        assertArrayEquals(Mocks.record(1), first.record());
+        assertArrayEquals(Mocks.record(1), again.record());
+        assertArrayEquals(Mocks.record(2), second.record());
+        assertNull(journal.peek());
+        assertEquals(0, journal.lag());
+    }
+
+    @Test
+    void rollAndDeleteReadSegmentTest() throws IOException {
+        // given
+        OutboxJournal journal = new OutboxJournal(directory, Mocks.SEGMENT_SIZE, Mocks.MAX_SEGMENTS);
+        for (int i = 0; i < Mocks.RECORDS_PER_SEGMENT + 1; i++) {
+            journal.append(Mocks.record(i));
+        }
+        assertEquals(2, Mocks.segments(directory));
+
+        // when
+        for (int i = 0; i < Mocks.RECORDS_PER_SEGMENT + 1; i++) {
+            OutboxJournal.Entry entry = journal.peek();
+            assertArrayEquals(Mocks.record(i), entry.record());
+            journal.commit(entry);
+        }
+        journal.peek();
+
+        // then
+        assertEquals(1, Mocks.segments(directory));
+        assertEquals(Mocks.SEGMENT_SIZE, journal.size());
+    }
+
+    @Test
+    void retentionDiscardsOldestSegmentTest() throws IOException {
+        // given
+        OutboxJournal journal = new OutboxJournal(directory, Mocks.SEGMENT_SIZE, Mocks.MAX_SEGMENTS);
+
+        // when
+        for (int i = 0; i < Mocks.RECORDS_PER_SEGMENT * Mocks.MAX_SEGMENTS + 1; i++) {
+            journal.append(Mocks.record(i));
+        }
+
+        // then
+        assertEquals(Mocks.MAX_SEGMENTS, Mocks.segments(directory));
+        assertEquals(Mocks.RECORDS_PER_SEGMENT, journal.discarded());
+        assertEquals(Mocks.RECORDS_PER_SEGMENT * (Mocks.MAX_SEGMENTS - 1) + 1, journal.lag());
+        assertArrayEquals(Mocks.record(Mocks.RECORDS_PER_SEGMENT), journal.peek().record());
+    }
+
+    @Test
+    void readBatchAcrossSegmentsTest() {
+        // given
+        OutboxJournal journal = new OutboxJournal(directory, Mocks.SEGMENT_SIZE, Mocks.MAX_SEGMENTS);
+        for (int i = 0; i < Mocks.RECORDS_PER_SEGMENT + 2; i++) {
+            journal.append(Mocks.record(i));
+        }
+
+        // when
+        List<OutboxJournal.Entry> entries = journal.read(Mocks.RECORDS_PER_SEGMENT + 1);
+        entries.forEach(journal::commit);
+
+        // then
+        assertEquals(Mocks.RECORDS_PER_SEGMENT + 1, entries.size());
+        assertArrayEquals(Mocks.record(Mocks.RECORDS_PER_SEGMENT), entries.get(Mocks.RECORDS_PER_SEGMENT).record());
+        assertEquals(1, journal.lag());
+        assertArrayEquals(Mocks.record(Mocks.RECORDS_PER_SEGMENT + 1), journal.peek().record());
+    }
+
+    @Test
+    void commitOfDiscardedRecordIgnoredTest() {
+        // given
+        OutboxJournal journal = new OutboxJournal(directory, Mocks.SEGMENT_SIZE, Mocks.MAX_SEGMENTS);
+        journal.append(Mocks.record(0));
+        OutboxJournal.Entry oldest = journal.peek();
+        for (int i = 1; i < Mocks.RECORDS_PER_SEGMENT * Mocks.MAX_SEGMENTS + 1; i++) {
+            journal.append(Mocks.record(i));
+        }
+        long lag = journal.lag();
+
+        // when
+        journal.commit(oldest);
+
+        // then
+        assertEquals(lag, journal.lag());
+        assertArrayEquals(Mocks.record(Mocks.RECORDS_PER_SEGMENT), journal.peek().record());
+    }
+
+    @Test
+    void reopenResumesTest() {
+        // given
+        OutboxJournal journal = new OutboxJournal(directory, Mocks.SEGMENT_SIZE, Mocks.MAX_SEGMENTS);
+        journal.append(Mocks.record(1));
+        journal.append(Mocks.record(2));
+        journal.commit(journal.peek());
+        journal.flush();
+
+        // when
+        OutboxJournal reopened = new OutboxJournal(directory, Mocks.SEGMENT_SIZE, Mocks.MAX_SEGMENTS);
+        reopened.append(Mocks.record(3));
+
+        // then
+        assertEquals(2, reopened.lag());
+        assertArrayEquals(Mocks.record(2), reopened.peek().record());
+        reopened.commit(reopened.peek());
+        assertArrayEquals(Mocks.record(3), reopened.peek().record());
+    }
+
+    @Test
+    void recordTooLargeTest() {
+        // given
+        OutboxJournal journal = new OutboxJournal(directory, Mocks.SEGMENT_SIZE, Mocks.MAX_SEGMENTS);
+
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[Mocks.SEGMENT_SIZE]));
+        assertEquals(0, journal.lag());
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final int RECORD_LENGTH = 12;
+        private static final int RECORDS_PER_SEGMENT = 4;
+        private static final int SEGMENT_SIZE = OutboxJournal.HEADER + RECORDS_PER_SEGMENT * (Integer.BYTES + RECORD_LENGTH);
+        private static final int MAX_SEGMENTS = 3;
+
+        private static byte[] record(int index) {
+            return String.format("record-%05d", index).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        private static long segments(Path directory) throws IOException {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.count();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
+import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class PriceOutboxTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void replayInOrderTest() {
+        // given
+        PriceOutbox outbox = new PriceOutbox(rabbitTemplate, Mocks.properties(directory), false, meterRegistry, new BlockingThreads(false));
+        outbox.append(Mocks.priceUpdate("BTC"));
+        outbox.append(Mocks.priceUpdate("ETH"));
+
+        // when
+        int first = outbox.replay();
+        int second = outbox.replay();
+
+        // then
+        assertEquals(2, first);
+        assertEquals(0, second);
+        assertFalse(outbox.pending());
+        ArgumentCaptor<PriceUpdate> replayed = ArgumentCaptor.forClass(PriceUpdate.class);
+        then(rabbitTemplate).should(times(2)).convertAndSend(eq(Mocks.EXCHANGE), anyString(), replayed.capture(), eq((CorrelationData) null));
+        assertEquals("BTC", replayed.getAllValues().get(0).symbol());
+        assertEquals(Mocks.PRICE, replayed.getAllValues().get(0).price());
+        assertEquals(PriceUpdate.NO_SYMBOL_ID, replayed.getAllValues().get(0).symbolId());
+        assertEquals("ETH", replayed.getAllValues().get(1).symbol());
+        assertEquals(2, meterRegistry.get(PriceOutbox.REPLAYED_COUNTER).counter().count());
+        assertEquals(0, meterRegistry.get(PriceOutbox.LAG_GAUGE).gauge().value());
+    }
+
+    @Test
+    void replayKeptUntilAckedTest() {
+        // given
+        PriceOutbox outbox = new PriceOutbox(rabbitTemplate, Mocks.properties(directory), true, meterRegistry, new BlockingThreads(false));
+        outbox.append(Mocks.priceUpdate("BTC"));
+        willAnswer(answer -> answer.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(false, "nack")))
+                .willAnswer(answer -> answer.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(true, null)))
+                .given(rabbitTemplate).convertAndSend(anyString(), anyString(), any(PriceUpdate.class), any(CorrelationData.class));
+
+        // when
+        int nacked = outbox.replay();
+        int acked = outbox.replay();
+
+        // then
+        assertEquals(0, nacked);
+        assertEquals(1, acked);
+        assertFalse(outbox.pending());
+    }
+
+    @Test
+    void replayBatchCommitsUpToFirstNackTest() {
+        // given
+        PriceOutbox outbox = new PriceOutbox(rabbitTemplate, Mocks.properties(directory), true, meterRegistry, new BlockingThreads(false));
+        outbox.append(Mocks.priceUpdate("BTC"));
+        outbox.append(Mocks.priceUpdate("ETH"));
+        outbox.append(Mocks.priceUpdate("SOL"));
+        willAnswer(answer -> answer.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(true, null)))
+                .willAnswer(answer -> answer.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(false, "nack")))
+                .willAnswer(answer -> answer.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(true, null)))
+                .given(rabbitTemplate).convertAndSend(anyString(), anyString(), any(PriceUpdate.class), any(CorrelationData.class));
+
+        // when
+        int replayedCount = outbox.replay();
+
+        // then
+        assertEquals(1, replayedCount);
+        assertEquals(2, meterRegistry.get(PriceOutbox.LAG_GAUGE).gauge().value());
+        then(rabbitTemplate).should(times(3)).convertAndSend(eq(Mocks.EXCHANGE), anyString(), any(PriceUpdate.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void replayFailureKeepsPriceTest() {
+        // given
+        PriceOutbox outbox = new PriceOutbox(rabbitTemplate, Mocks.properties(directory), false, meterRegistry, new BlockingThreads(false));
+        outbox.append(Mocks.priceUpdate("BTC"));
+        willThrow(new AmqpException("Woops!")).given(rabbitTemplate).convertAndSend(anyString(), anyString(), any(PriceUpdate.class), eq((CorrelationData) null));
+
+        // when
+        int replayedCount = outbox.replay();
+
+        // then
+        assertEquals(0, replayedCount);
+        assertTrue(outbox.pending());
+        assertEquals(1, meterRegistry.get(PriceOutbox.LAG_GAUGE).gauge().value());
+    }
+
+    @Test
+    void replayRawTest() {
+        // given
+        PriceOutbox outbox = new PriceOutbox(rabbitTemplate, Mocks.properties(directory), false, meterRegistry, new BlockingThreads(false));
+        byte[] raw = "{\"e\":\"markPriceUpdate\",\"s\":\"BTCUSDT\",\"p\":\"25.0\"}".getBytes(StandardCharsets.UTF_8);
+        outbox.append(PriceUpdate.builder().symbol("BTC").price(Mocks.PRICE).raw(raw).build());
+
+        // when
+        outbox.replay();
+
+        // then
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        then(rabbitTemplate).should().send(eq(Mocks.EXCHANGE), eq("BTC.price.update"), message.capture(), eq((CorrelationData) null));
+        assertArrayEquals(raw, message.getValue().getBody());
+        assertEquals(RawPrices.TYPE, message.getValue().getMessageProperties().getType());
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String EXCHANGE = "cryptocurrencies";
+        private static final BigDecimal PRICE = new BigDecimal("25.0");
+
+        private static PriceUpdate priceUpdate(String symbol) {
+            return PriceUpdate.builder().symbolId(1).symbol(symbol).price(PRICE).timestamp(System.currentTimeMillis()).build();
+        }
+
+        private static RabbitMQProperties properties(Path directory) {
+            return new RabbitMQProperties(EXCHANGE, "currency-update", "#.price.update", "currency.subscription",
+                    "currency.subscription.#", "currency-update-error", "#.error", "dead-letter-exchange", "dead-letter-queue",
+                    new RabbitMQProperties.Batch(false, 10, 100),
+                    new RabbitMQProperties.Publisher(false, 10, 50, 1, 16, 1),
+                    RabbitMQProperties.PriceFormat.JSON,
+                    new RabbitMQProperties.Partitions(false, 1, "currency-update-partitions", 1000),
+                    new RabbitMQProperties.Outbox(true, directory.toString(), 4096, 2, 10, 1000, 16));
+        }
+    }
+}
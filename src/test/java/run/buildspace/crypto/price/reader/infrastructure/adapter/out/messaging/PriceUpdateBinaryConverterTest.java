@@ -0,0 +1,95 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class PriceUpdateBinaryConverterTest {
+
+    private final PriceUpdateBinaryConverter converter = new PriceUpdateBinaryConverter();
+
+    @Test
+    void roundTripTest() {
+        // given
+        PriceUpdate priceUpdate = Mocks.priceUpdate(Long.MIN_VALUE);
+
+        // when
+        Message message = converter.toMessage(priceUpdate, new MessageProperties());
+        PriceUpdate decoded = (PriceUpdate) converter.fromMessage(message);
+
+        // then
+        assertEquals(PriceUpdateBinaryConverter.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertTrue(message.getMessageProperties().getHeaders().isEmpty());
+        assertEquals(PriceUpdateBinaryConverter.HEADER_LENGTH + Mocks.SYMBOL.length(), message.getBody().length);
+        assertEquals(priceUpdate.symbolId(), decoded.symbolId());
+        assertEquals(priceUpdate.symbol(), decoded.symbol());
+        assertEquals(priceUpdate.priceMantissa(), decoded.priceMantissa());
+        assertEquals(priceUpdate.priceScale(), decoded.priceScale());
+        assertEquals(priceUpdate.timestamp(), decoded.timestamp());
+    }
+
+    @Test
+    void smallerThanJsonTest() throws JsonProcessingException {
+        // given
+        ObjectMapper objectMapper = JsonMapper.builder().addModule(PriceUpdateJsonSerializer.module()).build();
+        PriceUpdate priceUpdate = Mocks.priceUpdate(1179415000000L);
+
+        // when
+        int binary = PriceUpdateBinaryConverter.encode(priceUpdate).length;
+        int json = objectMapper.writeValueAsBytes(priceUpdate).length;
+
+        // then
+        assertTrue(2 * binary < json, binary + " vs " + json);
+    }
+
+    @Test
+    void truncatedBodyTest() {
+        // given
+        byte[] body = PriceUpdateBinaryConverter.encode(Mocks.priceUpdate(1L));
+
+        // when && then
+        assertThrows(MessageConversionException.class, () -> PriceUpdateBinaryConverter.decode(Arrays.copyOf(body, body.length - 1)));
+    }
+
+    @Test
+    void unknownVersionTest() {
+        // given
+        byte[] body = PriceUpdateBinaryConverter.encode(Mocks.priceUpdate(1L));
+        body[0] = PriceUpdateBinaryConverter.VERSION + 1;
+
+        // when && then
+        assertThrows(MessageConversionException.class, () -> PriceUpdateBinaryConverter.decode(body));
+    }
+
+    @Test
+    void notAPriceUpdateTest() {
+        assertThrows(MessageConversionException.class, () -> converter.toMessage("price", new MessageProperties()));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String SYMBOL = "BTCUSDT";
+        private static final int SYMBOL_ID = 42;
+        private static final long TIMESTAMP = 1562305380000L;
+
+        private static PriceUpdate priceUpdate(long mantissa) {
+            return PriceUpdate.builder().symbolId(SYMBOL_ID).symbol(SYMBOL).priceMantissa(mantissa).priceScale((byte) 8).timestamp(TIMESTAMP).build();
+        }
+    }
+}
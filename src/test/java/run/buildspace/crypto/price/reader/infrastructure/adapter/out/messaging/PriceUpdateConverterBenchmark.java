@@ -0,0 +1,50 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting a {@link PriceUpdate} into an AMQP message with the JSON converter and with
+ * {@link PriceUpdateBinaryConverter}. Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceUpdateConverterBenchmark {
+
+    private final PriceUpdate priceUpdate = PriceUpdate.builder().symbolId(1).symbol("BTCUSDT").priceMantissa(1179415000000L)
+            .priceScale((byte) 8).timestamp(1562305380000L).build();
+    private final Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter(JsonMapper.builder()
+            .addModule(PriceUpdateJsonSerializer.module())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build(), "*");
+    private final PriceUpdateBinaryConverter binary = new PriceUpdateBinaryConverter();
+
+    @Benchmark
+    public Message json() {
+        return json.toMessage(priceUpdate, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message binary() {
+        return binary.toMessage(priceUpdate, new MessageProperties());
+    }
+}
@@ -0,0 +1,58 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Execution(ExecutionMode.CONCURRENT)
+class PriceUpdateJsonSerializerTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(PriceUpdateJsonSerializer.module())
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .build();
+
+    @Test
+    void serializeTest() throws JsonProcessingException {
+        // given
+        PriceUpdate priceUpdate = PriceUpdate.builder().symbol(Mocks.SYMBOL).priceMantissa(1179415000000L).priceScale((byte) 8).timestamp(Mocks.TIMESTAMP).build();
+
+        // when
+        String json = objectMapper.writeValueAsString(priceUpdate);
+
+        // then
+        assertEquals("{\"symbol\":\"BTCUSDT\",\"price\":11794.15000000,\"timestamp\":1562305380000}", json);
+    }
+
+    @Test
+    void serializedPriceMatchesBigDecimalTest() throws JsonProcessingException {
+        for (String price : new String[]{"0", "0.5", "0.00001234", "-0.01", "-42", "123456789", String.valueOf(Long.MIN_VALUE), "9223372036854775.807"}) {
+            // given
+            PriceUpdate priceUpdate = PriceUpdate.builder().symbol(Mocks.SYMBOL).price(new BigDecimal(price)).timestamp(Mocks.TIMESTAMP).build();
+
+            // when
+            JsonNode node = objectMapper.readTree(objectMapper.writeValueAsString(priceUpdate));
+
+            // then
+            assertEquals(new BigDecimal(price).toPlainString(), node.get("price").decimalValue().toPlainString(), price);
+        }
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String SYMBOL = "BTCUSDT";
+        private static final long TIMESTAMP = 1562305380000L;
+    }
+}
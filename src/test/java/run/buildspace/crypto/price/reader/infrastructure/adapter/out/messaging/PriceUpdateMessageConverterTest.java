@@ -0,0 +1,79 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.domain.model.Subscription;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class PriceUpdateMessageConverterTest {
+
+    @Mock
+    private MessageConverter json;
+
+    @Test
+    void jsonPricesByDefaultTest() {
+        // given
+        PriceUpdateMessageConverter converter = new PriceUpdateMessageConverter(json, false);
+        MessageProperties properties = new MessageProperties();
+        Message message = new Message(new byte[0], properties);
+        given(json.toMessage(Mocks.priceUpdate(), properties)).willReturn(message);
+
+        // when && then
+        assertSame(message, converter.toMessage(Mocks.priceUpdate(), properties));
+    }
+
+    @Test
+    void binaryPricesTest() {
+        // given
+        PriceUpdateMessageConverter converter = new PriceUpdateMessageConverter(json, true);
+
+        // when
+        Message message = converter.toMessage(Mocks.priceUpdate(), new MessageProperties());
+
+        // then
+        assertEquals(PriceUpdateBinaryConverter.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals(Mocks.priceUpdate().symbol(), ((PriceUpdate) converter.fromMessage(message)).symbol());
+        then(json).should(never()).toMessage(any(), any());
+        then(json).should(never()).fromMessage(any());
+    }
+
+    @Test
+    void otherPayloadsStayJsonTest() {
+        // given
+        PriceUpdateMessageConverter converter = new PriceUpdateMessageConverter(json, true);
+        Subscription subscription = Subscription.builder().symbol("BTC").subscribe(true).build();
+        MessageProperties properties = new MessageProperties();
+        Message message = new Message(new byte[0], properties);
+        given(json.toMessage(subscription, properties)).willReturn(message);
+        given(json.fromMessage(message)).willReturn(subscription);
+
+        // when && then
+        assertSame(message, converter.toMessage(subscription, properties));
+        assertSame(subscription, converter.fromMessage(message));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static PriceUpdate priceUpdate() {
+            return PriceUpdate.builder().symbolId(1).symbol("BTCUSDT").priceMantissa(2500L).priceScale((byte) 2).timestamp(1562305380000L).build();
+        }
+    }
+}
@@ -2,24 +2,38 @@ package run.buildspace.crypto.price.reader.infrastructure.adapter.out.messaging;
 
 import run.buildspace.crypto.price.reader.domain.exception.MessagePublishException;
 import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.common.SymbolRegistry;
+import run.buildspace.crypto.price.reader.infrastructure.config.BlockingThreads;
 import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
+import run.buildspace.crypto.price.reader.infrastructure.config.observability.PriceLatencyMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,13 +46,16 @@ class RabbitMQPublisherTest {
     @Mock
     private RabbitTemplate rabbitTemplate;
 
+    @Mock
+    private PriceLatencyMetrics latencyMetrics;
+
     private RabbitMQProperties properties;
 
 
     @BeforeEach
     void setUp() {
         properties = Mocks.rabbitMQProperties();
-        rabbitMQPublisher = new RabbitMQPublisher(rabbitTemplate, properties);
+        rabbitMQPublisher = new RabbitMQPublisher(rabbitTemplate, properties, new SymbolRegistry(Mocks.MAX_SYMBOLS), latencyMetrics, new SimpleMeterRegistry(), new BlockingThreads(false));
     }
 
     @Test
@@ -54,6 +71,61 @@ class RabbitMQPublisherTest {
 
     }
 
+    @Test
+    void publishConfirmLatencyTest() {
+        // given
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        given(connectionFactory.isPublisherConfirms()).willReturn(true);
+        given(rabbitTemplate.getConnectionFactory()).willReturn(connectionFactory);
+        RabbitMQPublisher confirming = new RabbitMQPublisher(rabbitTemplate, properties, new SymbolRegistry(Mocks.MAX_SYMBOLS), latencyMetrics, new SimpleMeterRegistry(), new BlockingThreads(false));
+        PriceUpdate priceUpdate = Mocks.priceUpdate();
+
+        // when
+        confirming.publish(priceUpdate);
+
+        // then
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        then(rabbitTemplate).should().convertAndSend(eq(properties.exchange()), anyString(), eq(priceUpdate), correlation.capture());
+        then(latencyMetrics).should().record(PriceLatencyMetrics.Stage.SEND, priceUpdate);
+        correlation.getValue().getFuture().complete(new CorrelationData.Confirm(true, null));
+        then(latencyMetrics).should().record(PriceLatencyMetrics.Stage.CONFIRM, priceUpdate);
+    }
+
+    @Test
+    void publishRawTest() {
+        // given
+        byte[] raw = "{\"e\":\"markPriceUpdate\",\"s\":\"BTCUSDT\",\"p\":\"25.0\",\"r\":\"0.0001\"}".getBytes(StandardCharsets.UTF_8);
+        PriceUpdate priceUpdate = PriceUpdate.builder().price(Mocks.PRICE).symbol(Mocks.CURRENCY_SYMBOL).raw(raw).build();
+
+        // when
+        rabbitMQPublisher.publish(priceUpdate);
+
+        // then
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        then(rabbitTemplate).should().send(eq(properties.exchange()), anyString(), message.capture(), isNull());
+        assertSame(raw, message.getValue().getBody());
+        assertEquals(RawPrices.TYPE, message.getValue().getMessageProperties().getType());
+        then(rabbitTemplate).should(never()).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void publishCachesRoutingKeyBySymbolIdTest() {
+        // given
+        PriceUpdate first = Mocks.priceUpdate(Mocks.SYMBOL_ID);
+        PriceUpdate second = Mocks.priceUpdate(Mocks.SYMBOL_ID);
+        String routingKey = properties.currencyUpdateRoutingBind().replace("#", Mocks.CURRENCY_SYMBOL);
+
+        // when
+        rabbitMQPublisher.publish(first);
+        rabbitMQPublisher.publish(second);
+
+        // then
+        ArgumentCaptor<String> routingKeys = ArgumentCaptor.forClass(String.class);
+        then(rabbitTemplate).should(times(2)).convertAndSend(eq(properties.exchange()), routingKeys.capture(), any(PriceUpdate.class));
+        assertEquals(routingKey, routingKeys.getAllValues().get(0));
+        assertSame(routingKeys.getAllValues().get(0), routingKeys.getAllValues().get(1));
+    }
+
     @Test
     void publishWithErrorTest() {
         // given
@@ -68,6 +140,48 @@ class RabbitMQPublisherTest {
 
     }
 
+    @Test
+    void publishWithErrorJournaledTest(@TempDir Path directory) {
+        // given
+        RabbitMQPublisher journaling = new RabbitMQPublisher(rabbitTemplate, Mocks.rabbitMQProperties(directory), new SymbolRegistry(Mocks.MAX_SYMBOLS),
+                latencyMetrics, new SimpleMeterRegistry(), new BlockingThreads(false));
+        PriceUpdate first = Mocks.priceUpdate();
+        PriceUpdate second = Mocks.priceUpdate();
+        willThrow(new AmqpException("Woops!")).given(rabbitTemplate).convertAndSend(anyString(), anyString(), any(PriceUpdate.class));
+
+        // when
+        journaling.publish(first);
+        journaling.publish(second);
+
+        // then
+        then(rabbitTemplate).should(times(1)).convertAndSend(anyString(), anyString(), any(PriceUpdate.class));
+        then(latencyMetrics).should(never()).record(PriceLatencyMetrics.Stage.SEND, first);
+    }
+
+    @Test
+    void publishNackSupersededTest(@TempDir Path directory) {
+        // given
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        given(connectionFactory.isPublisherConfirms()).willReturn(true);
+        given(rabbitTemplate.getConnectionFactory()).willReturn(connectionFactory);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RabbitMQPublisher journaling = new RabbitMQPublisher(rabbitTemplate, Mocks.rabbitMQProperties(directory), new SymbolRegistry(Mocks.MAX_SYMBOLS),
+                latencyMetrics, meterRegistry, new BlockingThreads(false));
+        PriceUpdate stale = Mocks.priceUpdate();
+        PriceUpdate newer = Mocks.priceUpdate(Mocks.NEWER_PRICE);
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        journaling.publish(stale);
+        then(rabbitTemplate).should().convertAndSend(anyString(), anyString(), eq(stale), correlation.capture());
+        journaling.publish(newer);
+
+        // when
+        correlation.getValue().getFuture().complete(new CorrelationData.Confirm(false, "channel closed"));
+
+        // then
+        assertEquals(1, meterRegistry.get(RabbitMQPublisher.SUPERSEDED_COUNTER).counter().count());
+        assertEquals(0, meterRegistry.get(PriceOutbox.APPENDED_COUNTER).counter().count());
+    }
+
     @Test
     void publishErrorTest() {
         // given
@@ -102,13 +216,37 @@ class RabbitMQPublisherTest {
         private static final String CURRENCY_SYMBOL = "BTC";
         private static final String PRICE_TEXT = "25.0";
         private static final BigDecimal PRICE = new BigDecimal(PRICE_TEXT);
+        private static final BigDecimal NEWER_PRICE = new BigDecimal("26.0");
+
+        private static final int MAX_SYMBOLS = 8;
+        private static final int SYMBOL_ID = 3;
 
         private static PriceUpdate priceUpdate() {
             return PriceUpdate.builder().price(PRICE).symbol(CURRENCY_SYMBOL).timestamp(System.currentTimeMillis()).build();
         }
 
+        private static PriceUpdate priceUpdate(BigDecimal price) {
+            return PriceUpdate.builder().price(price).symbol(CURRENCY_SYMBOL).timestamp(System.currentTimeMillis()).build();
+        }
+
+        private static PriceUpdate priceUpdate(int symbolId) {
+            return PriceUpdate.builder().symbolId(symbolId).price(PRICE).symbol(CURRENCY_SYMBOL).timestamp(System.currentTimeMillis()).build();
+        }
+
         private static RabbitMQProperties rabbitMQProperties() {
-            return new PodamFactoryImpl().manufacturePojo(RabbitMQProperties.class);
+            return rabbitMQProperties(new RabbitMQProperties.Outbox(false, null, 0, 0, 0, 0, 16));
+        }
+
+        private static RabbitMQProperties rabbitMQProperties(Path directory) {
+            return rabbitMQProperties(new RabbitMQProperties.Outbox(true, directory.toString(), 4096, 2, 60000, 1000, 16));
+        }
+
+        private static RabbitMQProperties rabbitMQProperties(RabbitMQProperties.Outbox outbox) {
+            RabbitMQProperties properties = new PodamFactoryImpl().manufacturePojo(RabbitMQProperties.class);
+            return new RabbitMQProperties(properties.exchange(), properties.currencyUpdateQueue(), properties.currencyUpdateRoutingBind(),
+                    properties.subscriptionQueue(), properties.subscriptionRoutingBind(), properties.currencyErrorUpdateQueue(),
+                    properties.currencyErrorUpdateRoutingBind(), properties.deadLetterExchange(), properties.deadLetterQueue(),
+                    properties.batch(), properties.publisher(), properties.priceFormat(), properties.partitions(), outbox);
         }
     }
 }
\ No newline at end of file
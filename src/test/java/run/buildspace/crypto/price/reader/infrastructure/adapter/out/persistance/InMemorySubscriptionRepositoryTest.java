@@ -0,0 +1,173 @@
+package run.buildspace.crypto.price.reader.infrastructure.adapter.out.persistance;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import run.buildspace.crypto.price.reader.domain.model.Subscription;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class InMemorySubscriptionRepositoryTest {
+
+    @InjectMocks
+    private InMemorySubscriptionRepository inMemorySubscriptionRepository;
+
+    @Mock
+    private SubscriptionRepositoryAdapter subscriptionRepositoryAdapter;
+
+    @BeforeEach
+    void setUp() {
+        given(subscriptionRepositoryAdapter.findAll()).willReturn(List.of(Mocks.SYMBOL));
+        inMemorySubscriptionRepository.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadTest() {
+        // when && then
+        assertTrue(inMemorySubscriptionRepository.exists(Mocks.SYMBOL));
+        assertEquals(List.of(Mocks.SYMBOL), inMemorySubscriptionRepository.findAll());
+        assertEquals(1, inMemorySubscriptionRepository.count());
+        then(subscriptionRepositoryAdapter).should().findAll();
+    }
+
+    @Test
+    void saveTest() {
+        // when
+        inMemorySubscriptionRepository.save(Mocks.subscription(Mocks.OTHER_SYMBOL));
+
+        // then
+        then(subscriptionRepositoryAdapter).should().save(Mocks.subscription(Mocks.OTHER_SYMBOL));
+        assertTrue(inMemorySubscriptionRepository.exists(Mocks.OTHER_SYMBOL));
+        assertEquals(2, inMemorySubscriptionRepository.count());
+    }
+
+    @Test
+    void deleteTest() {
+        // when
+        inMemorySubscriptionRepository.delete(Mocks.SYMBOL);
+
+        // then
+        then(subscriptionRepositoryAdapter).should().delete(Mocks.SYMBOL);
+        assertFalse(inMemorySubscriptionRepository.exists(Mocks.SYMBOL));
+        assertEquals(0, inMemorySubscriptionRepository.count());
+    }
+
+    @Test
+    void saveAllAndDeleteAllTest() {
+        // when
+        inMemorySubscriptionRepository.saveAll(List.of(Mocks.subscription(Mocks.OTHER_SYMBOL)));
+        inMemorySubscriptionRepository.deleteAll(List.of(Mocks.SYMBOL));
+
+        // then
+        then(subscriptionRepositoryAdapter).should().saveAll(List.of(Mocks.subscription(Mocks.OTHER_SYMBOL)));
+        then(subscriptionRepositoryAdapter).should().deleteAll(List.of(Mocks.SYMBOL));
+        assertEquals(List.of(Mocks.OTHER_SYMBOL), inMemorySubscriptionRepository.findAll());
+    }
+
+    @Test
+    void reconcileTest() {
+        // given
+        given(subscriptionRepositoryAdapter.findAll()).willReturn(List.of(Mocks.OTHER_SYMBOL));
+
+        // when
+        inMemorySubscriptionRepository.reconcile();
+
+        // then
+        assertEquals(List.of(Mocks.OTHER_SYMBOL), inMemorySubscriptionRepository.findAll());
+    }
+
+    @Test
+    void reconcileSkippedOnConcurrentWriteTest() {
+        // given
+        given(subscriptionRepositoryAdapter.findAll()).willAnswer(answer -> {
+            inMemorySubscriptionRepository.save(Mocks.subscription(Mocks.OTHER_SYMBOL));
+            return List.of(Mocks.SYMBOL);
+        });
+
+        // when
+        inMemorySubscriptionRepository.reconcile();
+
+        // then
+        assertTrue(inMemorySubscriptionRepository.exists(Mocks.OTHER_SYMBOL));
+        assertEquals(2, inMemorySubscriptionRepository.count());
+    }
+
+    @Test
+    void reconcileSkippedUntilCommitAppliedTest() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        inMemorySubscriptionRepository.delete(Mocks.SYMBOL);
+        given(subscriptionRepositoryAdapter.findAll()).willReturn(List.of(Mocks.OTHER_SYMBOL));
+
+        // when
+        inMemorySubscriptionRepository.reconcile();
+
+        // then
+        assertEquals(List.of(Mocks.SYMBOL), inMemorySubscriptionRepository.findAll());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(it -> it.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        inMemorySubscriptionRepository.reconcile();
+        assertEquals(List.of(Mocks.OTHER_SYMBOL), inMemorySubscriptionRepository.findAll());
+    }
+
+    @Test
+    void failedSaveTest() {
+        // given
+        willThrow(new IllegalStateException("Database down")).given(subscriptionRepositoryAdapter).save(Mocks.subscription(Mocks.OTHER_SYMBOL));
+
+        // when
+        assertThrows(IllegalStateException.class, () -> inMemorySubscriptionRepository.save(Mocks.subscription(Mocks.OTHER_SYMBOL)));
+
+        // then
+        assertFalse(inMemorySubscriptionRepository.exists(Mocks.OTHER_SYMBOL));
+    }
+
+    @Test
+    void saveAppliedOnCommitTest() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        inMemorySubscriptionRepository.save(Mocks.subscription(Mocks.OTHER_SYMBOL));
+
+        // then
+        assertFalse(inMemorySubscriptionRepository.exists(Mocks.OTHER_SYMBOL));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(inMemorySubscriptionRepository.exists(Mocks.OTHER_SYMBOL));
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String SYMBOL = "BTC";
+        private static final String OTHER_SYMBOL = "ETH";
+
+        private static Subscription subscription(String symbol) {
+            return Subscription.builder().symbol(symbol).subscribe(true).build();
+        }
+    }
+}
@@ -10,6 +10,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
@@ -45,6 +47,25 @@ class SubscriptionRepositoryAdapterTest {
         assertEquals(Mocks.SYMBOL, argumentCaptor.getValue().getSymbol());
     }
 
+    @Test
+    void saveAll() {
+        //given
+        given(jpaPriceSubscriptionRepository.insertMissing(new String[]{Mocks.SYMBOL})).willReturn(0);
+        //when
+        subscriptionRepositoryAdapter.saveAll(List.of(Mocks.subscription()));
+        //then
+        then(jpaPriceSubscriptionRepository).should().insertMissing(new String[]{Mocks.SYMBOL});
+        then(jpaPriceSubscriptionRepository).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    void deleteAll() {
+        //when
+        subscriptionRepositoryAdapter.deleteAll(List.of(Mocks.SYMBOL));
+        //then
+        then(jpaPriceSubscriptionRepository).should().deleteAllByIdInBatch(List.of(Mocks.SYMBOL));
+    }
+
     @Test
     void delete() {
         //when
@@ -0,0 +1,82 @@
+package run.buildspace.crypto.price.reader.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.CONCURRENT)
+class BlockingThreadsTest {
+
+    @Test
+    void platformThreadsTest() throws Exception {
+        // given
+        BlockingThreads blockingThreads = new BlockingThreads(false);
+        CompletableFuture<Thread> callbackThread = new CompletableFuture<>();
+
+        // when
+        Thread thread = blockingThreads.start(Mocks.NAME, () -> {
+        });
+        blockingThreads.callbacks().execute(() -> callbackThread.complete(Thread.currentThread()));
+
+        // then
+        thread.join();
+        assertEquals(Mocks.NAME, thread.getName());
+        assertFalse(thread.isVirtual());
+        assertTrue(thread.isDaemon());
+        assertEquals(Thread.currentThread(), callbackThread.get());
+    }
+
+    @Test
+    void virtualThreadsTest() throws Exception {
+        // given
+        BlockingThreads blockingThreads = new BlockingThreads(true);
+        CompletableFuture<Thread> callbackThread = new CompletableFuture<>();
+
+        // when
+        Thread thread = blockingThreads.start(Mocks.NAME, () -> {
+        });
+        blockingThreads.callbacks().execute(() -> callbackThread.complete(Thread.currentThread()));
+
+        // then
+        thread.join();
+        assertEquals(Mocks.NAME, thread.getName());
+        assertTrue(thread.isVirtual());
+        Thread callback = callbackThread.get(5, TimeUnit.SECONDS);
+        assertTrue(callback.isVirtual());
+        assertNotEquals(Thread.currentThread(), callback);
+        blockingThreads.shutdown();
+    }
+
+    @Test
+    void followsVirtualThreadsPropertyTest() {
+        // given
+        MockEnvironment enabled = new MockEnvironment().withProperty(Mocks.VIRTUAL_PROPERTY, "true");
+        MockEnvironment disabled = new MockEnvironment();
+
+        // when
+        BlockingThreads virtual = new BlockingThreads(enabled);
+        BlockingThreads platform = new BlockingThreads(disabled);
+
+        // then
+        assertTrue(virtual.virtual());
+        assertFalse(platform.virtual());
+        virtual.shutdown();
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String NAME = "blocking-test";
+        private static final String VIRTUAL_PROPERTY = "spring.threads.virtual.enabled";
+    }
+}
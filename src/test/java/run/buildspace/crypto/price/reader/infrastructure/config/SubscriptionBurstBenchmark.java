@@ -0,0 +1,162 @@
+package run.buildspace.crypto.price.reader.infrastructure.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import run.buildspace.crypto.price.reader.application.port.out.CryptoStreamSubscriber;
+import run.buildspace.crypto.price.reader.application.port.out.PriceSubscriptionRepository;
+import run.buildspace.crypto.price.reader.application.service.SubscriptionService;
+import run.buildspace.crypto.price.reader.domain.model.PendingSubscription;
+import run.buildspace.crypto.price.reader.domain.model.Subscription;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Compares how many bursts of {@code burst} subscriptions per second {@link SubscriptionService} settles with
+ * {@link BlockingThreads} on platform and on virtual threads. Binance answers every request on a single socket thread,
+ * as the WebSocket client does, and each accepted subscription is then saved in a transaction that blocks for
+ * {@code saveMillis} ms, standing in for the JDBC round trip. On platform threads the saves queue up behind the socket
+ * thread; on virtual threads each one parks on its own thread. Run with {@code -Djdk.tracePinnedThreads=short} to
+ * check that nothing pins a carrier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SubscriptionBurstBenchmark {
+
+    public enum ThreadMode {
+        PLATFORM, VIRTUAL
+    }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ThreadMode mode;
+
+    @Param("200")
+    private int burst;
+
+    @Param("1")
+    private long saveMillis;
+
+    private BlockingThreads blockingThreads;
+    private ExecutorService socket;
+    private SubscriptionService subscriptionService;
+    private List<Subscription> subscriptions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        blockingThreads = new BlockingThreads(mode == ThreadMode.VIRTUAL);
+        socket = Executors.newSingleThreadExecutor(task -> new Thread(task, "binance-socket"));
+        subscriptionService = new SubscriptionService(new SocketSubscriber(), new SlowRepository(), new TransactionTemplate(new NoTransactionManager()));
+        subscriptions = IntStream.range(0, burst).mapToObj(i -> new Subscription(true, "SYMBOL" + i + "USDT")).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        socket.shutdownNow();
+        blockingThreads.shutdown();
+    }
+
+    @Benchmark
+    public void subscriptionBurst() throws InterruptedException {
+        CountDownLatch settled = new CountDownLatch(subscriptions.size());
+        subscriptions.forEach(it -> subscriptionService.handleSubscription(new PendingSubscription(it, settled::countDown, settled::countDown)));
+        settled.await();
+    }
+
+    /**
+     * Confirms every request on the socket thread and settles it the way {@code BinanceSubscriptionUpdater} does.
+     */
+    private class SocketSubscriber implements CryptoStreamSubscriber {
+
+        @Override
+        public void subscribe(String symbol, Consumer<Boolean> onComplete) {
+            CompletableFuture.supplyAsync(() -> true, socket).whenCompleteAsync((accepted, error) -> onComplete.accept(accepted), blockingThreads.callbacks());
+        }
+
+        @Override
+        public void unsubscribe(String symbol, Consumer<Boolean> onComplete) {
+            subscribe(symbol, onComplete);
+        }
+    }
+
+    private class SlowRepository implements PriceSubscriptionRepository {
+
+        @Override
+        public boolean exists(String symbol) {
+            return false;
+        }
+
+        @Override
+        public void save(Subscription subscription) {
+            try {
+                Thread.sleep(saveMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void saveAll(List<Subscription> subscriptions) {
+            subscriptions.forEach(this::save);
+        }
+
+        @Override
+        public void delete(String symbol) {
+        }
+
+        @Override
+        public void deleteAll(List<String> symbols) {
+        }
+
+        @Override
+        public List<String> findAll() {
+            return List.of();
+        }
+
+        @Override
+        public long count() {
+            return 0;
+        }
+    }
+
+    private static class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package run.buildspace.crypto.price.reader.infrastructure.config.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import run.buildspace.crypto.price.reader.infrastructure.config.RabbitMQProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class PartitionMetricsTest {
+
+    @Mock
+    private AmqpAdmin amqpAdmin;
+
+    private MeterRegistry registry;
+
+    private PartitionMetrics partitionMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        partitionMetrics = new PartitionMetrics(registry, amqpAdmin, Mocks.properties());
+        partitionMetrics.initMetrics();
+    }
+
+    @Test
+    void sampleTest() {
+        // given
+        given(amqpAdmin.getQueueInfo("currency-update.0")).willReturn(new QueueInformation("currency-update.0", 12, 2));
+        given(amqpAdmin.getQueueInfo("currency-update.1")).willReturn(new QueueInformation("currency-update.1", 3, 1));
+
+        // when
+        partitionMetrics.sample();
+
+        // then
+        assertEquals(12, depth("0"));
+        assertEquals(3, depth("1"));
+        assertEquals(2, registry.get(PartitionMetrics.CONSUMERS_GAUGE).tag(PartitionMetrics.PARTITION_TAG, "0").gauge().value());
+    }
+
+    @Test
+    void sampleKeepsLastValueOnFailureTest() {
+        // given
+        given(amqpAdmin.getQueueInfo("currency-update.0")).willReturn(new QueueInformation("currency-update.0", 12, 2));
+        given(amqpAdmin.getQueueInfo("currency-update.1")).willReturn(null);
+        partitionMetrics.sample();
+        given(amqpAdmin.getQueueInfo("currency-update.0")).willThrow(new AmqpException("Woops!"));
+
+        // when
+        partitionMetrics.sample();
+
+        // then
+        assertEquals(12, depth("0"));
+        assertEquals(0, depth("1"));
+    }
+
+    private double depth(String partition) {
+        return registry.get(PartitionMetrics.DEPTH_GAUGE).tag(PartitionMetrics.PARTITION_TAG, partition).gauge().value();
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static RabbitMQProperties properties() {
+            return new RabbitMQProperties("cryptocurrencies", "currency-update", "#.price.update", "currency.subscription",
+                    "currency.subscription.#", "currency-update-error", "#.error", "dead-letter-exchange", "dead-letter-queue",
+                    new RabbitMQProperties.Batch(false, 10, 100),
+                    new RabbitMQProperties.Publisher(false, 10, 50, 1, 16, 1),
+                    RabbitMQProperties.PriceFormat.JSON,
+                    new RabbitMQProperties.Partitions(true, 2, "currency-update-partitions", 1000),
+                    new RabbitMQProperties.Outbox(false, "outbox", 4096, 2, 10, 1000, 16));
+        }
+    }
+}
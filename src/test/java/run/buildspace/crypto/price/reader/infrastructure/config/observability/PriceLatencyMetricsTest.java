@@ -0,0 +1,77 @@
+package run.buildspace.crypto.price.reader.infrastructure.config.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import run.buildspace.crypto.price.reader.domain.model.PriceUpdate;
+import run.buildspace.crypto.price.reader.infrastructure.config.BinanceWebSocketProperties;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@Execution(ExecutionMode.CONCURRENT)
+class PriceLatencyMetricsTest {
+
+    @Test
+    void registersTimerPerStageTest() {
+        // given
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        // when
+        new PriceLatencyMetrics(registry, Mocks.properties());
+
+        // then
+        for (PriceLatencyMetrics.Stage stage : PriceLatencyMetrics.Stage.values()) {
+            assertNotNull(registry.find(Mocks.TIMER).tag(PriceLatencyMetrics.STAGE_TAG, stage.tag()).timer());
+        }
+    }
+
+    @Test
+    void recordExchangeTest() {
+        // given
+        PriceLatencyMetrics metrics = new PriceLatencyMetrics(new SimpleMeterRegistry(), Mocks.properties());
+
+        // when
+        metrics.recordExchange(1_000, 1_250);
+
+        // then
+        assertEquals(1, metrics.timer(PriceLatencyMetrics.Stage.EXCHANGE).count());
+        assertEquals(250, metrics.timer(PriceLatencyMetrics.Stage.EXCHANGE).totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void recordSinceReceiptTest() {
+        // given
+        PriceLatencyMetrics metrics = new PriceLatencyMetrics(new SimpleMeterRegistry(), Mocks.properties());
+        PriceUpdate received = Mocks.priceUpdate(System.nanoTime());
+        PriceUpdate notReceived = Mocks.priceUpdate(PriceUpdate.NOT_RECEIVED);
+
+        // when
+        metrics.record(PriceLatencyMetrics.Stage.SEND, received);
+        metrics.record(PriceLatencyMetrics.Stage.SEND, notReceived);
+
+        // then
+        assertEquals(1, metrics.timer(PriceLatencyMetrics.Stage.SEND).count());
+    }
+
+    private static class Mocks {
+        private Mocks() {
+        }
+
+        private static final String TIMER = "price.latency";
+
+        private static PriceUpdate priceUpdate(long receivedNanos) {
+            return PriceUpdate.builder().symbol("BTCUSDT").priceMantissa(1).priceScale((byte) 0).receivedNanos(receivedNanos).build();
+        }
+
+        private static BinanceWebSocketProperties properties() {
+            return BinanceWebSocketProperties.builder()
+                    .observability(BinanceWebSocketProperties.Observability.builder().priceLatencyTimer(TIMER).build())
+                    .build();
+        }
+    }
+}
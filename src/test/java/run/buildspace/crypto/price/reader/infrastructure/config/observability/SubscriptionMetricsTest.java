@@ -10,6 +10,7 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import run.buildspace.crypto.price.reader.infrastructure.adapter.out.currency_exchange.BinanceSubscriptionUpdater;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -22,11 +23,14 @@ class SubscriptionMetricsTest {
     @Mock
     private PriceSubscriptionRepository repository;
 
+    @Mock
+    private BinanceSubscriptionUpdater updater;
+
     @Test
     void initMetricsTest() {
         // given
         MeterRegistry registry = new SimpleMeterRegistry();
-        SubscriptionMetrics subscriptionMetrics = new SubscriptionMetrics(registry, repository);
+        SubscriptionMetrics subscriptionMetrics = new SubscriptionMetrics(registry, repository, updater);
 
         // when
         subscriptionMetrics.initMetrics();
@@ -41,7 +45,7 @@ class SubscriptionMetricsTest {
         // given
         MeterRegistry registry = new SimpleMeterRegistry();
         given(repository.count()).willReturn(5L);
-        SubscriptionMetrics subscriptionMetrics = new SubscriptionMetrics(registry, repository);
+        SubscriptionMetrics subscriptionMetrics = new SubscriptionMetrics(registry, repository, updater);
         subscriptionMetrics.initMetrics();
 
         // when
@@ -51,4 +55,20 @@ class SubscriptionMetricsTest {
         // then
         assertEquals(5.0, value, "Gauge should return repository count");
     }
+
+    @Test
+    void stateValuesTest() {
+        // given
+        MeterRegistry registry = new SimpleMeterRegistry();
+        given(updater.liveSubscriptions()).willReturn(4);
+        given(updater.pendingSubscriptions()).willReturn(2);
+        given(updater.pendingUnsubscriptions()).willReturn(1);
+        SubscriptionMetrics subscriptionMetrics = new SubscriptionMetrics(registry, repository, updater);
+        subscriptionMetrics.initMetrics();
+
+        // when && then
+        assertEquals(4.0, registry.get("subscriptions.state").tag(SubscriptionMetrics.STATE_TAG, "live").gauge().value());
+        assertEquals(2.0, registry.get("subscriptions.state").tag(SubscriptionMetrics.STATE_TAG, "pending-subscribe").gauge().value());
+        assertEquals(1.0, registry.get("subscriptions.state").tag(SubscriptionMetrics.STATE_TAG, "pending-unsubscribe").gauge().value());
+    }
 }